@@ -0,0 +1,129 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.entity.Comment;
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.repository.PostRepository;
+import com.example.devnote.repository.UserRepository;
+import com.example.devnote.service.IdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量插入评论（模拟评论刷屏 / 数据导入），基于 H2
+ *
+ *  - jpaUnbatched：Hibernate 逐条发送 INSERT（会话内 jdbc batch size = 1，相当于 IDENTITY 主键时的行为）
+ *  - jpaBatched：Hibernate 按 hibernate.jdbc.batch_size 合并成 JDBC 批次（主键由 @TimeOrderedId 预先生成）
+ *  - jdbcBatched：IdGenerator 本地生成主键 + JdbcTemplate.batchUpdate
+ *
+ * 分数为每条评论的平均耗时。H2 没有网络往返，MySQL 上（开启 rewriteBatchedStatements）差距会更大。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BatchInsertBenchmark.ROWS)
+public class BatchInsertBenchmark {
+
+    static final int ROWS = 500;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private JdbcTemplate jdbcTemplate;
+    private IdGenerator idGenerator;
+
+    private User author;
+    private Post post;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = DatabaseFixture.start();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        idGenerator = context.getBean(IdGenerator.class);
+
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+        User user = fixtures.users(1).get(0);
+        user.setId(null);
+        author = context.getBean(UserRepository.class).save(user);
+        Post fixturePost = fixtures.post(author, "PUBLIC");
+        fixturePost.setId(null);
+        post = context.getBean(PostRepository.class).save(fixturePost);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearComments() {
+        jdbcTemplate.update("DELETE FROM comments");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void jpaUnbatched() {
+        persistComments(1);
+    }
+
+    @Benchmark
+    public void jpaBatched() {
+        persistComments(50);
+    }
+
+    @Benchmark
+    public int[] jdbcBatched() {
+        long[] ids = idGenerator.nextIds(ROWS);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{ids[i], "batch comment " + i, now, post.getId(), author.getId()});
+        }
+        return jdbcTemplate.batchUpdate(
+                "INSERT INTO comments (id, content, created_at, post_id, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void persistComments(int batchSize) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            entityManager.getTransaction().begin();
+            User authorRef = entityManager.getReference(User.class, author.getId());
+            Post postRef = entityManager.getReference(Post.class, post.getId());
+            for (int i = 0; i < ROWS; i++) {
+                Comment comment = new Comment();
+                comment.setContent("batch comment " + i);
+                comment.setAuthor(authorRef);
+                comment.setPost(postRef);
+                entityManager.persist(comment);
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
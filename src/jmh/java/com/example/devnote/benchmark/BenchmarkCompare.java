@@ -0,0 +1,87 @@
+package com.example.devnote.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 比较两次 JMH 运行结果（-rf json 输出）
+ *
+ * 用法：
+ *   ./mvnw -Pbenchmark test-compile exec:java -Dexec.mainClass=com.example.devnote.benchmark.BenchmarkCompare \
+ *       -Dexec.classpathScope=test -Dexec.args="benchmarks/results/old.json benchmarks/results/new.json 10"
+ *
+ * 第三个参数为回归阈值（百分比，默认 10）。当前结果比基线慢超过阈值时以非 0 退出，便于在 CI 中拦截。
+ * 只比较 AverageTime / SampleTime 这类“越小越好”的模式，吞吐量模式会反向计算。
+ */
+public final class BenchmarkCompare {
+
+    private BenchmarkCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: BenchmarkCompare <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, Result> baseline = load(new File(args[0]));
+        Map<String, Result> current = load(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", now.score, "new");
+                continue;
+            }
+            // 统一换算成“正数表示变慢”
+            double change = (now.score - before.score) / before.score * 100.0;
+            if (now.higherIsBetter) {
+                change = -change;
+            }
+            boolean regressed = change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n",
+                    entry.getKey(), before.score, now.score, change, regressed ? "  <-- 回归" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " 个基准回归超过 " + threshold + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> load(File file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file);
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> it = params.fields();
+                while (it.hasNext()) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            String mode = run.get("mode").asText();
+            double score = run.get("primaryMetric").get("score").asDouble();
+            results.put(key.toString(), new Result(score, "thrpt".equals(mode)));
+        }
+        return results;
+    }
+
+    private record Result(double score, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.entity.Comment;
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试用的内存数据生成器
+ *
+ * 生成的对象只在内存中（带 ID），不经过数据库；
+ * 固定随机种子，保证每次运行的数据分布一致，结果才有可比性。
+ */
+public final class BenchmarkFixtures {
+
+    public static final String[] VISIBILITIES = {"PUBLIC", "PUBLIC", "PUBLIC", "FOLLOWERS", "PRIVATE"};
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final Random random;
+    private long nextPostId = 1;
+    private long nextCommentId = 1;
+
+    public BenchmarkFixtures(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User("user" + i, "{noop}password", "USER");
+            user.setId((long) i);
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * 为每个作者生成 postsPerAuthor 篇文章，可见性按 VISIBILITIES 的比例随机分布
+     */
+    public List<Post> posts(List<User> authors, int postsPerAuthor) {
+        List<Post> posts = new ArrayList<>(authors.size() * postsPerAuthor);
+        for (User author : authors) {
+            for (int i = 0; i < postsPerAuthor; i++) {
+                posts.add(post(author, VISIBILITIES[random.nextInt(VISIBILITIES.length)]));
+            }
+        }
+        return posts;
+    }
+
+    public Post post(User author, String visibility) {
+        Post post = new Post();
+        post.setId(nextPostId++);
+        post.setTitle("Benchmark post " + post.getId());
+        post.setContent(content(600));
+        post.setVisibility(visibility);
+        post.setAuthor(author);
+        post.setCreatedAt(BASE_TIME.plusMinutes(random.nextInt(500_000)));
+        return post;
+    }
+
+    /**
+     * 为文章生成两层评论：topLevel 条顶级评论，每条带 repliesEach 条回复。
+     * 与实体映射一致：post.comments 包含所有评论（含回复），comment.replies 只含直接回复。
+     */
+    public List<Comment> comments(Post post, List<User> authors, int topLevel, int repliesEach) {
+        List<Comment> all = new ArrayList<>(topLevel * (repliesEach + 1));
+        for (int i = 0; i < topLevel; i++) {
+            Comment parent = comment(post, authors.get(random.nextInt(authors.size())), null);
+            all.add(parent);
+            for (int j = 0; j < repliesEach; j++) {
+                Comment reply = comment(post, authors.get(random.nextInt(authors.size())), parent);
+                parent.getReplies().add(reply);
+                all.add(reply);
+            }
+        }
+        post.setComments(all);
+        return all;
+    }
+
+    private Comment comment(Post post, User author, Comment parent) {
+        Comment comment = new Comment();
+        comment.setId(nextCommentId++);
+        comment.setPost(post);
+        comment.setAuthor(author);
+        comment.setParent(parent);
+        comment.setContent(content(80));
+        comment.setCreatedAt(post.getCreatedAt().plusMinutes(random.nextInt(10_000)));
+        return comment;
+    }
+
+    public String content(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append("DevNote benchmark content ").append(random.nextInt(1000)).append(". ");
+        }
+        return sb.substring(0, length);
+    }
+}
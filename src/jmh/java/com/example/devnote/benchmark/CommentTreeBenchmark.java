@@ -0,0 +1,114 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.entity.Comment;
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.repository.CommentRepository;
+import com.example.devnote.repository.PostRepository;
+import com.example.devnote.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评论树组装，基于 H2
+ *
+ * 复现文章详情页的访问模式：加载文章 → 遍历 post.comments → 每条评论再访问 replies 与作者，
+ * 懒加载产生的 SQL 往返都计入耗时。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentTreeBenchmark {
+
+    @Param({"10", "100"})
+    public int topLevelComments;
+
+    @Param({"4"})
+    public int repliesEach;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private PostRepository postRepository;
+    private CommentRepository commentRepository;
+    private Long postId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = DatabaseFixture.start();
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        postRepository = context.getBean(PostRepository.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+        List<User> users = new ArrayList<>();
+        for (User user : fixtures.users(50)) {
+            user.setId(null);
+            users.add(userRepository.save(user));
+        }
+        Post post = fixtures.post(users.get(0), "PUBLIC");
+        post.setId(null);
+        post = postRepository.save(post);
+        postId = post.getId();
+
+        List<Comment> comments = fixtures.comments(post, users, topLevelComments, repliesEach);
+        for (Comment comment : comments) {
+            comment.setId(null);
+            comment.getReplies().clear();
+            commentRepository.save(comment);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void loadCommentTree(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Post post = postRepository.findById(postId).orElseThrow();
+            for (Comment comment : post.getComments()) {
+                blackhole.consume(comment.getAuthor().getUsername());
+                for (Comment reply : comment.getReplies()) {
+                    blackhole.consume(reply.getAuthor().getUsername());
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    public void loadTopLevelComments(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Post post = postRepository.getReferenceById(postId);
+            for (Comment comment : commentRepository.findByPostAndParentIsNullOrderByCreatedAtAsc(post)) {
+                blackhole.consume(comment.getAuthor().getUsername());
+                for (Comment reply : comment.getReplies()) {
+                    blackhole.consume(reply.getAuthor().getUsername());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.DevnoteApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 基于 H2 的基准测试环境
+ *
+ * 使用 test profile（H2 内存库，MySQL 模式）启动一个非 Web 的 Spring 上下文，
+ * 基准中通过真实的 Service / Repository 访问数据库，测的是包含 SQL 往返的完整调用路径。
+ */
+public final class DatabaseFixture {
+
+    private DatabaseFixture() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DevnoteApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.tool.schema=ERROR",
+                        // 每个 fork 独立的内存库
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + ProcessHandle.current().pid()
+                                + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL")
+                .run();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.dto.PostSummaryDto;
+import com.example.devnote.entity.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体 → DTO 映射（点赞列表接口中 Post → PostSummaryDto）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"5", "100"})
+    public int pageSize;
+
+    private List<Post> page;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+        page = fixtures.posts(fixtures.users(pageSize), 1);
+    }
+
+    @Benchmark
+    public List<PostSummaryDto> toPostSummaryDtos() {
+        return page.stream()
+                .map(post -> new PostSummaryDto(post.getId(), post.getTitle()))
+                .toList();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.service.FeedService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 首页文章流合并（FeedService.mergeVisiblePosts）：三路列表拼接 + distinct + 倒序排序
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedMergeBenchmark {
+
+    @Param({"1000", "10000"})
+    public int publicPosts;
+
+    @Param({"50"})
+    public int followees;
+
+    private final FeedService feedService = new FeedService(null, null);
+
+    private List<Post> ownPosts;
+    private List<Post> publicList;
+    private List<Post> followerVisiblePosts;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+        List<User> users = fixtures.users(followees + 1);
+        User self = users.get(0);
+
+        // 自己的文章里 PUBLIC 的会同时出现在 publicList 中，保证 distinct 有真实的重复可去
+        ownPosts = sortedDesc(fixtures.posts(List.of(self), 50));
+        List<Post> others = fixtures.posts(users.subList(1, users.size()), Math.max(1, publicPosts / followees));
+        publicList = sortedDesc(concat(ownPosts, others).stream()
+                .filter(p -> "PUBLIC".equals(p.getVisibility()))
+                .limit(publicPosts)
+                .toList());
+        followerVisiblePosts = others.stream()
+                .filter(p -> "FOLLOWERS".equals(p.getVisibility()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Post> mergeVisiblePosts() {
+        return feedService.mergeVisiblePosts(ownPosts, publicList, followerVisiblePosts);
+    }
+
+    private static List<Post> sortedDesc(List<Post> posts) {
+        return posts.stream().sorted(Comparator.comparing(Post::getCreatedAt).reversed()).toList();
+    }
+
+    private static List<Post> concat(List<Post> a, List<Post> b) {
+        return java.util.stream.Stream.concat(a.stream(), b.stream()).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.config.CacheMetrics;
+import com.example.devnote.config.RecommendationProperties;
+import com.example.devnote.service.FollowGraphIndex;
+import com.example.devnote.service.FollowRecommendationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关注推荐的两跳遍历（FollowRecommendationService.recommend，不走缓存）
+ * 10 万用户、每人平均关注 200 人的内存关注图，被推荐用户关注 followees 人
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FollowRecommendationBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int AVERAGE_FOLLOWEES = 200;
+
+    @Param({"100", "2000", "5000"})
+    public int followees;
+
+    private FollowRecommendationService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FollowGraphIndex followGraph = new FollowGraphIndex(Mockito.mock(JdbcTemplate.class), registry);
+        followGraph.load();
+
+        // 关注对象按幂律偏向少数热门用户，共同关注才有真实的重叠
+        Random random = new Random(42);
+        for (long user = 1; user <= USERS; user++) {
+            int count = user == 1 ? followees : random.nextInt(AVERAGE_FOLLOWEES * 2);
+            for (int i = 0; i < count; i++) {
+                double skewed = Math.pow(random.nextDouble(), 3);
+                followGraph.add(user, 1 + (long) (skewed * (USERS - 1)));
+            }
+        }
+
+        RecommendationProperties properties = new RecommendationProperties();
+        properties.setCacheTtl(Duration.ZERO);
+        service = new FollowRecommendationService(followGraph, null, null, new CacheMetrics(registry),
+                properties, registry);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public List<FollowRecommendationService.Recommendation> recommend() {
+        return service.recommend(1, 20);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.dto.SavedPostDto;
+import com.example.devnote.entity.Post;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LikePostApiController 点赞列表响应的 JSON 序列化
+ * 响应结构与 GET /api/user/{username}/liked-posts 保持一致
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"5", "100"})
+    public int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CursorPage<SavedPostDto> likedPostsResponse;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+        List<Post> posts = fixtures.posts(fixtures.users(pageSize + 1), 1);
+        LocalDateTime now = LocalDateTime.now();
+        List<SavedPostDto> rows = posts.stream()
+                .map(post -> new SavedPostDto(post.getId(), post.getTitle(), now, post.getId()))
+                .toList();
+
+        // 多取的一条表示还有下一页，本身不输出
+        likedPostsResponse = CursorPage.of(rows, pageSize, 20L * pageSize);
+    }
+
+    @Benchmark
+    public byte[] likedPostsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(likedPostsResponse);
+    }
+}
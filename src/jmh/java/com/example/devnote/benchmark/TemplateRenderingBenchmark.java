@@ -0,0 +1,95 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thymeleaf 模板渲染：首页文章列表（index）与文章详情（post_detail，含评论树）
+ *
+ * 与线上配置一致使用 SpringTemplateEngine + classpath:/templates/，但开启模板缓存，
+ * 只测渲染本身而不是每次重新解析模板文件。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderingBenchmark {
+
+    @Param({"20", "200"})
+    public int postCount;
+
+    @Param({"50"})
+    public int commentCount;
+
+    private SpringTemplateEngine templateEngine;
+    private WebContext indexContext;
+    private WebContext postDetailContext;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+        List<User> users = fixtures.users(20);
+        List<Post> posts = fixtures.posts(users, Math.max(1, postCount / users.size()));
+
+        indexContext = webContext();
+        indexContext.setVariable("posts", posts);
+        indexContext.setVariable("currentUsername", users.get(0).getUsername());
+
+        Post post = posts.get(0);
+        // 顶级评论 : 回复 ≈ 1 : 4
+        fixtures.comments(post, users, Math.max(1, commentCount / 5), 4);
+        postDetailContext = webContext();
+        postDetailContext.setVariable("post", post);
+        postDetailContext.setVariable("currentUsername", users.get(0).getUsername());
+    }
+
+    @Benchmark
+    public String renderIndex() {
+        return templateEngine.process("index", indexContext);
+    }
+
+    @Benchmark
+    public String renderPostDetail() {
+        return templateEngine.process("post_detail", postDetailContext);
+    }
+
+    private static WebContext webContext() {
+        MockServletContext servletContext = new MockServletContext();
+        JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+        return new WebContext(application.buildExchange(new MockHttpServletRequest(servletContext), new MockHttpServletResponse()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.service.PrefixTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户名前缀补全（UserSearchIndex 使用的 PrefixTrie.top，取粉丝最多的 8 个）
+ * 100 万个由拼音音节和数字组成的用户名，粉丝数按幂律分布；前缀越短，匹配的用户越多
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSuggestBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final String[] SYLLABLES = {"zhang", "wang", "li", "liu", "chen", "yang", "huang", "zhao",
+            "wu", "zhou", "xu", "sun", "ma", "zhu", "hu", "guo", "he", "lin", "luo", "gao", "dev", "code", "java"};
+
+    @Param({"1", "3", "6"})
+    public int prefixLength;
+
+    private PrefixTrie trie;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        trie = new PrefixTrie();
+        String[] names = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            String name = SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                    + random.nextInt(10_000);
+            names[i] = name;
+            trie.put(name, (long) (Math.pow(random.nextDouble(), 4) * 100_000));
+        }
+
+        // 从真实用户名截取前缀，轮流查询
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = names[random.nextInt(USERS)];
+            prefixes[i] = name.substring(0, Math.min(prefixLength, name.length()));
+        }
+    }
+
+    @Benchmark
+    public List<PrefixTrie.Match> suggest() {
+        return trie.top(prefixes[next++ & (prefixes.length - 1)], 8);
+    }
+}
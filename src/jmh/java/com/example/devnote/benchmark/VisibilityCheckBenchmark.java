@@ -0,0 +1,99 @@
+package com.example.devnote.benchmark;
+
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.repository.PostRepository;
+import com.example.devnote.repository.UserRepository;
+import com.example.devnote.service.FollowService;
+import com.example.devnote.service.PostVisibilityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章可见性判断（PostVisibilityService.canView），基于 H2
+ * 重点是 FOLLOWERS 文章：非作者访问时需要判断关注关系
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisibilityCheckBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private PostVisibilityService visibilityService;
+
+    private Post publicPost;
+    private Post followersPost;
+    private String follower;
+    private String stranger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = DatabaseFixture.start();
+        visibilityService = context.getBean(PostVisibilityService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        FollowService followService = context.getBean(FollowService.class);
+
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+        List<User> users = new ArrayList<>();
+        for (User user : fixtures.users(200)) {
+            user.setId(null);
+            users.add(userRepository.save(user));
+        }
+        User author = users.get(0);
+
+        // 作者有 100 个粉丝，保证关注表不是空表（经由 FollowService，内存关注索引同步更新）
+        for (int i = 1; i <= 100; i++) {
+            followService.follow(users.get(i).getId(), author.getId());
+        }
+        follower = users.get(1).getUsername();
+        stranger = users.get(150).getUsername();
+
+        publicPost = savePost(postRepository, fixtures, author, "PUBLIC");
+        followersPost = savePost(postRepository, fixtures, author, "FOLLOWERS");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean publicPost() {
+        return visibilityService.canView(publicPost, stranger);
+    }
+
+    @Benchmark
+    public boolean followersPostAsFollower() {
+        return visibilityService.canView(followersPost, follower);
+    }
+
+    @Benchmark
+    public boolean followersPostAsStranger() {
+        return visibilityService.canView(followersPost, stranger);
+    }
+
+    private static Post savePost(PostRepository postRepository, BenchmarkFixtures fixtures, User author, String visibility) {
+        Post post = fixtures.post(author, visibility);
+        post.setId(null);
+        return postRepository.save(post);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.devnote.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存缓存 / 索引的命中率统计
+ *
+ * 项目中的内存结构（非 Spring Cache）通过这里记录命中与未命中，
+ * 指标名与 Micrometer 自带的缓存指标保持一致：cache.gets{cache=..., result=hit|miss}，
+ * 因此可以直接在 Prometheus 中计算命中率：
+ *   sum(rate(cache_gets_total{result="hit"}[5m])) / sum(rate(cache_gets_total[5m]))
+ */
+@Component
+public class CacheMetrics {
+
+    private final MeterRegistry registry;
+
+    // 计数器按 (缓存名, 结果) 复用，避免每次调用都去注册表查找
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public CacheMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void hit(String cacheName) {
+        counter(cacheName, "hit").increment();
+    }
+
+    public void miss(String cacheName) {
+        counter(cacheName, "miss").increment();
+    }
+
+    public void record(String cacheName, boolean hit) {
+        if (hit) {
+            hit(cacheName);
+        } else {
+            miss(cacheName);
+        }
+    }
+
+    private Counter counter(String cacheName, String result) {
+        return counters.computeIfAbsent(cacheName + ":" + result, key -> Counter.builder("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .description("内存缓存访问次数")
+                .register(registry));
+    }
+}
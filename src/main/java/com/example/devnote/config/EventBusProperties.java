@@ -0,0 +1,69 @@
+package com.example.devnote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 互动事件总线配置（devnote.events.*）
+ */
+@Component
+@ConfigurationProperties(prefix = "devnote.events")
+public class EventBusProperties {
+
+    /** 待处理事件队列的容量 */
+    private int queueCapacity = 10_000;
+
+    /** 每批最多分发的事件数 */
+    private int batchSize = 500;
+
+    /** 队列满时发布方最多等待多久；仍然放不进去就在发布方线程上直接处理（反压） */
+    private Duration enqueueTimeout = Duration.ofMillis(50);
+
+    /** outbox 事件超过这个时间仍未处理，视为丢失，由定时任务重新投递 */
+    private Duration outboxGrace = Duration.ofSeconds(30);
+
+    /** 检查 outbox 积压的间隔 */
+    private Duration outboxPollInterval = Duration.ofSeconds(5);
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getEnqueueTimeout() {
+        return enqueueTimeout;
+    }
+
+    public void setEnqueueTimeout(Duration enqueueTimeout) {
+        this.enqueueTimeout = enqueueTimeout;
+    }
+
+    public Duration getOutboxGrace() {
+        return outboxGrace;
+    }
+
+    public void setOutboxGrace(Duration outboxGrace) {
+        this.outboxGrace = outboxGrace;
+    }
+
+    public Duration getOutboxPollInterval() {
+        return outboxPollInterval;
+    }
+
+    public void setOutboxPollInterval(Duration outboxPollInterval) {
+        this.outboxPollInterval = outboxPollInterval;
+    }
+}
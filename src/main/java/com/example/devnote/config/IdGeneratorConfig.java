@@ -0,0 +1,18 @@
+package com.example.devnote.config;
+
+import com.example.devnote.service.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 主键生成器配置：多节点部署时每个节点配置不同的 devnote.id.worker-id（0 ~ 31）
+@Configuration
+public class IdGeneratorConfig {
+
+    // 声明为具体类型：按 IdGenerator 注入照常可用，依赖 ID 与时间对应关系的组件（如 EngagementEventBus）可以显式要求它
+    @Bean
+    public SnowflakeIdGenerator idGenerator(@Value("${devnote.id.worker-id:0}") int workerId) {
+        // 与实体上 @TimeOrderedId 使用的是同一个实例，保证同一节点内不会生成重复 ID
+        return SnowflakeIdGenerator.forWorker(workerId);
+    }
+}
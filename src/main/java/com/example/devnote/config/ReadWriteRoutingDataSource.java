@@ -0,0 +1,130 @@
+package com.example.devnote.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读写分离路由数据源
+ *
+ * 按当前事务决定连接来自主库还是副本：
+ *  - @Transactional(readOnly = true) 的方法走副本
+ *  - 写事务、没有事务的访问（JdbcTemplate 直接调用、视图中的懒加载等）走主库
+ *  - 副本延迟超过阈值或检查失败时（见 ReplicaLagMonitor），读也回到主库
+ *  - 读己之写：用户的写事务提交后 stickyWindow 内，该用户的读仍走主库，避免刚写完就读到旧数据
+ *
+ * 路由发生在真正获取连接时，所以必须包在 LazyConnectionDataSourceProxy 里使用：
+ * 事务开始时拿到的是代理连接，执行第一条 SQL 时只读标记已经设置好，才会来这里选库。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final Duration stickyWindow;
+    private final Clock clock;
+
+    // 用户名 -> 最近一次写事务提交的时间（毫秒）
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private volatile boolean replicaAvailable = true;
+
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow,
+                                      MeterRegistry meterRegistry) {
+        this(primary, replica, stickyWindow, meterRegistry, Clock.systemUTC());
+    }
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow,
+                               MeterRegistry meterRegistry, Clock clock) {
+        this.stickyWindow = stickyWindow;
+        this.clock = clock;
+        this.primaryRoutes = meterRegistry.counter("devnote.datasource.routes", "target", "primary");
+        this.replicaRoutes = meterRegistry.counter("devnote.datasource.routes", "target", "replica");
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = route();
+        (target == Target.REPLICA ? replicaRoutes : primaryRoutes).increment();
+        return target;
+    }
+
+    private Target route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit(username);
+            return Target.PRIMARY;
+        }
+        if (!replicaAvailable || recentlyWrote(username)) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * 写事务提交后记录写入时间；从提交开始计算 stickyWindow，而不是从事务开始
+     */
+    private void rememberWriteOnCommit(String username) {
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(username, clock.millis());
+            }
+        });
+    }
+
+    private boolean recentlyWrote(String username) {
+        if (username == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(username);
+        return writtenAt != null && clock.millis() - writtenAt < stickyWindow.toMillis();
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * 清理已过 stickyWindow 的写入记录，避免用户表很大时这张表一直增长
+     */
+    public void purgeExpiredWrites() {
+        long cutoff = clock.millis() - stickyWindow.toMillis();
+        lastWrites.values().removeIf(writtenAt -> writtenAt <= cutoff);
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public void setReplicaAvailable(boolean replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+}
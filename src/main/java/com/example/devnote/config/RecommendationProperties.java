@@ -0,0 +1,80 @@
+package com.example.devnote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 关注推荐配置（devnote.recommendations.*）
+ */
+@Component
+@ConfigurationProperties(prefix = "devnote.recommendations")
+public class RecommendationProperties {
+
+    /** 第一跳最多展开的关注数，超出时在关注列表中均匀抽样 */
+    private int maxFollowees = 2000;
+
+    /** 第二跳每个被关注者最多计入的关注数（关注了大量用户的账号对结果影响有限） */
+    private int maxPerFollowee = 1000;
+
+    /** 每个用户缓存的推荐条数，也是单次请求能取到的上限 */
+    private int maxResults = 50;
+
+    /** 推荐结果的缓存时间；本人关注 / 取关时立即失效 */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    /** 缓存的用户数上限，超过时整体清空 */
+    private int maxCachedUsers = 10_000;
+
+    /** 计算用的 ForkJoin 线程数，0 表示 CPU 核数 */
+    private int parallelism = 0;
+
+    public int getMaxFollowees() {
+        return maxFollowees;
+    }
+
+    public void setMaxFollowees(int maxFollowees) {
+        this.maxFollowees = maxFollowees;
+    }
+
+    public int getMaxPerFollowee() {
+        return maxPerFollowee;
+    }
+
+    public void setMaxPerFollowee(int maxPerFollowee) {
+        this.maxPerFollowee = maxPerFollowee;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public int getMaxCachedUsers() {
+        return maxCachedUsers;
+    }
+
+    public void setMaxCachedUsers(int maxCachedUsers) {
+        this.maxCachedUsers = maxCachedUsers;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
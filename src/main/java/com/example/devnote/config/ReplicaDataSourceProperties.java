@@ -0,0 +1,113 @@
+package com.example.devnote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 只读副本配置（devnote.datasource.replica.*）
+ *
+ * 未配置 url 时不启用读写分离，所有读写都走 spring.datasource 主库。
+ */
+@ConfigurationProperties(prefix = "devnote.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /** 副本 JDBC 地址 */
+    private String url;
+
+    /** 副本用户名，默认与主库相同 */
+    private String username;
+
+    /** 副本密码，默认与主库相同 */
+    private String password;
+
+    /** 副本连接池最大连接数 */
+    private int maximumPoolSize = 10;
+
+    /** 允许的最大复制延迟，超过后读请求回到主库 */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** 延迟检查间隔 */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    /** 查询复制延迟的 SQL（MySQL 8.0.22+） */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /** lagQuery 结果中表示延迟秒数的列，为 NULL 表示复制已停止 */
+    private String lagColumn = "Seconds_Behind_Source";
+
+    /** 用户写入后，其读请求继续走主库的时长（读己之写） */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public String getLagColumn() {
+        return lagColumn;
+    }
+
+    public void setLagColumn(String lagColumn) {
+        this.lagColumn = lagColumn;
+    }
+
+    public Duration getStickyWindow() {
+        return stickyWindow;
+    }
+
+    public void setStickyWindow(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+}
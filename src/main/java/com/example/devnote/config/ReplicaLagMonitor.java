@@ -0,0 +1,77 @@
+package com.example.devnote.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 副本复制延迟检查
+ *
+ * 定期在副本上执行 lagQuery，延迟超过 maxLag、复制已停止（延迟列为 NULL）或查询失败时，
+ * 把副本标记为不可用，读请求全部回到主库；恢复后自动切回。
+ * 指标：devnote.datasource.replica.lag（秒，未知时为 -1）、devnote.datasource.replica.available（0/1）
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final ReplicaDataSourceProperties properties;
+
+    private volatile double lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, ReadWriteRoutingDataSource routingDataSource,
+                             ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.routingDataSource = routingDataSource;
+        this.properties = properties;
+
+        Gauge.builder("devnote.datasource.replica.lag", this, m -> m.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("devnote.datasource.replica.available", routingDataSource, r -> r.isReplicaAvailable() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${devnote.datasource.replica.lag-check-interval:PT5S}")
+    public void check() {
+        Duration lag = currentLag();
+        lagSeconds = lag == null ? -1 : lag.toMillis() / 1000.0;
+
+        boolean available = lag != null && lag.compareTo(properties.getMaxLag()) <= 0;
+        if (available != routingDataSource.isReplicaAvailable()) {
+            if (available) {
+                log.info("副本已恢复，读请求切回副本（延迟 {}s）", lagSeconds);
+            } else {
+                log.warn("副本不可用或延迟过大（延迟 {}s，阈值 {}），读请求回到主库", lagSeconds, properties.getMaxLag());
+            }
+        }
+        routingDataSource.setReplicaAvailable(available);
+        routingDataSource.purgeExpiredWrites();
+    }
+
+    /**
+     * 当前复制延迟；复制未运行或查询失败时返回 null
+     */
+    Duration currentLag() {
+        try {
+            return replicaJdbcTemplate.query(properties.getLagQuery(), rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                long seconds = rs.getLong(properties.getLagColumn());
+                return rs.wasNull() ? null : Duration.ofSeconds(seconds);
+            });
+        } catch (RuntimeException e) {
+            log.warn("副本延迟检查失败：{}", e.getMessage());
+            return null;
+        }
+    }
+}
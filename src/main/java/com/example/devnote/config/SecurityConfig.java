@@ -54,8 +54,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // 放行登录、注册、静态资源
                         .requestMatchers("/login", "/register", "/css/**", "/js/**").permitAll()
-                        //允许未登录用户查看文章（首页，详情页，错误页面）
-                        .requestMatchers("/","/posts/**").permitAll()
+                        // 放行健康检查与 Prometheus 抓取端点（其余 actuator 端点仍需登录）
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        //允许未登录用户查看文章（首页，详情页，热门，标签页，错误页面）
+                        .requestMatchers("/","/posts/**","/trending","/tags/**").permitAll()
                         //写文章必须登录
                         .requestMatchers("/posts/new","/posts/save","/posts/*/edit").authenticated()
                         // 其他请求都需要登录
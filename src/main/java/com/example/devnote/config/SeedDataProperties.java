@@ -0,0 +1,147 @@
+package com.example.devnote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 测试数据生成配置（devnote.seed.*）
+ *
+ * 所有数量都是“平均值”，实际分布由 zipfExponent 控制的幂律决定：
+ * 少数热门用户拥有大量粉丝、少数热门文章获得大量点赞，更接近真实社区的数据形态。
+ */
+@Component
+@ConfigurationProperties(prefix = "devnote.seed")
+public class SeedDataProperties {
+
+    /** 用户数 */
+    private int users = 1000;
+
+    /** 每个用户平均发文数 */
+    private int postsPerUser = 10;
+
+    /** 每个用户平均关注数 */
+    private int followsPerUser = 50;
+
+    /** 每个用户平均点赞数 */
+    private int likesPerUser = 100;
+
+    /** 每个用户平均收藏数 */
+    private int favoritesPerUser = 20;
+
+    /** 每篇文章平均顶级评论数 */
+    private int commentsPerPost = 5;
+
+    /** 回复层数（0 表示只有顶级评论） */
+    private int replyDepth = 2;
+
+    /** 每条评论平均回复数 */
+    private int repliesPerComment = 1;
+
+    /** 幂律分布指数，越大越集中在头部 */
+    private double zipfExponent = 1.1;
+
+    /** JDBC 批量大小 */
+    private int batchSize = 1000;
+
+    /** 随机种子，固定后每次生成的数据分布一致 */
+    private long randomSeed = 42;
+
+    /** 所有生成用户的明文密码（便于压测登录） */
+    private String password = "password123";
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public int getPostsPerUser() {
+        return postsPerUser;
+    }
+
+    public void setPostsPerUser(int postsPerUser) {
+        this.postsPerUser = postsPerUser;
+    }
+
+    public int getFollowsPerUser() {
+        return followsPerUser;
+    }
+
+    public void setFollowsPerUser(int followsPerUser) {
+        this.followsPerUser = followsPerUser;
+    }
+
+    public int getLikesPerUser() {
+        return likesPerUser;
+    }
+
+    public void setLikesPerUser(int likesPerUser) {
+        this.likesPerUser = likesPerUser;
+    }
+
+    public int getFavoritesPerUser() {
+        return favoritesPerUser;
+    }
+
+    public void setFavoritesPerUser(int favoritesPerUser) {
+        this.favoritesPerUser = favoritesPerUser;
+    }
+
+    public int getCommentsPerPost() {
+        return commentsPerPost;
+    }
+
+    public void setCommentsPerPost(int commentsPerPost) {
+        this.commentsPerPost = commentsPerPost;
+    }
+
+    public int getReplyDepth() {
+        return replyDepth;
+    }
+
+    public void setReplyDepth(int replyDepth) {
+        this.replyDepth = replyDepth;
+    }
+
+    public int getRepliesPerComment() {
+        return repliesPerComment;
+    }
+
+    public void setRepliesPerComment(int repliesPerComment) {
+        this.repliesPerComment = repliesPerComment;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public void setZipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.devnote.config;
+
+import com.example.devnote.service.SeedDataService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * 以 seed profile 启动时自动生成测试数据：
+ *   ./mvnw spring-boot:run -Dspring-boot.run.profiles=seed -Dspring-boot.run.arguments="--devnote.seed.users=10000"
+ */
+@Component
+@Profile("seed")
+public class SeedDataRunner implements CommandLineRunner {
+
+    private final SeedDataService seedDataService;
+
+    public SeedDataRunner(SeedDataService seedDataService) {
+        this.seedDataService = seedDataService;
+    }
+
+    @Override
+    public void run(String... args) {
+        seedDataService.generate();
+    }
+}
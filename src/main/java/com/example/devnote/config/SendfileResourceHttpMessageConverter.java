@@ -0,0 +1,58 @@
+package com.example.devnote.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 大文件交给 Tomcat 用 sendfile 发送
+ *
+ * 默认的 ResourceHttpMessageConverter 把文件读进堆内缓冲区再写给 socket；对于磁盘上的大文件，
+ * 这里只在请求上设置 Tomcat 约定的 sendfile 属性并返回，由连接器在响应结束后直接从文件描述符发送（零拷贝）。
+ * 连接器不支持（如 HTTPS 下的部分配置、非 Tomcat 容器）、资源不是普通文件或小于阈值时，仍按原方式写出。
+ */
+class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    static final String SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    // 与 Tomcat DefaultServlet 的默认 sendfileSize 一致：更小的文件直接写反而更省系统调用
+    static final long DEFAULT_THRESHOLD = 48 * 1024;
+
+    private final long threshold;
+
+    SendfileResourceHttpMessageConverter(long threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+        HttpServletRequest request = currentRequest();
+        if (request != null && Boolean.TRUE.equals(request.getAttribute(SUPPORT_ATTR)) && resource.isFile()) {
+            File file = resource.getFile();
+            long length = file.length();
+            if (length >= threshold) {
+                // Content-Length 已由 addDefaultHeaders 写好，这里不写响应体
+                request.setAttribute(FILENAME_ATTR, file.getAbsolutePath());
+                request.setAttribute(START_ATTR, 0L);
+                request.setAttribute(END_ATTR, length);
+                return;
+            }
+        }
+        super.writeContent(resource, outputMessage);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.devnote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 文章计数实时推送配置（devnote.sse.*）
+ */
+@Component
+@ConfigurationProperties(prefix = "devnote.sse")
+public class SseProperties {
+
+    /** 合并推送的间隔：每篇文章每个间隔最多推送一次（500ms 即每秒最多 2 次） */
+    private Duration flushInterval = Duration.ofMillis(500);
+
+    /** 同时保持的连接数上限，超出时新连接返回 503，客户端按 retry 稍后重连 */
+    private int maxConnections = 10_000;
+
+    /** 单个连接的最长保持时间，到期后由客户端自动重连 */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /** 心跳间隔，用来及时发现已断开的连接（也防止代理因空闲断开） */
+    private Duration heartbeatInterval = Duration.ofSeconds(25);
+
+    /** 一次发送超过这个时间仍未完成，视为慢消费者并断开 */
+    private Duration slowConsumerTimeout = Duration.ofSeconds(5);
+
+    /** 负责写出事件的线程数；空闲连接不占线程 */
+    private int sendThreads = 4;
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public Duration getSlowConsumerTimeout() {
+        return slowConsumerTimeout;
+    }
+
+    public void setSlowConsumerTimeout(Duration slowConsumerTimeout) {
+        this.slowConsumerTimeout = slowConsumerTimeout;
+    }
+
+    public int getSendThreads() {
+        return sendThreads;
+    }
+
+    public void setSendThreads(int sendThreads) {
+        this.sendThreads = sendThreads;
+    }
+}
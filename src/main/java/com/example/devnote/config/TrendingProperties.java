@@ -0,0 +1,87 @@
+package com.example.devnote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 热门文章排行配置（devnote.trending.*）
+ */
+@Component
+@ConfigurationProperties(prefix = "devnote.trending")
+public class TrendingProperties {
+
+    /** 参与排行的文章发布时间范围，更早的文章移出内存并删除快照 */
+    private Duration window = Duration.ofDays(7);
+
+    /** 热度半衰期：晚发布一个半衰期的文章，互动量只需一半就能排在同一位置 */
+    private Duration halfLife = Duration.ofHours(12);
+
+    /** 点赞、收藏、评论的权重 */
+    private double likeWeight = 1;
+    private double favoriteWeight = 2;
+    private double commentWeight = 3;
+
+    /** 排行保留的文章数（K），/trending 最多展示这么多 */
+    private int maxResults = 100;
+
+    /** 计数快照写入数据库的间隔；宕机时最多丢失这段时间内的增量 */
+    private Duration persistInterval = Duration.ofMinutes(1);
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public Duration getHalfLife() {
+        return halfLife;
+    }
+
+    public void setHalfLife(Duration halfLife) {
+        this.halfLife = halfLife;
+    }
+
+    public double getLikeWeight() {
+        return likeWeight;
+    }
+
+    public void setLikeWeight(double likeWeight) {
+        this.likeWeight = likeWeight;
+    }
+
+    public double getFavoriteWeight() {
+        return favoriteWeight;
+    }
+
+    public void setFavoriteWeight(double favoriteWeight) {
+        this.favoriteWeight = favoriteWeight;
+    }
+
+    public double getCommentWeight() {
+        return commentWeight;
+    }
+
+    public void setCommentWeight(double commentWeight) {
+        this.commentWeight = commentWeight;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public Duration getPersistInterval() {
+        return persistInterval;
+    }
+
+    public void setPersistInterval(Duration persistInterval) {
+        this.persistInterval = persistInterval;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.devnote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 文件上传配置（devnote.upload.*）
+ */
+@Component
+@ConfigurationProperties(prefix = "devnote.upload")
+public class UploadProperties {
+
+    /** 单个文件的大小上限（容器层的 spring.servlet.multipart.max-file-size 只是兜底） */
+    private DataSize maxFileSize = DataSize.ofMegabytes(5);
+
+    /** 全局同时处理中的上传数；临时文件占用的磁盘最多为 maxConcurrent × maxFileSize */
+    private int maxConcurrent = 8;
+
+    /** 每个用户同时处理中的上传数 */
+    private int maxPerUser = 1;
+
+    /** 全局名额用完时最多等待多久 */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+
+    /** 临时文件目录，为空时使用系统临时目录下的 devnote-uploads */
+    private String tempDir = "";
+
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getMaxPerUser() {
+        return maxPerUser;
+    }
+
+    public void setMaxPerUser(int maxPerUser) {
+        this.maxPerUser = maxPerUser;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public String getTempDir() {
+        return tempDir;
+    }
+
+    public void setTempDir(String tempDir) {
+        this.tempDir = tempDir;
+    }
+}
@@ -1,9 +1,24 @@
 package com.example.devnote.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 // 这个类是用来配置静态资源的，比如图片，css，js等
 @Configuration
@@ -13,14 +28,61 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 让 /uploads/** 映射到本地文件目录
-        String pathPattern = "/uploads/**";
-        String resourceLocation = "file:" + uploadDir;
+        // css / js 的地址带上内容哈希（/css/style-<md5>.css，模板里的 @{/css/...} 由 ResourceUrlEncodingFilter 自动改写），
+        // 内容变了地址就变，因此可以永久缓存；有预压缩的 .br / .gz 文件时按 Accept-Encoding 直接返回，不在运行时压缩。
+        // 解析结果缓存在内存里（resourceChain(true)），重复请求不再计算哈希或查找文件。
+        for (String dir : List.of("css", "js")) {
+            registry.addResourceHandler("/" + dir + "/**")
+                    .addResourceLocations("classpath:/static/" + dir + "/")
+                    .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
 
-        registry.addResourceHandler(pathPattern)
-                .addResourceLocations(resourceLocation);
+        // 默认头像等图片地址是写死的，不能永久缓存，只给一个较短的有效期，过期后凭 Last-Modified 协商
+        registry.addResourceHandler("/images/**")
+                .addResourceLocations("classpath:/static/images/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(7)).cachePublic());
     }
 
+    // 改写模板中 @{...} 生成的静态资源地址，加上内容哈希
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
 
+    /**
+     * 上传文件单独映射：磁盘上的大文件通过 sendfile 发送（见 SendfileResourceHttpMessageConverter），
+     * 优先级高于 Spring Boot 默认的 /** 静态资源映射
+     */
+    @Bean
+    public SimpleUrlHandlerMapping uploadHandlerMapping() throws Exception {
+        // 处理后的头像按内容哈希命名，文件内容永不改变，浏览器和 CDN 可以永久缓存
+        // （路径更具体，优先于下面的 /uploads/** 匹配）
+        ResourceHttpRequestHandler avatars = uploadHandler(Paths.get(uploadDir, "avatars").toString(),
+                CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+        // 旧版上传的原图文件名带时间戳、不会被覆盖，但不是按内容命名，缓存一周后凭 ETag 协商
+        ResourceHttpRequestHandler uploads = uploadHandler(uploadDir,
+                CacheControl.maxAge(Duration.ofDays(7)).cachePublic());
+        return new SimpleUrlHandlerMapping(Map.of("/uploads/avatars/**", avatars, "/uploads/**", uploads),
+                Ordered.LOWEST_PRECEDENCE - 2);
+    }
 
+    private static ResourceHttpRequestHandler uploadHandler(String dir, CacheControl cacheControl) throws Exception {
+        ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler();
+        handler.setLocations(List.of(new FileSystemResource(dir.endsWith("/") ? dir : dir + "/")));
+        handler.setCacheControl(cacheControl);
+        handler.setEtagGenerator(resource -> {
+            try {
+                return Long.toHexString(resource.lastModified()) + "-" + Long.toHexString(resource.contentLength());
+            } catch (IOException e) {
+                return null;
+            }
+        });
+        handler.setResourceHttpMessageConverter(
+                new SendfileResourceHttpMessageConverter(SendfileResourceHttpMessageConverter.DEFAULT_THRESHOLD));
+        handler.afterPropertiesSet();
+        return handler;
+    }
 }
@@ -2,12 +2,18 @@ package com.example.devnote.controller;
 
 import com.example.devnote.entity.Comment;
 import com.example.devnote.entity.Post;
+import com.example.devnote.entity.Tag;
 import com.example.devnote.entity.User;
 import com.example.devnote.repository.CommentRepository;
-import com.example.devnote.repository.FollowRepository;
 import com.example.devnote.repository.PostRepository;
+import com.example.devnote.repository.PostViewRepository;
 import com.example.devnote.repository.UserRepository;
-import com.example.devnote.service.FollowService;
+import com.example.devnote.service.FeedService;
+import com.example.devnote.service.PostService;
+import com.example.devnote.service.PostViewCounter;
+import com.example.devnote.service.PostVisibilityService;
+import com.example.devnote.service.TagService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -18,9 +24,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.security.Principal;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @Controller 表示这是一个 Spring MVC 控制器
@@ -40,21 +45,30 @@ public class BlogController {
     private final UserRepository userRepository;
 
     private final CommentRepository commentRepository;
-    private final FollowService followService;
 
-    private final FollowRepository followRepository;
+    private final FeedService feedService;
+
+    private final PostVisibilityService postVisibilityService;
+
+    private final PostService postService;
+
+    private final PostViewCounter postViewCounter;
 
     //用构造函数注入
     public BlogController(PostRepository postRepository,
                           UserRepository userRepository,
                           CommentRepository commentRepository,
-                          FollowService followService,
-                          FollowRepository followRepository) {
+                          FeedService feedService,
+                          PostVisibilityService postVisibilityService,
+                          PostService postService,
+                          PostViewCounter postViewCounter) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.commentRepository = commentRepository;
-        this.followService = followService;
-        this.followRepository = followRepository;
+        this.feedService = feedService;
+        this.postVisibilityService = postVisibilityService;
+        this.postService = postService;
+        this.postViewCounter = postViewCounter;
     }
 
     /**
@@ -65,7 +79,7 @@ public class BlogController {
      */
     @GetMapping({"/","/posts"})
     public String index(Model model,Authentication authentication) {
-        List<Post> visiblePosts = new ArrayList<>();
+        List<Post> visiblePosts;
         
         // 始终设置currentUsername，方便前端判断登录状态
         String currentUsername = (authentication != null && authentication.isAuthenticated() && !authentication.getName().equals("anonymousUser")) 
@@ -74,7 +88,7 @@ public class BlogController {
 
         //如果未登录或未认证，则只允许查看PUBLIC公开权限的文章
         if (authentication == null || !authentication.isAuthenticated() || authentication.getName().equals("anonymousUser")){
-            visiblePosts = postRepository.findByVisibilityOrderByCreatedAtDesc("PUBLIC");
+            visiblePosts = feedService.getPublicFeed();
         }else {
             String username = authentication.getName();
             User currentUser = userRepository.findByUsername(username);
@@ -82,31 +96,8 @@ public class BlogController {
             //传入用户完整信息
             model.addAttribute("currentUser",currentUser);
 
-            //拿到当前登录用户发布的所有文章（包括PUBLIC、FOLLOWERS和PRIVATE）
-            List<Post> ownPosts = postRepository.findByAuthorOrderByCreatedAtDesc(currentUser);
-
-            //拿到公开文章
-            List<Post> publicPosts = postRepository.findByVisibilityOrderByCreatedAtDesc("PUBLIC");
-
-            //拿到当前登录用户关注的人的发布的"粉丝可见"的文章
-            List<User> following = followRepository.findFollowingUsers(currentUser);
-
-            List<Post> followerVisiblePosts = new ArrayList<>();
-            for (User followed : following) {
-                followerVisiblePosts.addAll(postRepository.findByAuthorAndVisibilityOrderByCreatedAtDesc(followed, "FOLLOWERS"));
-            }
-
-            // 合并：自己的文章 + 公开文章 + 关注用户的粉丝可见文章
-            visiblePosts.addAll(ownPosts);
-            visiblePosts.addAll(publicPosts);
-            visiblePosts.addAll(followerVisiblePosts);
-
-            // 去重（防止同一篇文章多次出现）
-            visiblePosts = visiblePosts.stream()
-                    .distinct()
-                    //按创建时间倒序排序，最新的文章在前面
-                    .sorted(Comparator.comparing(Post::getCreatedAt).reversed())
-                    .toList();
+            // 自己的文章 + 公开文章 + 关注用户的粉丝可见文章（去重、倒序）
+            visiblePosts = feedService.getVisibleFeed(currentUser);
         }
 
 
@@ -145,7 +136,8 @@ public class BlogController {
      * 这叫 “数据绑定”（Data Binding）
      */
     @PostMapping("/posts/save")
-    public String savePost(@ModelAttribute Post post) {
+    public String savePost(@ModelAttribute Post post,
+                           @RequestParam(value = "tagNames", required = false) String tagNames) {
         // 从 Spring Security 中获取当前登录的用户名
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
@@ -154,8 +146,8 @@ public class BlogController {
         User currentUser = userRepository.findByUsername(username);
         // 设置作者
         post.setAuthor(currentUser);
-// 保存到数据库
-        postRepository.save(post);
+// 保存到数据库（标签以逗号或空格分隔，规范化后保存）
+        postService.savePost(post, TagService.parse(tagNames));
 
         // 重定向到首页，防止重复提交
         return "redirect:/";
@@ -170,7 +162,8 @@ public class BlogController {
     @GetMapping("/posts/{id}")
     public String viewPost(@PathVariable Long id,
                            Model model,
-                           Authentication authentication){
+                           Authentication authentication,
+                           HttpServletRequest request){
 
         // 1. 查找文章实体（不存在则抛异常或返回 404）
         Post post = postRepository.findById(id)
@@ -181,40 +174,8 @@ public class BlogController {
                 ? authentication.getName()
                 : null;
 
-        // 3. 默认不允许查看，之后逐步判断是否有权限
-        boolean canView = false;
-
-        System.out.println("=== 调试信息 ===");
-        System.out.println("文章ID: " + id);
-        System.out.println("可见性: " + post.getVisibility());
-        System.out.println("当前用户: " + currentUsername);
-        System.out.println("================");
-
-        // 3.1 公开文章：任何人都可以查看（包括匿名）
-        if ("PUBLIC".equalsIgnoreCase(post.getVisibility())) {
-            canView = true;
-        }// 3.2 私密文章：只有作者本人可以查看
-        else if ("PRIVATE".equalsIgnoreCase(post.getVisibility())) {
-            if (post.getAuthor().getUsername().equals(currentUsername)) {
-                canView = true;
-            }
-        }
-        // 3.3 粉丝可见：作者本人或已关注作者的用户可以查看
-        else if ("FOLLOWERS".equalsIgnoreCase(post.getVisibility())) {
-            // 作者本人可见
-            if (post.getAuthor().getUsername().equals(currentUsername)) {
-                canView = true;
-            } else if (currentUsername != null) {
-                // 非本人则需要询问 FollowService：currentUser 是否关注了 post.author
-                User currentUser = userRepository.findByUsername(currentUsername);
-                if (currentUser != null) {
-                    boolean isFollowing = followService.isFollowing(currentUsername, post.getAuthor().getUsername());
-                    if (isFollowing) {
-                        canView = true;
-                    }
-                }
-            }
-        }
+        // 3. 判断是否有权限查看（PUBLIC / PRIVATE / FOLLOWERS）
+        boolean canView = postVisibilityService.canView(post, currentUsername);
 
         // 4. 如果无权限，返回 no_access 页面（并展示原因）
         if (!canView) {
@@ -230,6 +191,15 @@ public class BlogController {
         // 传递当前用户信息（供前端显示删除/编辑按钮等）
         model.addAttribute("currentUsername", currentUsername);
 
+        // 6. 记录阅读（只在内存累加，定时批量写库）；登录用户按用户名、匿名访客按地址 + UA 区分
+        String viewerKey = currentUsername != null
+                ? "u:" + currentUsername
+                : "a:" + request.getRemoteAddr() + "|" + request.getHeader("User-Agent");
+        postViewCounter.record(post.getId(), viewerKey);
+        PostViewRepository.Counts views = postViewCounter.counts(post.getId());
+        model.addAttribute("viewCount", views.views());
+        model.addAttribute("uniqueViewers", views.uniqueViewers());
+
         return "post_detail";
     }
 
@@ -248,6 +218,7 @@ public class BlogController {
 
         //将文章传递给模板
         model.addAttribute("post",post);
+        model.addAttribute("tagNames", post.getTags().stream().map(Tag::getName).collect(Collectors.joining(", ")));
 
         // ✅ 设置 currentUsername 供导航栏使用
         String currentUsername = (authentication != null && authentication.isAuthenticated()
@@ -270,6 +241,7 @@ public class BlogController {
     @PostMapping("/posts/{id}/edit")
     public String updatePost(@PathVariable Long id,
                              @ModelAttribute Post updatedPost,
+                             @RequestParam(value = "tagNames", required = false) String tagNames,
                              Principal principal){
         //查找原文章
         //查找数据库中的对象
@@ -288,7 +260,8 @@ public class BlogController {
 
         //保存修改
         //save方法特性：对象有ID就执行update，没有ID就执行insert
-        postRepository.save(existingPost);
+        //没有提交标签字段时保留原有标签
+        postService.savePost(existingPost, tagNames == null ? null : TagService.parse(tagNames));
 
         //返回文章详情页
         return "redirect:/posts/" + id;
@@ -299,17 +272,8 @@ public class BlogController {
      */
     @PostMapping("/posts/{id}/delete")
     public String deletePost(@PathVariable Long id, Principal principal, RedirectAttributes redirectAttributes) {
-        // 查找目标文章
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("文章不存在"));
-
-        // 权限校验：仅作者本人可删除
-        if (!post.getAuthor().getUsername().equals(principal.getName())) {
-            throw new RuntimeException("你没有权限删除这篇文章");
-        }
-
-        // 执行删除操作
-        postRepository.delete(post);
+        // 权限校验（仅作者本人可删除）和删除操作都在 PostService 的同一个事务里完成
+        Post post = postService.deletePost(id, principal.getName());
 
         // 使用 RedirectAttributes 添加临时提示信息（Flash Attribute）
         redirectAttributes.addFlashAttribute("message", "文章《" + post.getTitle() + "》已删除");
@@ -0,0 +1,99 @@
+package com.example.devnote.controller;
+
+
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.dto.KeysetCursor;
+import com.example.devnote.dto.SavedPostDto;
+import com.example.devnote.entity.User;
+import com.example.devnote.service.FavoriteService;
+import com.example.devnote.service.PostService;
+import com.example.devnote.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController //标记这是一个 REST 控制器
+@RequestMapping("/api") //API 前缀
+public class FavoritePostApiController {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    // 每页条数上限
+    private static final int MAX_PAGE_SIZE = 50;
+
+    // 获取用户收藏的文章列表（游标分页，用法与 /liked-posts 相同）
+    @GetMapping("/user/{username}/favorited-posts")
+    public ResponseEntity<?> getFavoritedPosts(
+            @PathVariable String username, // 目标用户名
+            Authentication authentication, // 当前登录用户的认证信息
+            @RequestParam(required = false) String cursor, // 上一页的 nextCursor
+            @RequestParam(defaultValue = "5") int size, // 每页条数，默认 5 条
+            @RequestParam(defaultValue = "false") boolean withTotal) // 是否返回总数（读冗余计数，不做 COUNT）
+    {
+
+        // 查找目标用户
+        User targetUser = userService.findByUsername(username);
+        // 用户不存在则返回 404
+        if (targetUser == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        User currentUser = null;
+        // 如果已登录，获取当前用户信息
+        if (authentication != null && authentication.isAuthenticated()) {
+            currentUser = userService.findByUsername(authentication.getName());
+        }
+
+        // 检查隐私设置：不是自己查看，且目标用户未公开收藏列表，则返回 403
+        boolean isSelf = currentUser != null && currentUser.getId().equals(targetUser.getId());
+        if (!isSelf && !targetUser.isShowFavorites()) {
+            return ResponseEntity.status(403).body(Map.of("error", "该用户未公开收藏列表"));
+        }
+
+        KeysetCursor keysetCursor;
+        try {
+            keysetCursor = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        // 直接返回 DTO 投影（id、title、savedAt），不加载 Favorite / Post 实体
+        CursorPage<SavedPostDto> page = postService.findFavoritedPosts(targetUser, keysetCursor,
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE)), withTotal);
+
+        return ResponseEntity.ok(page);
+    }
+
+
+    @DeleteMapping("/posts/{postId}/unfavorite")
+    public ResponseEntity<?> unfavoritePost(@PathVariable Long postId, Authentication authentication) {
+        // 确保用户已登录
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(401).build();
+        }
+
+        String username = authentication.getName();
+
+        try {
+            // 只在已收藏时取消，避免重复点击把收藏又加回来
+            if (favoriteService.isFavoritedByUser(username, postId)) {
+                favoriteService.toggleFavorite(username, postId);
+            }
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            // 返回 400 和错误信息
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "操作失败: " + e.getMessage()));
+        }
+    }
+}
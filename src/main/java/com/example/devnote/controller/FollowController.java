@@ -1,7 +1,14 @@
 package com.example.devnote.controller;
 
+import com.example.devnote.dto.BatchFollowRequest;
+import com.example.devnote.dto.BatchFollowResult;
+import com.example.devnote.dto.FollowRecommendationDto;
+import com.example.devnote.entity.User;
+import com.example.devnote.service.FollowRecommendationService;
 import com.example.devnote.service.FollowService;
+import com.example.devnote.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
@@ -11,16 +18,28 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/follow")
 public class FollowController {
 
+    // 单次批量请求最多处理的目标数（更大规模的导入请分多次调用）
+    private static final int MAX_BATCH_TARGETS = 10000;
+
+    // 关注推荐单次最多返回的条数
+    private static final int MAX_RECOMMENDATIONS = 50;
+
     private  final FollowService followService;
+    private final UserService userService;
+    private final FollowRecommendationService recommendationService;
 
-    public FollowController(FollowService followService) {
+    public FollowController(FollowService followService, UserService userService,
+                            FollowRecommendationService recommendationService) {
         this.followService = followService;
+        this.userService = userService;
+        this.recommendationService = recommendationService;
     }
 
     /**
@@ -59,4 +78,61 @@ public class FollowController {
         return response;
     }
 
+    /**
+     * 批量关注
+     * 请求体：{"usernames": ["alice", "bob"], "userIds": [12, 34]}
+     * 返回每个目标的处理结果（FOLLOWED / ALREADY_FOLLOWING / USER_NOT_FOUND / SELF）
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> followBatch(@RequestBody BatchFollowRequest request,
+                                         @AuthenticationPrincipal UserDetails currentUser) {
+        return runBatch(request, currentUser, true);
+    }
+
+    /**
+     * 批量取消关注，请求体同上
+     * 返回每个目标的处理结果（UNFOLLOWED / NOT_FOLLOWING / USER_NOT_FOUND / SELF）
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> unfollowBatch(@RequestBody BatchFollowRequest request,
+                                           @AuthenticationPrincipal UserDetails currentUser) {
+        return runBatch(request, currentUser, false);
+    }
+
+    /**
+     * 关注推荐：你关注的人也关注了谁（按共同关注数排序）
+     */
+    @GetMapping("/recommendations")
+    public Map<String, Object> recommendations(@RequestParam(defaultValue = "10") int limit,
+                                               @AuthenticationPrincipal UserDetails currentUser) {
+        User user = userService.findByUsername(currentUser.getUsername());
+        List<FollowRecommendationDto> items = recommendationService.recommendUsers(user.getId(),
+                Math.min(Math.max(limit, 1), MAX_RECOMMENDATIONS));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("items", items);
+        return response;
+    }
+
+    private ResponseEntity<?> runBatch(BatchFollowRequest request, UserDetails currentUser, boolean follow) {
+        List<String> usernames = request.getUsernames() != null ? request.getUsernames() : List.of();
+        List<Long> userIds = request.getUserIds() != null ? request.getUserIds() : List.of();
+        if (usernames.size() + userIds.size() > MAX_BATCH_TARGETS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "单次最多处理 " + MAX_BATCH_TARGETS + " 个用户"));
+        }
+
+        User follower = userService.findByUsername(currentUser.getUsername());
+        BatchFollowResult result = follow
+                ? followService.followAll(follower.getId(), usernames, userIds)
+                : followService.unfollowAll(follower.getId(), usernames, userIds);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("changed", result.getChanged());
+        response.put("items", result.getItems());
+        return ResponseEntity.ok(response);
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.example.devnote.controller;
 
 import com.example.devnote.entity.User;
+import com.example.devnote.service.NotificationService;
 import com.example.devnote.service.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -12,9 +13,11 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 @ControllerAdvice
 public class GlobalControllerAdvice {
     private final UserService userService;
+    private final NotificationService notificationService;
 
-    public GlobalControllerAdvice(UserService userService) {
+    public GlobalControllerAdvice(UserService userService, NotificationService notificationService) {
         this.userService = userService;
+        this.notificationService = notificationService;
     }
 
     @ModelAttribute
@@ -24,6 +27,8 @@ public class GlobalControllerAdvice {
             User currentUser = userService.findByUsername(auth.getName());
             if (currentUser != null) {
                 model.addAttribute("currentUsername", currentUser.getUsername());
+                // 导航栏通知角标
+                model.addAttribute("unreadNotifications", notificationService.unreadCount(currentUser.getId()));
                 // 如果你需要头像，也可以加：
                 // model.addAttribute("currentUserAvatar", currentUser.getAvatar());
             }
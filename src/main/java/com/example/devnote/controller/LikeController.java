@@ -1,17 +1,22 @@
 package com.example.devnote.controller;
 
 
+import com.example.devnote.dto.LikeStatusDto;
 import com.example.devnote.service.LikeService;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/like")
 public class LikeController {
 
+    // 批量查询一次最多处理的文章数
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final LikeService likeService;
 
     public LikeController(LikeService likeService) {
@@ -61,4 +66,15 @@ public class LikeController {
         return response;
     }
 
+    /**
+     * 批量获取一页文章的点赞状态，避免每张文章卡片单独请求一次
+     * 例：GET /like/status?postIds=1,2,3
+     */
+    @GetMapping("/status")
+    public List<LikeStatusDto> getLikeStatuses(@RequestParam List<Long> postIds, Authentication authentication) {
+        String username = authentication != null ? authentication.getName() : null;
+        List<Long> ids = postIds.stream().distinct().limit(MAX_BATCH_SIZE).toList();
+        return likeService.getLikeStatuses(username, ids);
+    }
+
 }
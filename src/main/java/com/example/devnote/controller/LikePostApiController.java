@@ -1,23 +1,18 @@
 package com.example.devnote.controller;
 
 
-import com.example.devnote.dto.PostSummaryDto;
-import com.example.devnote.entity.Post;
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.dto.KeysetCursor;
+import com.example.devnote.dto.SavedPostDto;
 import com.example.devnote.entity.User;
 import com.example.devnote.service.LikeService;
 import com.example.devnote.service.PostService;
 import com.example.devnote.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController //标记这是一个 REST 控制器
@@ -33,12 +28,18 @@ public class LikePostApiController {
     @Autowired
     private LikeService likeService;
 
-    // 获取用户点赞的文章列表（分页）
+    // 每页条数上限
+    private static final int MAX_PAGE_SIZE = 50;
+
+    // 获取用户点赞的文章列表（游标分页）
+    // 第一页不传 cursor，之后把上一页返回的 nextCursor 原样传回；翻到多深都只有一条按索引定位的查询
     @GetMapping("/user/{username}/liked-posts")
     public ResponseEntity<?> getLikedPosts( // API 设计：返回 ResponseEntity，包含状态码和数据
             @PathVariable String username, // 目标用户名
             Authentication authentication, // 当前登录用户的认证信息
-            @PageableDefault(size = 5, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) // 默认每页5条，按ID降序排序
+            @RequestParam(required = false) String cursor, // 上一页的 nextCursor
+            @RequestParam(defaultValue = "5") int size, // 每页条数，默认 5 条
+            @RequestParam(defaultValue = "false") boolean withTotal) // 是否返回总数（读冗余计数，不做 COUNT）
     {
 
         // 查找目标用户
@@ -61,25 +62,19 @@ public class LikePostApiController {
             return ResponseEntity.status(403).body(Map.of("error", "该用户未公开点赞列表"));
         }
 
-        // 获取分页的点赞文章（Post 实体）
-        Page<Post> page = postService.findLikedPostsByUserId(targetUser.getId(), pageable);
-
-        // 转换为安全的 DTO，避免序列化循环引用
-        List<PostSummaryDto> dtos = page.getContent().stream()
-                .map(post -> new PostSummaryDto(post.getId(), post.getTitle()))
-                .toList();
+        KeysetCursor keysetCursor;
+        try {
+            keysetCursor = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
 
-        // 构建响应
-        Map<String, Object> response = new HashMap<>();
-        response.put("content", dtos);
-        response.put("totalPages", page.getTotalPages());
-        response.put("currentPage", page.getNumber() + 1);
-        response.put("hasNext", page.hasNext());
-        response.put("hasPrevious", page.hasPrevious());
-        response.put("totalElements", page.getTotalElements());
+        // 直接返回 DTO 投影（id、title、savedAt），避免序列化实体和循环引用
+        CursorPage<SavedPostDto> page = postService.findLikedPosts(targetUser, keysetCursor,
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE)), withTotal);
 
         // 返回 200 和数据
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(page);
     }
 
 
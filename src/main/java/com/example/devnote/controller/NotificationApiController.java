@@ -0,0 +1,80 @@
+package com.example.devnote.controller;
+
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.dto.KeysetCursor;
+import com.example.devnote.dto.NotificationDto;
+import com.example.devnote.entity.User;
+import com.example.devnote.service.NotificationService;
+import com.example.devnote.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationApiController {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // 每页条数上限
+    private static final int MAX_PAGE_SIZE = 50;
+
+    // 当前用户的通知（游标分页，按最近更新时间倒序；用法与 /liked-posts 相同）
+    @GetMapping
+    public ResponseEntity<?> getNotifications(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor, // 上一页的 nextCursor
+            @RequestParam(defaultValue = "20") int size)
+    {
+        User currentUser = currentUser(authentication);
+        if (currentUser == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "请先登录"));
+        }
+
+        KeysetCursor keysetCursor;
+        try {
+            keysetCursor = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        CursorPage<NotificationDto> page = notificationService.findInbox(currentUser.getId(), keysetCursor,
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(page);
+    }
+
+    // 未读通知数（读内存，不查库）
+    @GetMapping("/unread-count")
+    public ResponseEntity<?> getUnreadCount(Authentication authentication) {
+        User currentUser = currentUser(authentication);
+        if (currentUser == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "请先登录"));
+        }
+        return ResponseEntity.ok(Map.of("unread", notificationService.unreadCount(currentUser.getId())));
+    }
+
+    // 全部标为已读
+    @PostMapping("/read")
+    public ResponseEntity<?> markAllRead(Authentication authentication) {
+        User currentUser = currentUser(authentication);
+        if (currentUser == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "请先登录"));
+        }
+        notificationService.markAllRead(currentUser.getId());
+        return ResponseEntity.ok(Map.of("unread", 0));
+    }
+
+    private User currentUser(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return userService.findByUsername(authentication.getName());
+    }
+}
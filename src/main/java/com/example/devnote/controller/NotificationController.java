@@ -0,0 +1,16 @@
+package com.example.devnote.controller;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+@Controller
+public class NotificationController {
+
+    /**
+     * 通知页面：列表通过 /api/notifications 分页加载，打开页面即全部标为已读
+     */
+    @GetMapping("/notifications")
+    public String showNotifications() {
+        return "notifications";
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.devnote.controller;
+
+import com.example.devnote.entity.Post;
+import com.example.devnote.repository.PostRepository;
+import com.example.devnote.service.PostCountStream;
+import com.example.devnote.service.PostVisibilityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class PostStreamController {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostVisibilityService postVisibilityService;
+
+    @Autowired
+    private PostCountStream postCountStream;
+
+    // 文章点赞 / 收藏 / 评论数的实时推送（SSE，事件名 counts），替代轮询 /like/status
+    @GetMapping(value = "/posts/{postId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCounts(@PathVariable Long postId, Authentication authentication) {
+        Post post = postRepository.findById(postId).orElse(null);
+        if (post == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // 与文章详情页相同的可见性检查
+        String currentUsername = (authentication != null && authentication.isAuthenticated())
+                ? authentication.getName()
+                : null;
+        if (!postVisibilityService.canView(post, currentUsername)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        try {
+            return ResponseEntity.ok(postCountStream.subscribe(postId));
+        } catch (IllegalStateException e) {
+            // 连接数已满：EventSource 会按默认间隔自动重连
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30").build();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.devnote.controller;
+
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.dto.TagSuggestionDto;
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.repository.UserRepository;
+import com.example.devnote.service.TagService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+@Controller
+public class TagController {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // 标签页：当前用户可见的带该标签的文章，按发布时间倒序，游标分页
+    @GetMapping("/tags/{name}")
+    public String tagPosts(@PathVariable String name,
+                           @RequestParam(required = false) String cursor,
+                           Model model,
+                           Authentication authentication) {
+        String tag = TagService.normalize(name);
+        User viewer = authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getName())
+                ? userRepository.findByUsername(authentication.getName())
+                : null;
+        CursorPage<Post> page = tagService.feed(tag, viewer, cursor, PAGE_SIZE);
+        model.addAttribute("tag", tag);
+        model.addAttribute("posts", page.getContent());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        return "tag_posts";
+    }
+
+    // 标签补全（写文章时输入标签）：按公开文章数排序
+    @GetMapping("/api/tags/suggest")
+    @ResponseBody
+    public List<TagSuggestionDto> suggest(@RequestParam("q") String prefix,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        return tagService.suggest(prefix, Math.min(Math.max(limit, 1), 20)).stream()
+                .map(match -> new TagSuggestionDto(match.key(), match.weight()))
+                .toList();
+    }
+}
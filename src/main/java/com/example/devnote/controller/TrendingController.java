@@ -0,0 +1,44 @@
+package com.example.devnote.controller;
+
+import com.example.devnote.entity.Post;
+import com.example.devnote.repository.PostRepository;
+import com.example.devnote.service.TrendingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Controller
+public class TrendingController {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    // 热门文章：排行取自内存，只按主键加载这 K 篇文章（排行中只有公开文章）
+    @GetMapping("/trending")
+    public String trending(Model model) {
+        List<Long> ids = trendingService.top(Integer.MAX_VALUE);
+        Map<Long, Post> byId = ids.isEmpty() ? Map.of() : postRepository.findWithAuthorByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // 按排行顺序输出；刚删除、排行尚未更新的文章直接跳过
+        List<Post> posts = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Post post = byId.get(id);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        model.addAttribute("posts", posts);
+        return "trending";
+    }
+}
@@ -3,6 +3,7 @@ package com.example.devnote.controller;
 import com.example.devnote.entity.Post;
 import com.example.devnote.entity.User;
 import com.example.devnote.repository.UserRepository;
+import com.example.devnote.service.AvatarService;
 import com.example.devnote.service.FollowService;
 import com.example.devnote.service.PostService;
 import com.example.devnote.service.UserService;
@@ -20,7 +21,6 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -43,16 +43,17 @@ public class UserController {
 
     private final PostService postService;
 
-    public UserController(UserService userService, UserRepository userRepository, FollowService followService, PostService postService) {
+    private final AvatarService avatarService;
+
+    public UserController(UserService userService, UserRepository userRepository, FollowService followService, PostService postService,
+                          AvatarService avatarService) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.followService = followService;
         this.postService = postService;
+        this.avatarService = avatarService;
     }
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;// 相对路径，例如 "uploads/avatar/"
-
     @Value("${file.absolute-path:}") // 可选项，服务器使用
     private String absolutePath;
 
@@ -82,7 +83,7 @@ public class UserController {
 
         boolean isFollowing = false;
         if (!isSelf && currentUser != null) {
-            isFollowing = followService.isFollowing(currentUsername, username);
+            isFollowing = followService.isFollowing(currentUser.getId(), user.getId());
         }
 
         //统计粉丝数与关注数
@@ -146,30 +147,21 @@ public class UserController {
 
         user.setBio(bio);
 
-        try {
-            // 如果用户上传了头像
-            if (avatarFile != null && !avatarFile.isEmpty()) {
-                String filename = System.currentTimeMillis() + "_" + avatarFile.getOriginalFilename();
-
-                // 确保目录存在
-                File dir = new File(uploadDir);
-                if (!dir.exists()) {
-                    dir.mkdirs();
-                }
-
-                // 保存文件到本地
-                File dest = new File(dir, filename);
-                avatarFile.transferTo(dest);
-
-                // 在数据库中保存相对路径（方便 Thymeleaf 显示）
-                user.setAvatar("/uploads/" + filename);
+        userRepository.save(user);
+
+        // 如果用户上传了头像：这里只校验格式和尺寸，解码、裁剪、缩放在后台完成后再更新头像
+        if (avatarFile != null && !avatarFile.isEmpty()) {
+            try {
+                avatarService.submit(user.getId(), avatarFile);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                model.addAttribute("user", user);
+                model.addAttribute("error", e.getMessage());
+                return "user_edit_profile";
+            } catch (IOException e) {
+                model.addAttribute("user", user);
+                model.addAttribute("error", "头像上传失败，请重试！");
+                return "user_edit_profile";
             }
-
-            userRepository.save(user);
-        } catch (IOException e) {
-            e.printStackTrace();
-            model.addAttribute("error", "头像上传失败，请重试！");
-            return "user_edit_profile";
         }
         String encodedUsername = URLEncoder.encode(username, StandardCharsets.UTF_8);
 
@@ -0,0 +1,26 @@
+package com.example.devnote.controller;
+
+import com.example.devnote.dto.UserSuggestionDto;
+import com.example.devnote.service.UserSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class UserSearchController {
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    // 用户名补全（搜索框、评论里的 @提及）：按粉丝数排序，只读内存索引
+    @GetMapping("/api/users/suggest")
+    public List<UserSuggestionDto> suggest(@RequestParam("q") String prefix,
+                                           @RequestParam(defaultValue = "8") int limit) {
+        return userSearchIndex.suggest(prefix, Math.min(Math.max(limit, 1), 20)).stream()
+                .map(user -> new UserSuggestionDto(user.userId(), user.username(), user.followersCount()))
+                .toList();
+    }
+}
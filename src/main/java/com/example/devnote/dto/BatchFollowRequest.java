@@ -0,0 +1,13 @@
+package com.example.devnote.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 批量关注 / 取消关注请求：按用户名或用户 ID 指定目标，两者可同时提供
+@Data
+public class BatchFollowRequest {
+    private List<String> usernames = new ArrayList<>();
+    private List<Long> userIds = new ArrayList<>();
+}
@@ -0,0 +1,42 @@
+package com.example.devnote.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量关注 / 取消关注的结果：每个目标一条，顺序与请求一致（先用户名，后用户 ID）
+ */
+public class BatchFollowResult {
+
+    public enum Outcome {
+        FOLLOWED,           // 新建关注
+        ALREADY_FOLLOWING,  // 原本已关注
+        UNFOLLOWED,         // 已取消关注
+        NOT_FOLLOWING,      // 原本未关注
+        USER_NOT_FOUND,     // 目标用户不存在
+        SELF                // 目标是自己
+    }
+
+    /**
+     * 单个目标的处理结果
+     * target 为请求中的原始值（用户名或用户 ID），userId 在用户不存在时为 null
+     */
+    public record Item(Object target, Long userId, Outcome outcome) {
+    }
+
+    private final List<Item> items = new ArrayList<>();
+
+    public void add(Object target, Long userId, Outcome outcome) {
+        items.add(new Item(target, userId, outcome));
+    }
+
+    // getters
+    public List<Item> getItems() { return items; }
+
+    // 实际发生变化（新建或删除）的条数
+    public long getChanged() {
+        return items.stream()
+                .filter(item -> item.outcome() == Outcome.FOLLOWED || item.outcome() == Outcome.UNFOLLOWED)
+                .count();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.devnote.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果（Slice 语义）
+ *
+ * 只回答“还有没有下一页”，不做 COUNT；nextCursor 原样传回即可取下一页。
+ * total 为可选的总数，来自冗余计数列，未请求时为 null。
+ */
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+    private final Long total;
+
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext, Long total) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.total = total;
+    }
+
+    /**
+     * 由多查一条（size + 1）的结果构造：多出的那条说明还有下一页，本身不返回
+     */
+    public static CursorPage<SavedPostDto> of(List<SavedPostDto> rows, int size, Long total) {
+        return of(rows, size, total, SavedPostDto::getCursor);
+    }
+
+    /**
+     * 同上，cursorOf 取出一行对应的游标
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Long total, Function<T, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, nextCursor, hasNext, total);
+    }
+
+    // getters
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasNext() { return hasNext; }
+    public Long getTotal() { return total; }
+}
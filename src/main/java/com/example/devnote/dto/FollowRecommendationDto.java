@@ -0,0 +1,28 @@
+package com.example.devnote.dto;
+
+
+/**
+ * “可能认识的人”中的一项
+ */
+public class FollowRecommendationDto {
+    private Long userId;
+    private String username;
+    private String avatar;
+    // 当前用户关注的人里有几个关注了他
+    private int mutualCount;
+
+    public FollowRecommendationDto(Long userId, String username, String avatar, int mutualCount) {
+        this.userId = userId;
+        this.username = username;
+        this.avatar = avatar;
+        this.mutualCount = mutualCount;
+    }
+
+    // getters
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getAvatar() { return avatar; }
+    public int getMutualCount() { return mutualCount; }
+
+
+}
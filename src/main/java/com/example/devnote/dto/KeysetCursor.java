@@ -0,0 +1,38 @@
+package com.example.devnote.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标：上一页最后一条的 (时间, ID)
+ *
+ * 下一页查询条件为 (time, id) < (游标时间, 游标 ID)，按 (time DESC, id DESC) 排序，
+ * 直接沿索引定位，不需要 OFFSET 跳过前面的行，翻到多深都和第一页一样快。
+ * 对前端是不透明字符串（Base64URL），只能原样传回。
+ */
+public record KeysetCursor(LocalDateTime time, long id) {
+
+    public String encode() {
+        String raw = time + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标；为空表示第一页，返回 null
+     *
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+}
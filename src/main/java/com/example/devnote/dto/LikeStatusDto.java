@@ -0,0 +1,28 @@
+package com.example.devnote.dto;
+
+
+/**
+ * 单篇文章的点赞状态（批量查询一页文章时使用）
+ */
+public class LikeStatusDto {
+    private Long postId;
+    private boolean liked;
+    private long likeCount;
+    // 当前用户关注的人里有几个点了赞（未登录为 0）
+    private long followingLikeCount;
+
+    public LikeStatusDto(Long postId, boolean liked, long likeCount, long followingLikeCount) {
+        this.postId = postId;
+        this.liked = liked;
+        this.likeCount = likeCount;
+        this.followingLikeCount = followingLikeCount;
+    }
+
+    // getters
+    public Long getPostId() { return postId; }
+    public boolean isLiked() { return liked; }
+    public long getLikeCount() { return likeCount; }
+    public long getFollowingLikeCount() { return followingLikeCount; }
+
+
+}
@@ -0,0 +1,51 @@
+package com.example.devnote.dto;
+
+import com.example.devnote.entity.Notification;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知列表中的一项
+ * 由 JPQL 构造表达式直接生成，最近操作者的用户名和文章标题在查询时关联得到
+ */
+public class NotificationDto {
+    private Long id;
+    private Notification.Type type;
+    private Long targetId;
+    private Long postId;
+    // 文章已删除时为 null
+    private String postTitle;
+    private int actorCount;
+    private String lastActorName;
+    private boolean read;
+    private LocalDateTime updatedAt;
+
+    public NotificationDto(Long id, Notification.Type type, Long targetId, Long postId, String postTitle,
+                           int actorCount, String lastActorName, boolean read, LocalDateTime updatedAt) {
+        this.id = id;
+        this.type = type;
+        this.targetId = targetId;
+        this.postId = postId;
+        this.postTitle = postTitle;
+        this.actorCount = actorCount;
+        this.lastActorName = lastActorName;
+        this.read = read;
+        this.updatedAt = updatedAt;
+    }
+
+    // getters
+    public Long getId() { return id; }
+    public Notification.Type getType() { return type; }
+    public Long getTargetId() { return targetId; }
+    public Long getPostId() { return postId; }
+    public String getPostTitle() { return postTitle; }
+    public int getActorCount() { return actorCount; }
+    public String getLastActorName() { return lastActorName; }
+    public boolean isRead() { return read; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    // 指向本条之后的游标
+    @JsonIgnore
+    public KeysetCursor getCursor() { return new KeysetCursor(updatedAt, id); }
+}
@@ -0,0 +1,36 @@
+package com.example.devnote.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * 点赞 / 收藏列表中的一项：文章 ID、标题，以及点赞（收藏）时间
+ * 由 JPQL 构造表达式直接生成，不加载 Post / User 实体
+ */
+public class SavedPostDto {
+    private Long id;
+    private String title;
+    private LocalDateTime savedAt;
+    // 点赞 / 收藏记录本身的 ID，与 savedAt 一起组成分页游标，不返回给前端
+    private Long entryId;
+
+    public SavedPostDto(Long id, String title, LocalDateTime savedAt, Long entryId) {
+        this.id = id;
+        this.title = title;
+        this.savedAt = savedAt;
+        this.entryId = entryId;
+    }
+
+    // getters
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public LocalDateTime getSavedAt() { return savedAt; }
+
+    @JsonIgnore
+    public Long getEntryId() { return entryId; }
+
+    // 指向本条之后的游标
+    @JsonIgnore
+    public KeysetCursor getCursor() { return new KeysetCursor(savedAt, entryId); }
+}
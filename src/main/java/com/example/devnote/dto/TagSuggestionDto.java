@@ -0,0 +1,22 @@
+package com.example.devnote.dto;
+
+
+/**
+ * 标签补全中的一项
+ */
+public class TagSuggestionDto {
+    private String name;
+    // 带该标签的公开文章数
+    private long postCount;
+
+    public TagSuggestionDto(String name, long postCount) {
+        this.name = name;
+        this.postCount = postCount;
+    }
+
+    // getters
+    public String getName() { return name; }
+    public long getPostCount() { return postCount; }
+
+
+}
@@ -0,0 +1,24 @@
+package com.example.devnote.dto;
+
+
+/**
+ * 用户名补全中的一项（搜索框、@提及）
+ */
+public class UserSuggestionDto {
+    private Long userId;
+    private String username;
+    private long followersCount;
+
+    public UserSuggestionDto(Long userId, String username, long followersCount) {
+        this.userId = userId;
+        this.username = username;
+        this.followersCount = followersCount;
+    }
+
+    // getters
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public long getFollowersCount() { return followersCount; }
+
+
+}
@@ -13,13 +13,15 @@ import java.time.LocalDateTime;
  * 收藏 实体类
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_favorite_user_post", columnNames = {"user_id", "post_id"}),
+        indexes = @Index(name = "idx_favorite_user_favorited", columnList = "user_id, favorited_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Favorite {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     private Long id;
 
     @ManyToOne
@@ -6,11 +6,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "follows",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id","following_id"}))
+        uniqueConstraints = @UniqueConstraint(name = "uk_follows_follower_following", columnNames = {"follower_id","following_id"}))
 public class Follow {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     // 关注者（粉丝）
@@ -0,0 +1,36 @@
+package com.example.devnote.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * 主键号段表
+ *
+ * 每张使用 @PooledId 的表一行，next_val 为下一个未分配的 ID。
+ * 应用每次取走一段（allocationSize 个）ID 放在内存里使用，用完再来取，
+ * 这样插入前就能拿到主键，Hibernate 才能把多条 INSERT 合并成 JDBC 批次（IDENTITY 主键会禁用批量插入）。
+ *
+ * 只由 IdBlockAllocator 通过 JDBC 读写，这里声明实体只是为了让 ddl-auto 建表。
+ */
+@Entity
+@Table(name = "id_allocations")
+public class IdAllocation {
+
+    // 表名
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "next_val", nullable = false)
+    private long nextVal;
+
+    public IdAllocation() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getNextVal() {
+        return nextVal;
+    }
+}
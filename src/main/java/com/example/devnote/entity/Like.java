@@ -14,14 +14,16 @@ import java.time.LocalDateTime;
  * 用户（User）与文章（Post）之间的 多对多关系
  */
 @Entity
-@Table(name = "post_likes")
+@Table(name = "post_likes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_post_likes_user_post", columnNames = {"user_id", "post_id"}),
+        indexes = @Index(name = "idx_post_likes_user_liked", columnList = "user_id, liked_at"))
 @Getter
 @Setter
 @NoArgsConstructor
 public class Like {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne
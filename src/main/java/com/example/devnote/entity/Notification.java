@@ -0,0 +1,75 @@
+package com.example.devnote.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知（收件箱中的一行）
+ *
+ * 同一收件人、同一类型、同一对象的未读通知合并成一行：actorCount 为合并的次数，lastActorId 为最近一次的操作者。
+ * 已读之后再有新的操作则另起一行。只保存 ID，不冗余标题、用户名等会变化的内容。
+ */
+@Entity
+@Table(name = "notifications",
+        indexes = {
+                @Index(name = "idx_notifications_recipient_updated", columnList = "recipient_id, updated_at"),
+                @Index(name = "idx_notifications_group", columnList = "recipient_id, is_read, type, target_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+public class Notification {
+
+    /** 通知类型 */
+    public enum Type {
+        FOLLOW,  // 关注了你（targetId 为 0）
+        LIKE,    // 赞了你的文章（targetId 为文章 ID）
+        COMMENT, // 评论了你的文章（targetId 为文章 ID）
+        REPLY    // 回复了你的评论（targetId 为被回复的评论 ID）
+    }
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Type type;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    // 相关文章（用于跳转），关注通知为空
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "actor_count", nullable = false)
+    private int actorCount;
+
+    @Column(name = "last_actor_id", nullable = false)
+    private Long lastActorId;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean read;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Notification(Long recipientId, Type type, Long targetId, Long postId, int actorCount, Long lastActorId,
+                        LocalDateTime updatedAt) {
+        this.recipientId = recipientId;
+        this.type = type;
+        this.targetId = targetId;
+        this.postId = postId;
+        this.actorCount = actorCount;
+        this.lastActorId = lastActorId;
+        this.updatedAt = updatedAt;
+    }
+}
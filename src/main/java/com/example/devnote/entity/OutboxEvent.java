@@ -0,0 +1,53 @@
+package com.example.devnote.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 事务性 outbox 表
+ *
+ * 每个互动事件（EngagementEvent）在产生它的写事务中插入一行，事件处理成功后在处理事务中删除；
+ * 应用崩溃或处理失败时行仍然留在表里，由 EngagementEventBus 定时重新投递。
+ *
+ * 只由 OutboxRepository 通过 JDBC 读写，这里声明实体只是为了让 ddl-auto 建表。
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    // Snowflake ID，按时间递增
+    @Id
+    private Long id;
+
+    // 事件类型（EngagementEvent 的记录类名）
+    @Column(name = "event_type", length = 64, nullable = false)
+    private String eventType;
+
+    // 事件内容（JSON）
+    @Lob
+    @Column(columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
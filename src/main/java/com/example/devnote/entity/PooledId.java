@@ -0,0 +1,26 @@
+package com.example.devnote.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * 号段方式生成主键（替代 GenerationType.IDENTITY）
+ *
+ * 插入前即可拿到主键，配合 hibernate.jdbc.batch_size 可以批量插入。
+ * 号段保存在 id_allocations 表中，与 IdBlockAllocator（JDBC 批量写入使用）共用，互不冲突。
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface PooledId {
+
+    /**
+     * 每次向数据库申请的 ID 个数
+     */
+    int allocationSize() default 100;
+}
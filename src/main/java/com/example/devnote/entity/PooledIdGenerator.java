@@ -0,0 +1,55 @@
+package com.example.devnote.entity;
+
+import com.example.devnote.repository.IdBlockAllocator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.jdbc.AbstractReturningWork;
+
+import java.lang.reflect.Member;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumSet;
+
+/**
+ * @PooledId 对应的 Hibernate 主键生成器
+ *
+ * 在内存中按号段发放 ID，号段用完时通过 Hibernate 的独立事务（不受当前业务事务回滚影响）
+ * 调用 IdBlockAllocator.allocate 申请下一段。
+ */
+public class PooledIdGenerator implements BeforeExecutionGenerator {
+
+    private final String table;
+    private final int allocationSize;
+
+    private long next;
+    private long end;
+
+    public PooledIdGenerator(PooledId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.table = context.getRootClass().getTable().getName();
+        this.allocationSize = config.allocationSize();
+    }
+
+    @Override
+    public synchronized Object generate(SharedSessionContractImplementor session, Object owner,
+                                        Object currentValue, EventType eventType) {
+        if (next >= end) {
+            next = session.getTransactionCoordinator().createIsolationDelegate()
+                    .delegateWork(new AbstractReturningWork<Long>() {
+                        @Override
+                        public Long execute(Connection connection) throws SQLException {
+                            return IdBlockAllocator.allocate(connection, table, allocationSize);
+                        }
+                    }, true);
+            end = next + allocationSize;
+        }
+        return next++;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -5,15 +5,21 @@ import jakarta.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @Entity 表示这个类是一个 JPA 实体，会映射到数据库的一张表
  * @Table(name = "posts") 指定数据库表名为 `posts`
  * 如果不写 @Table，默认表名是类名小写：post
+ * indexes 与 db/migration 中的迁移脚本保持一致（表结构以迁移脚本为准）
  */
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_visibility_created", columnList = "visibility, created_at"),
+        @Index(name = "idx_posts_user_visibility_created", columnList = "user_id, visibility, created_at")
+})
 @NamedEntityGraph( // 定义一个命名的 EntityGraph，用于指定加载策略
         name = "Post.withAuthorAndComments",
         attributeNodes = {
@@ -25,14 +31,14 @@ import java.util.List;
 public class Post {
     /**
      * @Id 表示这是主键
-     * 数据库中会作为唯一标识，比如 1, 2, 3...
-     * @GeneratedValue(strategy = GenerationType.IDENTITY)
-     * 表示主键由数据库自动增长（auto_increment）
-     * 比如 MySQL 的 AUTO_INCREMENT
-     * 插入数据时，不用手动设置 id，数据库会自动分配
+     * 数据库中会作为唯一标识
+     * @TimeOrderedId
+     * 表示主键在应用内按时间生成（Snowflake 风格，见 SnowflakeIdGenerator），而不是数据库自增
+     * 插入数据时，不用手动设置 id，Hibernate 会在 INSERT 之前分配
+     * 这样多条 INSERT 可以合并成一个 JDBC 批次，且 ID 越大文章越新
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     /**
@@ -79,6 +85,17 @@ public class Post {
     @Column(nullable = false)
     private String visibility = "PUBLIC";
 
+    /**
+     * 文章的标签（多对多，中间表 post_tags）
+     * 按标签查文章走内存索引（TagIndex），这里只在详情页和编辑页展示时加载
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "post_tags",
+            joinColumns = @JoinColumn(name = "post_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_post_tags_tag_post", columnList = "tag_id, post_id"))
+    private Set<Tag> tags = new LinkedHashSet<>();
+
 
 
 
@@ -143,4 +160,12 @@ public class Post {
     public void setVisibility(String visibility) {
         this.visibility = visibility;
     }
+
+    public Set<Tag> getTags() {
+        return tags;
+    }
+
+    public void setTags(Set<Tag> tags) {
+        this.tags = tags;
+    }
 }
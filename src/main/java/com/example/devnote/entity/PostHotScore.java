@@ -0,0 +1,58 @@
+package com.example.devnote.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 热门排行的持久化快照（每篇文章一行计数）
+ *
+ * 只由 PostHotScoreRepository 通过 JDBC 读写，这里声明实体只是为了让 ddl-auto 建表。
+ */
+@Entity
+@Table(name = "post_hot_scores", indexes = {
+        @Index(name = "idx_post_hot_scores_created", columnList = "created_at")
+})
+public class PostHotScore {
+
+    // 文章 ID
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "like_count", nullable = false)
+    private int likeCount;
+
+    @Column(name = "favorite_count", nullable = false)
+    private int favoriteCount;
+
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount;
+
+    // 文章的发布时间（计算时间衰减用）
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public PostHotScore() {
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public int getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.devnote.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章阅读数（每篇文章一行：累计阅读次数与独立访客草图）
+ *
+ * 只由 PostViewRepository 通过 JDBC 读写，这里声明实体只是为了让 ddl-auto 建表。
+ */
+@Entity
+@Table(name = "post_views")
+public class PostView {
+
+    // 文章 ID
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
+    // 独立访客数（viewer_sketch 的估算值）
+    @Column(name = "unique_viewers", nullable = false)
+    private long uniqueViewers;
+
+    // HyperLogLog 寄存器
+    @Column(name = "viewer_sketch", columnDefinition = "VARBINARY(2048)", nullable = false)
+    private byte[] viewerSketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public PostView() {
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public long getUniqueViewers() {
+        return uniqueViewers;
+    }
+
+    public byte[] getViewerSketch() {
+        return viewerSketch;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.devnote.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 标签
+ * 标签名全局唯一，保存规范化后的形式（小写、去掉开头的 #，见 TagService.normalize）；
+ * 与文章的多对多关系由 Post.tags 维护（post_tags 表）
+ */
+@Entity
+@Table(name = "tags",
+        uniqueConstraints = @UniqueConstraint(name = "uk_tags_name", columnNames = "name"))
+@Getter
+@NoArgsConstructor
+public class Tag {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(length = 32, nullable = false)
+    private String name;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public Tag(String name) {
+        this.name = name;
+    }
+}
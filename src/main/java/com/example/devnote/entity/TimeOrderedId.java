@@ -0,0 +1,20 @@
+package com.example.devnote.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * 时间有序的本地主键（Snowflake 风格，见 SnowflakeIdGenerator）
+ *
+ * 不访问数据库即可生成，按 ID 排序即按创建时间排序；多节点通过 devnote.id.worker-id 区分。
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface TimeOrderedId {
+}
@@ -0,0 +1,42 @@
+package com.example.devnote.entity;
+
+import com.example.devnote.service.SnowflakeIdGenerator;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * @TimeOrderedId 对应的 Hibernate 主键生成器
+ *
+ * 节点号从 Hibernate 配置 devnote.id.worker-id 读取（application.yml 中由 spring.jpa.properties 传入），
+ * 与 Spring 中的 IdGenerator Bean 共用 SnowflakeIdGenerator.forWorker 返回的同一个实例。
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    static final String WORKER_ID_SETTING = "devnote.id.worker-id";
+
+    private final SnowflakeIdGenerator generator;
+
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object workerId = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(WORKER_ID_SETTING);
+        this.generator = SnowflakeIdGenerator.forWorker(workerId == null ? 0 : Integer.parseInt(workerId.toString()));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner,
+                           Object currentValue, EventType eventType) {
+        return generator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
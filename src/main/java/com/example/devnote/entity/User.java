@@ -9,7 +9,7 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId
     private Long id;
 
     @Column(nullable = false,unique = true)//用户名唯一
@@ -58,6 +58,31 @@ public class User {
      */
     private boolean showFavorites = false;
 
+    /**
+     * 粉丝数（冗余计数，由 EngagementCounterListener 按关注 / 取关事件原子增减，避免每次 COUNT follows 表）
+     * 不随实体保存写回：整实体保存（如修改资料）携带的可能是旧值，会覆盖并发的增减
+     */
+    @Column(name = "followers_count", nullable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long followersCount = 0;
+
+    /**
+     * 关注数（冗余计数，维护方式同粉丝数）
+     */
+    @Column(name = "following_count", nullable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long followingCount = 0;
+
+    /**
+     * 点赞过的文章数（冗余计数，由 EngagementCounterListener 按点赞 / 取消点赞事件原子增减，点赞列表的总数直接读这里）
+     */
+    @Column(name = "liked_posts_count", nullable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long likedPostsCount = 0;
+
+    /**
+     * 收藏的文章数（冗余计数，由 EngagementCounterListener 按收藏 / 取消收藏事件原子增减，收藏列表的总数直接读这里）
+     */
+    @Column(name = "favorited_posts_count", nullable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long favoritedPostsCount = 0;
+
     public User() {
     }
 
@@ -175,4 +200,36 @@ public class User {
     public void setShowFavorites(boolean showFavorites) {
         this.showFavorites = showFavorites;
     }
+
+    public long getFollowersCount() {
+        return followersCount;
+    }
+
+    public void setFollowersCount(long followersCount) {
+        this.followersCount = followersCount;
+    }
+
+    public long getFollowingCount() {
+        return followingCount;
+    }
+
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+
+    public long getLikedPostsCount() {
+        return likedPostsCount;
+    }
+
+    public void setLikedPostsCount(long likedPostsCount) {
+        this.likedPostsCount = likedPostsCount;
+    }
+
+    public long getFavoritedPostsCount() {
+        return favoritedPostsCount;
+    }
+
+    public void setFavoritedPostsCount(long favoritedPostsCount) {
+        this.favoritedPostsCount = favoritedPostsCount;
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.devnote.event;
+
+import java.util.List;
+
+/**
+ * 互动领域事件（点赞、收藏、关注、评论、发文 / 删文）
+ *
+ * 由 Service 在写事务内通过 ApplicationEventPublisher 发布，EngagementEventBus 在同一事务中写入 outbox 表，
+ * 提交后再由后台线程批量分发给各个 EngagementEventListener；事务回滚时事件随之消失。
+ * 事件以 JSON 保存在 outbox 表中，新增或修改字段时要兼容表里尚未处理的旧事件。
+ */
+public sealed interface EngagementEvent {
+
+    /** 点赞 */
+    record PostLiked(long userId, long postId) implements EngagementEvent {
+    }
+
+    /** 取消点赞 */
+    record PostUnliked(long userId, long postId) implements EngagementEvent {
+    }
+
+    /** 收藏 */
+    record PostFavorited(long userId, long postId) implements EngagementEvent {
+    }
+
+    /** 取消收藏 */
+    record PostUnfavorited(long userId, long postId) implements EngagementEvent {
+    }
+
+    /** 关注 */
+    record UserFollowed(long followerId, long followingId) implements EngagementEvent {
+    }
+
+    /** 取消关注 */
+    record UserUnfollowed(long followerId, long followingId) implements EngagementEvent {
+    }
+
+    /** 发表评论或回复（parentId 为 null 表示顶级评论） */
+    record CommentAdded(long commentId, long postId, long authorId, Long parentId) implements EngagementEvent {
+    }
+
+    /** 删除评论：count 为删除的评论条数（这条评论及其下所有回复） */
+    record CommentDeleted(long commentId, long postId, int count) implements EngagementEvent {
+    }
+
+    /** 发表或修改文章 */
+    record PostSaved(long postId, long authorId, boolean created) implements EngagementEvent {
+    }
+
+    /** 删除文章：likerIds / favoriterIds 是删除前点赞、收藏过这篇文章的用户 */
+    record PostDeleted(long postId, long authorId, List<Long> likerIds, List<Long> favoriterIds) implements EngagementEvent {
+    }
+}
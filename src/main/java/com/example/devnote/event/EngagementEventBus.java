@@ -0,0 +1,287 @@
+package com.example.devnote.event;
+
+import com.example.devnote.config.EventBusProperties;
+import com.example.devnote.repository.OutboxRepository;
+import com.example.devnote.service.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 互动事件总线（事务性 outbox）
+ *
+ * 写请求只负责提交主记录，计数等副作用通过事件异步完成：
+ *  - Service 在写事务内发布事件，本类在同一事务中把事件写入 outbox_events，与主记录一起提交或回滚；
+ *  - 提交后事件进入有界内存队列，由单个后台线程每次取出最多 batchSize 个，整批交给所有 EngagementEventListener；
+ *  - 队列满时发布方等待 enqueueTimeout，仍然放不进去就在发布方线程上直接处理这个事件（反压）。
+ *
+ * 每批在一个新事务中处理：先用 SELECT ... FOR UPDATE SKIP LOCKED 锁住对应的 outbox 行，
+ * 只把锁到的事件交给监听器，成功后删除这些行；任一监听器失败则整批回滚，行留在表里。
+ * 因此监听器的数据库写入与 outbox 行的删除同时生效，同一事件不会被重复计入。
+ *
+ * 进程崩溃、队列中的事件丢失或处理失败时，outbox 行会超过 outboxGrace 仍未删除，
+ * 由定时任务 drainOutbox 按 ID 顺序成批重新投递（多节点部署时各节点通过 SKIP LOCKED 分摊）。
+ * outbox 的 ID 必须由 SnowflakeIdGenerator 生成：按 ID 范围找积压事件、由 ID 还原创建时间都依赖它的时间有序性，
+ * 因此构造参数直接要求这个类型，而不是任意 IdGenerator。
+ */
+@Component
+public class EngagementEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(EngagementEventBus.class);
+
+    // 队列为空时后台线程每次等待的时间（同时决定停止时最长的响应延迟）
+    private static final long POLL_MILLIS = 200;
+
+    private final List<EngagementEventListener> listeners;
+    private final OutboxRepository outboxRepository;
+    private final SnowflakeIdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<OutboxRepository.Entry> queue;
+    private final int batchSize;
+    private final Duration enqueueTimeout;
+    private final Duration outboxGrace;
+
+    // 已提交但尚未分发完的事件数（队列中 + 正在处理的批次）
+    private final AtomicLong pending = new AtomicLong();
+
+    // 最早一条未处理 outbox 事件距今的毫秒数（没有积压时为 0），由 drainOutbox 更新
+    private final AtomicLong outboxLagMillis = new AtomicLong();
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, Counter> publishedCounters = new ConcurrentHashMap<>();
+    private final Counter inlineCounter;
+    private final Counter failureCounter;
+    private final Counter redeliveredCounter;
+    private final Timer batchTimer;
+
+    private final Thread worker;
+    private volatile boolean running;
+
+    public EngagementEventBus(List<EngagementEventListener> listeners, OutboxRepository outboxRepository,
+                              SnowflakeIdGenerator idGenerator, PlatformTransactionManager transactionManager,
+                              EventBusProperties properties, MeterRegistry registry) {
+        this.listeners = listeners;
+        this.outboxRepository = outboxRepository;
+        this.idGenerator = idGenerator;
+        // 提交后的回调里仍绑定着原事务的连接，处理批次必须开新事务
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.enqueueTimeout = properties.getEnqueueTimeout();
+        this.outboxGrace = properties.getOutboxGrace();
+        this.registry = registry;
+        this.inlineCounter = Counter.builder("devnote.events.inline")
+                .description("队列已满、在发布方线程上直接处理的事件数")
+                .register(registry);
+        this.failureCounter = Counter.builder("devnote.events.failures")
+                .description("监听器处理失败的批次数")
+                .register(registry);
+        this.redeliveredCounter = Counter.builder("devnote.events.outbox.redelivered")
+                .description("从 outbox 表重新投递的事件数")
+                .register(registry);
+        this.batchTimer = Timer.builder("devnote.events.batch")
+                .description("一批事件分发给所有监听器的耗时")
+                .register(registry);
+        Gauge.builder("devnote.events.queue.size", queue, BlockingQueue::size)
+                .description("等待分发的事件数")
+                .register(registry);
+        Gauge.builder("devnote.events.outbox.lag", outboxLagMillis, lag -> lag.get() / 1000.0)
+                .description("最早一条未处理 outbox 事件的等待时间（秒）")
+                .baseUnit("seconds")
+                .register(registry);
+        this.worker = new Thread(this::runLoop, "engagement-events");
+        this.worker.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker.start();
+    }
+
+    /**
+     * 停止后台线程；队列中没来得及处理的事件仍在 outbox 表里，下次启动后重新投递
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 接收 Service 发布的事件：在发布方事务中写入 outbox，事务提交后放入队列（没有事务时立即放入）
+     */
+    @EventListener
+    public void onEvent(EngagementEvent event) {
+        OutboxRepository.Entry entry = new OutboxRepository.Entry(idGenerator.nextId(), event);
+        outboxRepository.insert(entry.id(), event);
+        publishedCounter(event).increment();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(entry);
+            }
+        });
+    }
+
+    /**
+     * 等待已提交的事件全部分发完（测试使用）
+     *
+     * @return true 表示在超时前已全部处理完
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * 重新投递超过 outboxGrace 仍未删除的 outbox 事件，并更新积压指标
+     */
+    @Scheduled(fixedDelayString = "${devnote.events.outbox-poll-interval:PT5S}")
+    public void drainOutbox() {
+        long maxId = SnowflakeIdGenerator.minIdAt(System.currentTimeMillis() - outboxGrace.toMillis());
+        int delivered;
+        do {
+            Integer count = transactionTemplate.execute(status -> {
+                List<OutboxRepository.Entry> entries = outboxRepository.lockBefore(maxId, batchSize);
+                if (!entries.isEmpty() && !deliver(entries)) {
+                    status.setRollbackOnly();
+                    return 0;
+                }
+                return entries.size();
+            });
+            delivered = count == null ? 0 : count;
+            redeliveredCounter.increment(delivered);
+        } while (delivered == batchSize);
+
+        Long oldestId = outboxRepository.findOldestId();
+        outboxLagMillis.set(oldestId == null ? 0
+                : Math.max(0, System.currentTimeMillis() - SnowflakeIdGenerator.timestampOf(oldestId)));
+    }
+
+    private void enqueue(OutboxRepository.Entry entry) {
+        pending.incrementAndGet();
+        if (running) {
+            try {
+                if (queue.offer(entry, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        inlineCounter.increment();
+        dispatch(List.of(entry));
+    }
+
+    private void runLoop() {
+        List<OutboxRepository.Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                OutboxRepository.Entry first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 在新事务中锁住批次对应的 outbox 行并投递；已被 drainOutbox 处理或正被锁住的事件跳过
+     */
+    private void dispatch(List<OutboxRepository.Entry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> locked = outboxRepository.lock(batch.stream().map(OutboxRepository.Entry::id).toList());
+                List<OutboxRepository.Entry> entries = batch.stream().filter(entry -> locked.contains(entry.id())).toList();
+                if (!entries.isEmpty() && !deliver(entries)) {
+                    status.setRollbackOnly();
+                }
+            });
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            log.error("互动事件投递失败，等待从 outbox 重新投递: events={}", batch.size(), e);
+        } finally {
+            pending.addAndGet(-batch.size());
+        }
+    }
+
+    /**
+     * 把已锁住的事件交给所有监听器，全部成功后删除 outbox 行
+     *
+     * @return false 表示有监听器失败，调用方应回滚
+     */
+    private boolean deliver(List<OutboxRepository.Entry> entries) {
+        List<EngagementEvent> events = Collections.unmodifiableList(
+                entries.stream().map(OutboxRepository.Entry::event).toList());
+        boolean succeeded = batchTimer.record(() -> {
+            boolean ok = true;
+            for (EngagementEventListener listener : listeners) {
+                try {
+                    listener.onEvents(events);
+                } catch (RuntimeException e) {
+                    ok = false;
+                    failureCounter.increment();
+                    log.error("互动事件处理失败: listener={}, events={}", ClassUtils.getUserClass(listener).getSimpleName(), events.size(), e);
+                }
+            }
+            return ok;
+        });
+        if (succeeded) {
+            outboxRepository.delete(entries.stream().map(OutboxRepository.Entry::id).toList());
+        }
+        return succeeded;
+    }
+
+    private Counter publishedCounter(EngagementEvent event) {
+        return publishedCounters.computeIfAbsent(event.getClass(), type -> Counter.builder("devnote.events.published")
+                .tag("type", type.getSimpleName())
+                .description("已发布的互动事件数")
+                .register(registry));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.devnote.event;
+
+import java.util.List;
+
+/**
+ * 互动事件的消费者
+ *
+ * 实现类注册为 Spring Bean 即可被 EngagementEventBus 发现。事件按提交顺序成批送达，
+ * 同一批里可能混有各种类型的事件，实现类只挑自己关心的处理，并尽量把一批合并成少量数据库写入。
+ * 每批在后台线程上、在删除对应 outbox 行的同一个事务中调用：数据库写入随事务提交，恰好生效一次；
+ * 任一监听器抛出异常时整批回滚，之后从 outbox 重新投递，因此缓存等非数据库副作用必须可以重复执行（幂等）。
+ */
+public interface EngagementEventListener {
+
+    void onEvents(List<EngagementEvent> events);
+}
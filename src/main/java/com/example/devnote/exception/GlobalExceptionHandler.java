@@ -1,5 +1,7 @@
 package com.example.devnote.exception;
 
+import com.example.devnote.config.UploadProperties;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ui.Model;
@@ -9,6 +11,8 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.support.RequestContextUtils;
 import org.springframework.validation.FieldError;
 import java.util.HashMap;
 import java.util.Map;
@@ -28,6 +32,13 @@ import java.util.Map;
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final UploadProperties uploadProperties;
+
+    public GlobalExceptionHandler(UploadProperties uploadProperties) {
+        this.uploadProperties = uploadProperties;
+    }
+
     /**
      * 处理 404 页面未找到异常
      */
@@ -39,6 +50,19 @@ public class GlobalExceptionHandler {
         return "error"; // 返回 templates/error.html
     }
 
+    /**
+     * 上传的文件超过容器层的大小限制（解析 multipart 时抛出，还没有进入 Controller）
+     * 回到提交表单的页面（同一地址的 GET），提示与 UploadService 的大小校验一致
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public String handleMaxUploadSize(MaxUploadSizeExceededException ex, HttpServletRequest request) {
+        logger.warn("上传文件过大: {}", request.getRequestURI());
+        RequestContextUtils.getOutputFlashMap(request).put("error",
+                "文件不能超过 " + uploadProperties.getMaxFileSize().toMegabytes() + "MB");
+        // 不含 context path、保持编码的请求路径（RedirectView 会补上 context path）
+        return "redirect:" + request.getRequestURI().substring(request.getContextPath().length());
+    }
+
     /**
      * 处理所有其他异常（500）
      */
@@ -3,7 +3,10 @@ package com.example.devnote.repository;
 import com.example.devnote.entity.Comment;
 import com.example.devnote.entity.Post;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,4 +33,16 @@ public interface CommentRepository extends JpaRepository<Comment,Long> {
      */
     List<Comment> findByParentOrderByCreatedAtAsc(Comment parent);
 
+    /**
+     * 一组文章各自的评论数（含回复）：每行为 [postId, count]，没有评论的文章不返回
+     */
+    @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * 一组评论各自的作者：每行为 [commentId, authorId]（发回复通知时批量查收件人）
+     */
+    @Query("SELECT c.id, c.author.id FROM Comment c WHERE c.id IN :commentIds")
+    List<Object[]> findAuthorIds(@Param("commentIds") Collection<Long> commentIds);
+
 }
@@ -1,10 +1,17 @@
 package com.example.devnote.repository;
 
+import com.example.devnote.dto.SavedPostDto;
 import com.example.devnote.entity.Favorite;
 import com.example.devnote.entity.Post;
 import com.example.devnote.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +21,36 @@ public interface FavoriteRepository extends JpaRepository<Favorite,Long> {
     Optional<Favorite> findByUserAndPost(User user, Post post);
 
     long countByPost(Post post);
-    
-    List<Favorite> findByUser(User user);
-    
+
     //统计用户收藏的文章总数
     long countByUser(User user);
 
+    //一组文章各自的收藏数：每行为 [postId, count]，没有收藏的文章不返回
+    @Query("SELECT f.post.id, COUNT(f) FROM Favorite f WHERE f.post.id IN :postIds GROUP BY f.post.id")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    //收藏过某文章的用户 ID（删除文章前查出，用于更新这些用户的收藏计数）
+    @Query("SELECT f.user.id FROM Favorite f WHERE f.post.id = :postId")
+    List<Long> findUserIdsByPostId(@Param("postId") Long postId);
+
+    //删除某文章的全部收藏记录
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    //用户收藏的文章（第一页）：按收藏时间倒序，只查 ID、标题和游标字段，走 (user_id, favorited_at) 索引
+    //与 LikeRepository.findLikedPosts 对称：返回 List，不执行 COUNT，调用方多取一条判断是否有下一页
+    @Query("SELECT new com.example.devnote.dto.SavedPostDto(p.id, p.title, f.favoritedAt, f.id) " +
+            "FROM Favorite f JOIN f.post p WHERE f.user.id = :userId " +
+            "ORDER BY f.favoritedAt DESC, f.id DESC")
+    List<SavedPostDto> findFavoritedPosts(@Param("userId") Long userId, Pageable pageable);
+
+    //用户收藏的文章（后续页）：从游标 (favoritedAt, id) 之后继续，不使用 OFFSET
+    @Query("SELECT new com.example.devnote.dto.SavedPostDto(p.id, p.title, f.favoritedAt, f.id) " +
+            "FROM Favorite f JOIN f.post p WHERE f.user.id = :userId " +
+            "AND (f.favoritedAt < :favoritedAt OR (f.favoritedAt = :favoritedAt AND f.id < :id)) " +
+            "ORDER BY f.favoritedAt DESC, f.id DESC")
+    List<SavedPostDto> findFavoritedPostsBefore(@Param("userId") Long userId, @Param("favoritedAt") LocalDateTime favoritedAt,
+                                                @Param("id") Long id, Pageable pageable);
+
 }
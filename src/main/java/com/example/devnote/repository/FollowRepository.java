@@ -6,9 +6,11 @@ import com.example.devnote.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +18,42 @@ public interface FollowRepository extends JpaRepository<Follow,Long> {
     // 检查是否已关注
     Optional<Follow> findByFollowerAndFollowing(User follower, User following);
 
+    // 新增关注：依赖 (follower_id, following_id) 唯一键，已存在时忽略；返回 1 表示新插入，0 表示已关注
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO follows (id, follower_id, following_id, created_at) " +
+            "VALUES (:id, :followerId, :followingId, CURRENT_TIMESTAMP(6))", nativeQuery = true)
+    int insertIgnore(@Param("id") Long id, @Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    // 取消关注：一条 DELETE 语句，返回删除的行数（派生的 deleteBy 会先查出实体再逐条删除）
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.following.id = :followingId")
+    int deleteByIds(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    // 批量取消关注：一条 DELETE 删除 followerId 对 ids 中所有用户的关注
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.following.id IN :ids")
+    int deleteByFollowerIdAndFollowingIdIn(@Param("followerId") Long followerId, @Param("ids") Collection<Long> ids);
+
+    // 批量取消关注前锁住 followerId 对 ids 中用户的关注行，返回锁到的用户 ID（随后的 DELETE 删除的正是这些行）
+    @Query(value = "SELECT following_id FROM follows WHERE follower_id = :followerId AND following_id IN (:ids) FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockFollowingIdsIn(@Param("followerId") Long followerId, @Param("ids") Collection<Long> ids);
+
+    // 按关注记录 ID 查被关注者（批量关注时确认哪些行是本次插入的）
+    @Query("SELECT f.following.id FROM Follow f WHERE f.id IN :ids")
+    List<Long> findFollowingIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ids 中已被 followerId 关注的用户 ID
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId AND f.following.id IN :ids")
+    List<Long> findFollowingIdsIn(@Param("followerId") Long followerId, @Param("ids") Collection<Long> ids);
+
+    // 按用户 ID 检查是否已关注（不加载实体）
+    boolean existsByFollowerIdAndFollowingId(Long followerId, Long followingId);
+
+    // 查询某用户关注的所有用户 ID
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId")
+    List<Long> findFollowingIds(@Param("userId") Long userId);
+
     // 获取某个用户的所有粉丝
     List<Follow> findByFollowing(User user);
 
@@ -43,10 +81,6 @@ public interface FollowRepository extends JpaRepository<Follow,Long> {
     Page<User> findFollowingPage(@Param("user") User user, Pageable pageable);
 
 
-
-    // 取消关注
-    void deleteByFollowerAndFollowing(User follower, User following);
-
     // 统计
     long countByFollower(User follower);
     long countByFollowing(User following);
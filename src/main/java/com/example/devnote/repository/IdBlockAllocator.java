@@ -0,0 +1,147 @@
+package com.example.devnote.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于 id_allocations 表的号段分配器（pooled 方式）
+ *
+ * 每次在独立事务里把某张表的 next_val 加上 size，取得 [start, start + size) 这一段 ID；
+ * 多个应用节点同时分配时由行锁保证号段互不重叠。
+ * 号段行的起点为该表当前的 MAX(id) + 1，已有数据（原自增主键）不会冲突：
+ * users、favorite 两行由迁移脚本 V2.2 预先写入，其他表（或未执行迁移的库）在第一次分配时插入。
+ *
+ * 两种用法：
+ *  - 实体主键：@PooledId 对应的 Hibernate 生成器在 Hibernate 的独立连接中调用 allocate(Connection, ...)
+ *  - JDBC 批量写入（测试数据生成、批量关注等）：注入本类，调用 nextId / nextIds
+ */
+@Component
+public class IdBlockAllocator {
+
+    private final DataSource dataSource;
+    private final int allocationSize;
+
+    /** 表名 → 当前号段 [next, end) */
+    private final ConcurrentHashMap<String, long[]> blocks = new ConcurrentHashMap<>();
+
+    public IdBlockAllocator(DataSource dataSource,
+                            @Value("${devnote.id.allocation-size:100}") int allocationSize) {
+        this.dataSource = dataSource;
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * 取一个 ID（从内存号段中取，用完再向数据库申请）
+     */
+    public long nextId(String table) {
+        long[] block = blocks.computeIfAbsent(table, key -> new long[]{0, 0});
+        synchronized (block) {
+            if (block[0] >= block[1]) {
+                block[0] = allocate(table, allocationSize);
+                block[1] = block[0] + allocationSize;
+            }
+            return block[0]++;
+        }
+    }
+
+    /**
+     * 一次取 count 个连续的 ID（单独申请一段，不占用内存号段）
+     */
+    public long[] nextIds(String table, int count) {
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        long start = allocate(table, count);
+        for (int i = 0; i < count; i++) {
+            ids[i] = start + i;
+        }
+        return ids;
+    }
+
+    private long allocate(String table, int size) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long start = allocate(connection, table, size);
+                connection.commit();
+                return start;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("分配 ID 号段失败：" + table, e);
+        }
+    }
+
+    /**
+     * 在给定连接（调用方负责事务）上为 table 分配 size 个 ID
+     *
+     * @param table 目标表名（仅限实体表名，不能来自用户输入）
+     * @return 号段的第一个 ID
+     */
+    public static long allocate(Connection connection, String table, int size) throws SQLException {
+        for (int attempt = 0; ; attempt++) {
+            Long next = selectForUpdate(connection, table);
+            if (next == null) {
+                try {
+                    insertInitialRow(connection, table);
+                } catch (SQLIntegrityConstraintViolationException | SQLTransactionRollbackException e) {
+                    // 其他节点同时初始化了这一行，重新读取。MySQL 上两边先在空行上加了间隙锁，
+                    // 插入时互相等待，多半报死锁而不是唯一键冲突；死锁时本事务已被回滚，
+                    // 而这个事务里只有号段分配的语句，重新读取即可
+                    if (attempt > 0) {
+                        throw e;
+                    }
+                }
+                continue;
+            }
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE id_allocations SET next_val = next_val + ? WHERE name = ?")) {
+                update.setLong(1, size);
+                update.setString(2, table);
+                update.executeUpdate();
+            }
+            return next;
+        }
+    }
+
+    private static Long selectForUpdate(Connection connection, String table) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT next_val FROM id_allocations WHERE name = ? FOR UPDATE")) {
+            select.setString(1, table);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    private static void insertInitialRow(Connection connection, String table) throws SQLException {
+        long start;
+        try (PreparedStatement max = connection.prepareStatement("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table);
+             ResultSet rs = max.executeQuery()) {
+            rs.next();
+            start = rs.getLong(1);
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO id_allocations (name, next_val) VALUES (?, ?)")) {
+            insert.setString(1, table);
+            insert.setLong(2, start);
+            insert.executeUpdate();
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.devnote.repository;
 
+import com.example.devnote.dto.SavedPostDto;
 import com.example.devnote.entity.Like;
 import com.example.devnote.entity.Post;
 import com.example.devnote.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,5 +31,42 @@ public interface LikeRepository extends JpaRepository<Like,Long> {
     
     //统计用户点赞的文章总数
     long countByUser(User user);
+
+    //用户点赞的文章（第一页）：按点赞时间倒序，只查 ID、标题和游标字段，走 (user_id, liked_at) 索引
+    //返回 List 而不是 Page，不会额外执行 COUNT；pageable 只用来限制条数（调用方多取一条判断是否有下一页）
+    @Query("SELECT new com.example.devnote.dto.SavedPostDto(p.id, p.title, l.likedAt, l.id) " +
+            "FROM Like l JOIN l.post p WHERE l.user.id = :userId " +
+            "ORDER BY l.likedAt DESC, l.id DESC")
+    List<SavedPostDto> findLikedPosts(@Param("userId") Long userId, Pageable pageable);
+
+    //用户点赞的文章（后续页）：从游标 (likedAt, id) 之后继续，不使用 OFFSET
+    @Query("SELECT new com.example.devnote.dto.SavedPostDto(p.id, p.title, l.likedAt, l.id) " +
+            "FROM Like l JOIN l.post p WHERE l.user.id = :userId " +
+            "AND (l.likedAt < :likedAt OR (l.likedAt = :likedAt AND l.id < :id)) " +
+            "ORDER BY l.likedAt DESC, l.id DESC")
+    List<SavedPostDto> findLikedPostsBefore(@Param("userId") Long userId, @Param("likedAt") LocalDateTime likedAt,
+                                            @Param("id") Long id, Pageable pageable);
+
+    //一组文章中被某用户点赞过的文章 ID（批量查点赞状态）
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    //一组文章各自的点赞数：每行为 [postId, count]，没有点赞的文章不返回
+    @Query("SELECT l.post.id, COUNT(l) FROM Like l WHERE l.post.id IN :postIds GROUP BY l.post.id")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    //点赞过某文章的用户 ID（删除文章前查出，用于更新这些用户的点赞计数）
+    @Query("SELECT l.user.id FROM Like l WHERE l.post.id = :postId")
+    List<Long> findUserIdsByPostId(@Param("postId") Long postId);
+
+    //删除某文章的全部点赞记录
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    //一组文章各自的点赞用户中，被某用户关注的人数：每行为 [postId, count]，为 0 的文章不返回
+    @Query("SELECT l.post.id, COUNT(l) FROM Like l WHERE l.post.id IN :postIds AND l.user.id IN " +
+            "(SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId) GROUP BY l.post.id")
+    List<Object[]> countByPostIdsLikedByFollowing(@Param("postIds") Collection<Long> postIds, @Param("userId") Long userId);
     
 }
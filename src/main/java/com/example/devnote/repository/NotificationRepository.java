@@ -0,0 +1,56 @@
+package com.example.devnote.repository;
+
+import com.example.devnote.dto.NotificationDto;
+import com.example.devnote.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    //把新的操作合并进已有的未读通知：人数加上 actorIds 中的人数（已有通知的最近操作者也在其中时少加 1，
+    //同一个人重复点赞、连续回复不重复计人），更新最近操作者和时间；返回 0 表示没有未读通知可合并
+    @Modifying
+    @Query("UPDATE Notification n SET n.actorCount = n.actorCount + :count - " +
+            "CASE WHEN n.lastActorId IN :actorIds THEN 1 ELSE 0 END, n.lastActorId = :actorId, " +
+            "n.updatedAt = :now WHERE n.recipientId = :recipientId AND n.read = false " +
+            "AND n.type = :type AND n.targetId = :targetId")
+    int mergeUnread(@Param("recipientId") Long recipientId, @Param("type") Notification.Type type,
+                    @Param("targetId") Long targetId, @Param("count") int count,
+                    @Param("actorIds") Collection<Long> actorIds,
+                    @Param("actorId") Long actorId, @Param("now") LocalDateTime now);
+
+    //收件箱第一页：按更新时间倒序，走 (recipient_id, updated_at) 索引；调用方多取一条判断是否有下一页
+    @Query("SELECT new com.example.devnote.dto.NotificationDto(n.id, n.type, n.targetId, n.postId, p.title, " +
+            "n.actorCount, u.username, n.read, n.updatedAt) " +
+            "FROM Notification n JOIN User u ON u.id = n.lastActorId LEFT JOIN Post p ON p.id = n.postId " +
+            "WHERE n.recipientId = :recipientId " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<NotificationDto> findInbox(@Param("recipientId") Long recipientId, Pageable pageable);
+
+    //收件箱后续页：(updated_at, id) 小于游标
+    @Query("SELECT new com.example.devnote.dto.NotificationDto(n.id, n.type, n.targetId, n.postId, p.title, " +
+            "n.actorCount, u.username, n.read, n.updatedAt) " +
+            "FROM Notification n JOIN User u ON u.id = n.lastActorId LEFT JOIN Post p ON p.id = n.postId " +
+            "WHERE n.recipientId = :recipientId " +
+            "AND (n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id)) " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<NotificationDto> findInboxBefore(@Param("recipientId") Long recipientId,
+                                          @Param("updatedAt") LocalDateTime updatedAt,
+                                          @Param("id") Long id, Pageable pageable);
+
+    //未读通知数（内存中没有缓存时才查询）
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipientId = :recipientId AND n.read = false")
+    long countUnread(@Param("recipientId") Long recipientId);
+
+    //全部标为已读
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipientId = :recipientId AND n.read = false")
+    int markAllRead(@Param("recipientId") Long recipientId);
+}
@@ -0,0 +1,121 @@
+package com.example.devnote.repository;
+
+import com.example.devnote.event.EngagementEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * outbox_events 表的 JDBC 读写
+ *
+ * 事件以 JSON 保存，event_type 为 EngagementEvent 的记录类名。
+ * 读取都带 FOR UPDATE SKIP LOCKED：多个线程 / 多个节点同时投递时，已被别人锁住的行直接跳过，
+ * 同一行只会在一个事务里被处理并删除。
+ */
+@Repository
+public class OutboxRepository {
+
+    /** 类名 → 事件类型 */
+    private static final Map<String, Class<?>> EVENT_TYPES = Arrays.stream(EngagementEvent.class.getPermittedSubclasses())
+            .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    /**
+     * 表中的一行：ID 与还原出的事件
+     */
+    public record Entry(long id, EngagementEvent event) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 插入一个事件（在调用方的事务中执行）
+     */
+    public void insert(long id, EngagementEvent event) {
+        jdbcTemplate.update("INSERT INTO outbox_events (id, event_type, payload, created_at) VALUES (?, ?, ?, ?)",
+                id, event.getClass().getSimpleName(), toJson(event), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * 锁住 ids 中仍在表里、且没有被其他事务锁住的行，返回锁到的 ID
+     */
+    public Set<Long> lock(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT id FROM outbox_events WHERE id IN (:ids) FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("ids", ids), Long.class));
+    }
+
+    /**
+     * 按 ID 顺序锁住并读取 ID 小于 maxId 的行（积压的事件），最多 limit 行
+     */
+    public List<Entry> lockBefore(long maxId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, event_type, payload FROM outbox_events WHERE id < ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new Entry(rs.getLong(1), fromJson(rs.getString(2), rs.getString(3))),
+                maxId, limit);
+    }
+
+    public int delete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update("DELETE FROM outbox_events WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * 最早的未处理事件 ID，没有积压时返回 null
+     */
+    public Long findOldestId() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id) FROM outbox_events", Long.class);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private String toJson(EngagementEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("事件序列化失败: " + event, e);
+        }
+    }
+
+    private EngagementEvent fromJson(String type, String payload) {
+        Class<?> eventType = EVENT_TYPES.get(type);
+        if (eventType == null) {
+            throw new IllegalStateException("未知的事件类型: " + type);
+        }
+        try {
+            return (EngagementEvent) objectMapper.readValue(payload, eventType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("事件反序列化失败: " + type, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.devnote.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * post_hot_scores 表的 JDBC 读写
+ *
+ * 定时把内存中有变化的计数整行覆盖写入（INSERT ... ON DUPLICATE KEY UPDATE），一批一次往返。
+ */
+@Repository
+public class PostHotScoreRepository {
+
+    /**
+     * 表中的一行
+     */
+    public record Row(long postId, long likeCount, long favoriteCount, long commentCount, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public PostHotScoreRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * 发布时间不早于 since 的行（启动时加载，走 idx_post_hot_scores_created）
+     */
+    public List<Row> findCreatedSince(LocalDateTime since) {
+        return jdbcTemplate.query(
+                "SELECT post_id, like_count, favorite_count, comment_count, created_at FROM post_hot_scores WHERE created_at >= ?",
+                (rs, rowNum) -> new Row(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                        rs.getTimestamp(5).toLocalDateTime()),
+                Timestamp.valueOf(since));
+    }
+
+    /**
+     * 批量写入，已存在的行整行覆盖
+     */
+    public void upsert(Collection<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO post_hot_scores (post_id, like_count, favorite_count, comment_count, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE like_count = VALUES(like_count), " +
+                        "favorite_count = VALUES(favorite_count), comment_count = VALUES(comment_count)",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.postId());
+                    ps.setLong(2, row.likeCount());
+                    ps.setLong(3, row.favoriteCount());
+                    ps.setLong(4, row.commentCount());
+                    ps.setTimestamp(5, Timestamp.valueOf(row.createdAt()));
+                });
+    }
+
+    public int delete(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update("DELETE FROM post_hot_scores WHERE post_id IN (:ids)",
+                new MapSqlParameterSource("ids", postIds));
+    }
+
+    /**
+     * 删除发布时间早于 before 的行（已移出排行窗口）
+     */
+    public int deleteCreatedBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM post_hot_scores WHERE created_at < ?", Timestamp.valueOf(before));
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -49,16 +51,6 @@ public interface PostRepository extends JpaRepository<Post,Long> {
     List<Post> findByAuthorOrderByCreatedAtDesc(User user);
 
     
-    // 查找用户点赞过的文章（分页版）
-    // 使用 JOIN 和 WHERE 子句来查询用户点赞过的文章
-    @Query("""
-        SELECT p FROM Post p
-        JOIN Like l ON l.post = p
-        WHERE l.user.id = :userId
-        ORDER BY l.likedAt DESC
-        """)
-    Page<Post> findLikedPostsByUserId(@Param("userId") Long userId, Pageable pageable);
-    
     // 根据作者查找文章（分页版）
     // 使用 JOIN FETCH 来预加载 author 关联
     @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.author = :user ORDER BY p.createdAt DESC")
@@ -73,6 +65,11 @@ public interface PostRepository extends JpaRepository<Post,Long> {
     @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.author = :user AND p.visibility = :visibility ORDER BY p.createdAt DESC")
     List<Post> findByAuthorAndVisibilityOrderByCreatedAtDesc(User user, String visibility);
 
+    //查多个作者+可见性（一次查询代替逐个作者查询）- 预加载author关联
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.author.id IN :authorIds AND p.visibility = :visibility ORDER BY p.createdAt DESC")
+    List<Post> findByAuthorIdInAndVisibilityOrderByCreatedAtDesc(@Param("authorIds") Collection<Long> authorIds,
+                                                                 @Param("visibility") String visibility);
+
 
     /**
      * 根据作者和多个可见性状态查询文章（分页版）- 预加载author关联
@@ -84,6 +81,24 @@ public interface PostRepository extends JpaRepository<Post,Long> {
     @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.author = :user AND p.visibility IN :visibilities ORDER BY p.createdAt DESC")
     Page<Post> findByAuthorAndVisibilityInOrderByCreatedAtDesc(User user, List<String> visibilities, Pageable pageable);
 
+    //一组文章各自的作者：每行为 [postId, authorId]（发通知时批量查收件人）
+    @Query("SELECT p.id, p.author.id FROM Post p WHERE p.id IN :postIds")
+    List<Object[]> findAuthorIds(@Param("postIds") Collection<Long> postIds);
+
+    //一组文章中的公开文章及其发布时间：每行为 [postId, createdAt]（热门排行收录新文章）
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.id IN :postIds AND p.visibility = 'PUBLIC'")
+    List<Object[]> findPublicCreatedAt(@Param("postIds") Collection<Long> postIds);
+
+    //发布时间不早于 since 的公开文章：每行为 [postId, createdAt]，走 (visibility, created_at) 索引（热门排行启动加载）
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.visibility = 'PUBLIC' AND p.createdAt >= :since")
+    List<Object[]> findPublicCreatedSince(@Param("since") LocalDateTime since);
 
+    //按 ID 批量加载文章并预加载作者（热门页按排行顺序展示）
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.id IN :postIds")
+    List<Post> findWithAuthorByIdIn(@Param("postIds") Collection<Long> postIds);
 
+    //某个标签下的公开文章，按 ID（发布时间）倒序，走 uk_tags_name 与 idx_post_tags_tag_post（标签索引加载完成前的回退）
+    @Query("SELECT p FROM Post p JOIN FETCH p.author JOIN p.tags t WHERE t.name = :name AND p.visibility = 'PUBLIC' " +
+            "AND p.id < :beforeId ORDER BY p.id DESC")
+    List<Post> findPublicByTagBefore(@Param("name") String name, @Param("beforeId") Long beforeId, Pageable pageable);
 }
@@ -0,0 +1,97 @@
+package com.example.devnote.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * post_views 表的 JDBC 读写
+ *
+ * 阅读次数以增量累加（view_count = view_count + ?），草图与估算值整体覆盖；一批一次往返。
+ */
+@Repository
+public class PostViewRepository {
+
+    /**
+     * 展示用的计数
+     */
+    public record Counts(long views, long uniqueViewers) {
+    }
+
+    /**
+     * 一次写入：views 为本批新增的阅读次数，sketch 为合并后的完整草图
+     */
+    public record Row(long postId, long views, long uniqueViewers, byte[] sketch) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public PostViewRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * 一篇文章已写入数据库的计数，没有记录时为 0
+     */
+    public Counts findCounts(long postId) {
+        List<Counts> rows = jdbcTemplate.query("SELECT view_count, unique_viewers FROM post_views WHERE post_id = ?",
+                (rs, rowNum) -> new Counts(rs.getLong(1), rs.getLong(2)), postId);
+        return rows.isEmpty() ? new Counts(0, 0) : rows.get(0);
+    }
+
+    /**
+     * 一组文章已保存的草图：文章 ID → 寄存器
+     */
+    public Map<Long, byte[]> findSketches(Collection<Long> postIds) {
+        Map<Long, byte[]> sketches = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return sketches;
+        }
+        namedJdbcTemplate.query("SELECT post_id, viewer_sketch FROM post_views WHERE post_id IN (:ids)",
+                new MapSqlParameterSource("ids", postIds),
+                rs -> {
+                    sketches.put(rs.getLong(1), rs.getBytes(2));
+                });
+        return sketches;
+    }
+
+    /**
+     * 批量写入：阅读次数累加，草图与估算值覆盖
+     */
+    public void upsert(Collection<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO post_views (post_id, view_count, unique_viewers, viewer_sketch, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count), " +
+                        "unique_viewers = VALUES(unique_viewers), viewer_sketch = VALUES(viewer_sketch), " +
+                        "updated_at = VALUES(updated_at)",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.postId());
+                    ps.setLong(2, row.views());
+                    ps.setLong(3, row.uniqueViewers());
+                    ps.setBytes(4, row.sketch());
+                    ps.setTimestamp(5, now);
+                });
+    }
+
+    public int delete(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update("DELETE FROM post_views WHERE post_id IN (:ids)",
+                new MapSqlParameterSource("ids", postIds));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.devnote.repository;
+
+import com.example.devnote.entity.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    // 按规范化后的标签名批量查找，走 uk_tags_name
+    List<Tag> findByNameIn(Collection<String> names);
+}
@@ -2,10 +2,68 @@ package com.example.devnote.repository;
 
 import com.example.devnote.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User,Long> {
 
     User findByUsername(String username);//用于登录时查找用户
+
+    // 按用户名批量查 ID（只查两列，不加载实体）
+    List<IdAndUsername> findByUsernameIn(Collection<String> usernames);
+
+    // ids 中实际存在的用户 ID
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // 更新头像（头像在后台线程处理完成后调用，只改这一列，不覆盖同时修改的其他资料）
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.avatar = :avatar WHERE u.id = :userId")
+    int updateAvatar(@Param("userId") Long userId, @Param("avatar") String avatar);
+
+    // 冗余计数原子增减（在数据库里做加法，避免读-改-写的并发丢失）
+    // 由 EngagementCounterListener 把一批事件按用户合并后调用，每个用户每批只有一条 UPDATE
+    @Modifying
+    @Query("UPDATE User u SET u.likedPostsCount = u.likedPostsCount + :liked, " +
+            "u.favoritedPostsCount = u.favoritedPostsCount + :favorited, " +
+            "u.followersCount = u.followersCount + :followers, " +
+            "u.followingCount = u.followingCount + :following WHERE u.id = :userId")
+    int incrementCounts(@Param("userId") Long userId, @Param("liked") long liked, @Param("favorited") long favorited,
+                        @Param("followers") long followers, @Param("following") long following);
+
+    // 按 post_likes 表重新计算所有用户的点赞文章数（批量导入数据后使用）
+    @Modifying
+    @Query(value = "UPDATE users u SET liked_posts_count = (SELECT COUNT(*) FROM post_likes l WHERE l.user_id = u.id)",
+            nativeQuery = true)
+    int recalculateLikedPostsCounts();
+
+    // 按 favorite 表重新计算所有用户的收藏文章数（批量导入数据后使用）
+    @Modifying
+    @Query(value = "UPDATE users u SET favorited_posts_count = (SELECT COUNT(*) FROM favorite f WHERE f.user_id = u.id)",
+            nativeQuery = true)
+    int recalculateFavoritedPostsCounts();
+
+    // 按 follows 表重新计算所有用户的粉丝数 / 关注数（批量导入数据后使用）
+    @Modifying
+    @Query(value = "UPDATE users u SET " +
+            "followers_count = (SELECT COUNT(*) FROM follows f WHERE f.following_id = u.id), " +
+            "following_count = (SELECT COUNT(*) FROM follows f WHERE f.follower_id = u.id)",
+            nativeQuery = true)
+    int recalculateFollowCounts();
+
+    /**
+     * 用户 ID + 用户名投影
+     */
+    interface IdAndUsername {
+        Long getId();
+        String getUsername();
+    }
 }
@@ -0,0 +1,279 @@
+package com.example.devnote.service;
+
+import com.example.devnote.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 头像处理
+ *
+ * 上传的原图不直接对外提供，而是在后台线程中解码、居中裁成正方形，并缩放成几种固定尺寸的 JPEG：
+ *  - 文件按原图内容的 SHA-256 命名（uploads/avatars/ab/abcd...-128.jpg），同一张图只存一份；
+ *  - 内容决定文件名，文件写入后不再变化，静态资源可以永久缓存（见 WebConfig）；
+ *  - users.avatar 只保存不带尺寸的前缀，模板通过 url(avatar, "small" / "medium" / "large") 取对应尺寸。
+ *
+ * 请求线程通过 UploadService 把上传内容流式写到临时文件（同时得到内容哈希），只读取文件头做校验（格式、宽高），不解码像素；
+ * 解码和缩放在有界线程池中完成，完成后再更新 users.avatar，因此新头像会在上传后稍有延迟地出现。
+ * 生成的图片通过 ObjectStorage 保存，key 为 avatars/ab/abcd...-128.jpg。
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvatarService.class);
+
+    /** 头像的几种尺寸（正方形边长，像素） */
+    public enum Variant {
+        SMALL(64),   // 卡片、评论等 40px 左右的小头像
+        MEDIUM(128), // 粉丝 / 关注列表（50px，按 2 倍屏）
+        LARGE(256);  // 个人主页、编辑页（100px，按 2 倍屏）
+
+        private final int size;
+
+        Variant(int size) {
+            this.size = size;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+
+    public static final String DEFAULT_AVATAR = "/images/default-avatar.png";
+
+    // 对外访问路径前缀，对应存储中 avatars/ 下的 key
+    static final String URL_PREFIX = "/uploads/avatars/";
+
+    private static final String KEY_PREFIX = "avatars/";
+
+    private static final Set<String> ACCEPTED_FORMATS = Set.of("jpeg", "png", "gif", "bmp");
+
+    // 原图宽高上限，防止小文件解码出超大位图
+    private static final int MAX_DIMENSION = 6000;
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final UserRepository userRepository;
+    private final UploadService uploadService;
+    private final ObjectStorage storage;
+    private final ThreadPoolExecutor executor;
+    private final Timer processTimer;
+
+    public AvatarService(UserRepository userRepository, UploadService uploadService, ObjectStorage storage,
+                         @Value("${devnote.avatar.threads:2}") int threads,
+                         @Value("${devnote.avatar.queue-capacity:100}") int queueCapacity,
+                         MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.uploadService = uploadService;
+        this.storage = storage;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "avatar-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.processTimer = Timer.builder("devnote.avatar.process")
+                .description("头像解码、缩放并写入所有尺寸的耗时")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 校验上传的头像并提交后台处理，处理完成后更新用户的头像
+     *
+     * @throws IllegalArgumentException 不是支持的图片格式、文件或尺寸过大
+     * @throws IllegalStateException    该用户已有头像在处理，或处理队列已满
+     */
+    public CompletableFuture<String> submit(Long userId, MultipartFile file) throws IOException {
+        UploadService.Upload upload = uploadService.receive(userId, file);
+        CompletableFuture<String> future;
+        try {
+            validate(upload.getPath());
+            future = CompletableFuture.supplyAsync(() -> {
+                String avatar = processTimer.record(() -> store(upload.getPath(), upload.getSha256()));
+                userRepository.updateAvatar(userId, avatar);
+                return avatar;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            upload.close();
+            throw new IllegalStateException("头像处理繁忙，请稍后重试", e);
+        } catch (IOException | RuntimeException e) {
+            upload.close();
+            throw e;
+        }
+        // 处理完（无论成败）才删除临时文件、归还上传名额
+        return future.whenComplete((avatar, e) -> {
+            if (e != null) {
+                log.error("头像处理失败: userId={}", userId, e);
+            }
+            try {
+                upload.close();
+            } catch (IOException closeError) {
+                log.warn("删除头像临时文件失败: {}", upload.getPath(), closeError);
+            }
+        });
+    }
+
+    /**
+     * 模板中使用：按尺寸返回头像地址；默认头像和旧版上传的原图原样返回
+     *
+     * @param avatar  users.avatar 的值
+     * @param variant small / medium / large
+     */
+    public String url(String avatar, String variant) {
+        if (avatar == null || avatar.isEmpty()) {
+            return DEFAULT_AVATAR;
+        }
+        if (!avatar.startsWith(URL_PREFIX)) {
+            return avatar;
+        }
+        return avatar + "-" + Variant.valueOf(variant.toUpperCase(Locale.ROOT)).getSize() + ".jpg";
+    }
+
+    /**
+     * 只读文件头，检查格式和宽高
+     */
+    void validate(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("请上传 JPG、PNG、GIF 或 BMP 格式的图片");
+            }
+            ImageReader reader = readers.next();
+            try {
+                if (!ACCEPTED_FORMATS.contains(reader.getFormatName().toLowerCase(Locale.ROOT))) {
+                    throw new IllegalArgumentException("请上传 JPG、PNG、GIF 或 BMP 格式的图片");
+                }
+                reader.setInput(input, true, true);
+                if (reader.getWidth(0) > MAX_DIMENSION || reader.getHeight(0) > MAX_DIMENSION) {
+                    throw new IllegalArgumentException("图片尺寸不能超过 " + MAX_DIMENSION + " × " + MAX_DIMENSION);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 解码原图并写入所有尺寸，返回 users.avatar 要保存的前缀；同一张图（hash 相同）已经处理过时直接返回
+     */
+    String store(Path source, String hash) {
+        String name = hash.substring(0, 2) + "/" + hash;
+        try {
+            if (storage.exists(key(name, Variant.SMALL))) {
+                return URL_PREFIX + name;
+            }
+            BufferedImage original = ImageIO.read(source.toFile());
+            if (original == null) {
+                throw new IllegalArgumentException("无法解析图片");
+            }
+            BufferedImage square = cropSquare(original);
+            // 从大到小写，最后写的 SMALL 同时作为“已处理完”的标记
+            for (int i = Variant.values().length - 1; i >= 0; i--) {
+                Variant variant = Variant.values()[i];
+                storage.put(key(name, variant), encodeJpeg(resize(square, variant.getSize())));
+            }
+            return URL_PREFIX + name;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String key(String name, Variant variant) {
+        return KEY_PREFIX + name + "-" + variant.getSize() + ".jpg";
+    }
+
+    /**
+     * 居中裁成正方形，并把透明背景铺成白色（JPEG 不支持透明）
+     */
+    private static BufferedImage cropSquare(BufferedImage image) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        int x = (image.getWidth() - side) / 2;
+        int y = (image.getHeight() - side) / 2;
+        BufferedImage square = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = square.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, side, side);
+            g.drawImage(image, 0, 0, side, side, x, y, x + side, y + side, null);
+        } finally {
+            g.dispose();
+        }
+        return square;
+    }
+
+    /**
+     * 逐次减半缩小到目标尺寸（一步缩小太多倍时双线性插值会丢细节、出现锯齿）；原图比目标小时不放大
+     */
+    private static BufferedImage resize(BufferedImage image, int size) {
+        BufferedImage current = image;
+        int side = current.getWidth();
+        if (side <= size) {
+            return current;
+        }
+        do {
+            side = Math.max(size, side / 2);
+            BufferedImage next = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, side, side, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (side > size);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
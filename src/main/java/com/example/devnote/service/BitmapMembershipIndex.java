@@ -0,0 +1,403 @@
+package com.example.devnote.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于压缩位图（RoaringBitmap）的成员索引
+ *
+ * 以一个 long 为键（如文章 ID、关注者 ID），每个键对应一组成员（用户 ID）组成的位图，
+ * 用来回答“X 是否在 Y 的集合里”，以及集合之间的交集运算，而不必每次查询数据库。
+ *
+ *  - 启动完成后通过 loadSql 全量加载（结果集两列：键、成员），加载完成前调用方应回退到数据库，见 isLoaded
+ *  - 业务写操作在事务提交后调用 addAfterCommit / removeAfterCommit 增量更新
+ *  - 定时与数据库做一致性校验，发现不一致时用数据库快照重建
+ *
+ * 成员必须落在无符号 32 位范围内。用户 ID 由 @PooledId 号段分配（见 IdBlockAllocator）：
+ * 从已有数据的 MAX(id) + 1 开始按号段顺序递增，每个节点每次重启最多跳过一段未用完的号段，离 2^32 还很远。
+ * 如果用户主键改为雪花 ID 之类的大数值，add 会抛出异常，contains 一律返回 false，这里需要改为按 long 存储。
+ * 位图按容器分块压缩，稀疏集合与稠密集合都只占用与元素数量相当的内存，规模到百万级也可预估。
+ *
+ * 并发：发布出去的位图不再修改（写时复制），通过 ConcurrentHashMap.compute 原子替换，读操作无锁。
+ */
+public abstract class BitmapMembershipIndex {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String name;
+    private final String loadSql;
+
+    private volatile ConcurrentHashMap<Long, RoaringBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded = false;
+
+    private final AtomicLong memberCount = new AtomicLong();
+
+    /** 全量加载期间发生的增量操作，加载完成后重放到新快照上：{1=add / 0=remove, key, member} */
+    private List<long[]> pendingDuringLoad;
+    private final Object loadLock = new Object();
+
+    protected BitmapMembershipIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                    String name, String loadSql) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.name = name;
+        this.loadSql = loadSql;
+        Gauge.builder("devnote.membership.index.members", memberCount, AtomicLong::get)
+                .description("索引中的成员关系条数")
+                .tag("index", name)
+                .register(meterRegistry);
+        Gauge.builder("devnote.membership.index.keys", this, index -> index.bitmaps.size())
+                .description("索引中的位图个数")
+                .tag("index", name)
+                .register(meterRegistry);
+        Gauge.builder("devnote.membership.index.bytes", this, BitmapMembershipIndex::sizeInBytes)
+                .description("索引中位图占用的内存（估算）")
+                .tag("index", name)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 索引是否已完成加载；未加载时查询结果不可信，调用方应回退到数据库
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    protected boolean contains(long key, long member) {
+        if (!isValidMember(member)) {
+            return false;
+        }
+        RoaringBitmap bitmap = bitmaps.get(key);
+        return bitmap != null && bitmap.contains((int) member);
+    }
+
+    /**
+     * 某个键下的成员位图
+     *
+     * 返回的是当前快照本身，调用方只能读取或用 RoaringBitmap.and 等静态方法生成新位图，不得修改。
+     */
+    protected RoaringBitmap members(long key) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        return bitmap == null ? new RoaringBitmap() : bitmap;
+    }
+
+    protected int cardinality(long key) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        return bitmap == null ? 0 : bitmap.getCardinality();
+    }
+
+    /**
+     * 批量判断：keys 中哪些键的集合包含 member（保持传入顺序）
+     */
+    protected Set<Long> keysContaining(Collection<Long> keys, long member) {
+        Set<Long> result = new LinkedHashSet<>();
+        if (!isValidMember(member)) {
+            return result;
+        }
+        for (Long key : keys) {
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null && bitmap.contains((int) member)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 新增成员关系（幂等）
+     */
+    public void add(long key, long member) {
+        int value = toMember(member);
+        record(1, key, member);
+        if (insert(bitmaps, key, value)) {
+            memberCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 删除成员关系（幂等）
+     */
+    public void remove(long key, long member) {
+        if (!isValidMember(member)) {
+            return;
+        }
+        record(0, key, member);
+        if (delete(bitmaps, key, (int) member)) {
+            memberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * 批量新增同一个键下的多个成员（只复制一次位图）
+     */
+    public void addAll(long key, Collection<Long> members) {
+        RoaringBitmap values = new RoaringBitmap();
+        for (Long member : members) {
+            values.add(toMember(member));
+            record(1, key, member);
+        }
+        long added = update(bitmaps, key, values, true);
+        memberCount.addAndGet(added);
+    }
+
+    /**
+     * 批量删除同一个键下的多个成员（只复制一次位图）
+     */
+    public void removeAll(long key, Collection<Long> members) {
+        RoaringBitmap values = new RoaringBitmap();
+        for (Long member : members) {
+            if (isValidMember(member)) {
+                values.add((int) (long) member);
+                record(0, key, member);
+            }
+        }
+        long removed = update(bitmaps, key, values, false);
+        memberCount.addAndGet(-removed);
+    }
+
+    /**
+     * 当前事务提交后再新增，避免回滚后索引里残留脏数据（没有事务时立即执行）
+     */
+    public void addAfterCommit(long key, long member) {
+        afterCommit(() -> add(key, member));
+    }
+
+    /**
+     * 当前事务提交后再删除（没有事务时立即执行）
+     */
+    public void removeAfterCommit(long key, long member) {
+        afterCommit(() -> remove(key, member));
+    }
+
+    public void addAllAfterCommit(long key, Collection<Long> members) {
+        if (!members.isEmpty()) {
+            afterCommit(() -> addAll(key, members));
+        }
+    }
+
+    public void removeAllAfterCommit(long key, Collection<Long> members) {
+        if (!members.isEmpty()) {
+            afterCommit(() -> removeAll(key, members));
+        }
+    }
+
+    /**
+     * 全量加载，构建完成后原子替换当前索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        synchronized (loadLock) {
+            pendingDuringLoad = new ArrayList<>();
+        }
+
+        ConcurrentHashMap<Long, RoaringBitmap> snapshot = readFromDatabase();
+
+        synchronized (loadLock) {
+            for (long[] op : pendingDuringLoad) {
+                if (op[0] == 1) {
+                    insert(snapshot, op[1], (int) op[2]);
+                } else {
+                    delete(snapshot, op[1], (int) op[2]);
+                }
+            }
+            pendingDuringLoad = null;
+            bitmaps = snapshot;
+            memberCount.set(countMembers(snapshot));
+            loaded = true;
+        }
+        logger.info("{} 索引加载完成：{} 个键，{} 条成员关系，约 {} 字节，耗时 {} ms",
+                name, snapshot.size(), memberCount.get(), sizeInBytes(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 与数据库做一致性校验
+     *
+     * 校验期间仍有写入时可能出现短暂的误报，因此发现不一致时直接用数据库快照重建，而不是逐条修补。
+     *
+     * @return 不一致的键个数（0 表示一致）
+     */
+    @Scheduled(initialDelayString = "${devnote.membership-index.verify-interval:PT30M}",
+            fixedDelayString = "${devnote.membership-index.verify-interval:PT30M}")
+    public int verify() {
+        if (!loaded) {
+            return 0;
+        }
+        Map<Long, RoaringBitmap> database = readFromDatabase();
+        Map<Long, RoaringBitmap> memory = bitmaps;
+
+        int mismatches = 0;
+        for (Map.Entry<Long, RoaringBitmap> entry : database.entrySet()) {
+            RoaringBitmap current = memory.get(entry.getKey());
+            if (current == null || !current.equals(entry.getValue())) {
+                mismatches++;
+            }
+        }
+        for (Map.Entry<Long, RoaringBitmap> entry : memory.entrySet()) {
+            if (!entry.getValue().isEmpty() && !database.containsKey(entry.getKey())) {
+                mismatches++;
+            }
+        }
+
+        if (mismatches > 0) {
+            logger.warn("{} 索引与数据库不一致：{} 个键，重新加载", name, mismatches);
+            load();
+        }
+        return mismatches;
+    }
+
+    /**
+     * 所有位图占用内存的估算值
+     */
+    public long sizeInBytes() {
+        long total = 0;
+        for (RoaringBitmap bitmap : bitmaps.values()) {
+            total += bitmap.getLongSizeInBytes();
+        }
+        return total;
+    }
+
+    /**
+     * 位图转成 long 数组（成员按无符号解释）
+     */
+    protected static long[] toLongArray(RoaringBitmap bitmap) {
+        long[] result = new long[bitmap.getCardinality()];
+        int i = 0;
+        for (int value : bitmap) {
+            result[i++] = Integer.toUnsignedLong(value);
+        }
+        return result;
+    }
+
+    private void record(int type, long key, long member) {
+        synchronized (loadLock) {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(new long[]{type, key, member});
+            }
+        }
+    }
+
+    private ConcurrentHashMap<Long, RoaringBitmap> readFromDatabase() {
+        Map<Long, RoaringBitmap> builders = new HashMap<>();
+        jdbcTemplate.query(loadSql, rs -> {
+            builders.computeIfAbsent(rs.getLong(1), key -> new RoaringBitmap()).add(toMember(rs.getLong(2)));
+        });
+
+        ConcurrentHashMap<Long, RoaringBitmap> snapshot = new ConcurrentHashMap<>(Math.max(16, builders.size() * 4 / 3));
+        builders.forEach((key, bitmap) -> {
+            bitmap.runOptimize();
+            snapshot.put(key, bitmap);
+        });
+        return snapshot;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long countMembers(Map<Long, RoaringBitmap> map) {
+        long total = 0;
+        for (RoaringBitmap bitmap : map.values()) {
+            total += bitmap.getLongCardinality();
+        }
+        return total;
+    }
+
+    private static boolean isValidMember(long member) {
+        return (member >>> 32) == 0;
+    }
+
+    private static int toMember(long member) {
+        if (!isValidMember(member)) {
+            throw new IllegalArgumentException("成员 ID 超出 32 位范围：" + member);
+        }
+        return (int) member;
+    }
+
+    /**
+     * @return true 表示确实新增了一条
+     */
+    private static boolean insert(ConcurrentHashMap<Long, RoaringBitmap> map, long key, int member) {
+        boolean[] changed = new boolean[1];
+        map.compute(key, (k, bitmap) -> {
+            if (bitmap == null) {
+                changed[0] = true;
+                return RoaringBitmap.bitmapOf(member);
+            }
+            if (bitmap.contains(member)) {
+                return bitmap;
+            }
+            RoaringBitmap next = bitmap.clone();
+            next.add(member);
+            changed[0] = true;
+            return next;
+        });
+        return changed[0];
+    }
+
+    /**
+     * 把 values 整体并入（add = true）或移出（add = false）key 对应的位图
+     *
+     * @return 实际变化的成员数
+     */
+    private static long update(ConcurrentHashMap<Long, RoaringBitmap> map, long key, RoaringBitmap values, boolean add) {
+        long[] changed = new long[1];
+        map.compute(key, (k, bitmap) -> {
+            RoaringBitmap current = bitmap == null ? new RoaringBitmap() : bitmap;
+            RoaringBitmap next = add ? RoaringBitmap.or(current, values) : RoaringBitmap.andNot(current, values);
+            changed[0] = Math.abs(next.getLongCardinality() - current.getLongCardinality());
+            return next.isEmpty() ? null : next;
+        });
+        return changed[0];
+    }
+
+    /**
+     * @return true 表示确实删除了一条
+     */
+    private static boolean delete(ConcurrentHashMap<Long, RoaringBitmap> map, long key, int member) {
+        boolean[] changed = new boolean[1];
+        map.computeIfPresent(key, (k, bitmap) -> {
+            if (!bitmap.contains(member)) {
+                return bitmap;
+            }
+            changed[0] = true;
+            if (bitmap.getCardinality() == 1) {
+                return null;
+            }
+            RoaringBitmap next = bitmap.clone();
+            next.remove(member);
+            return next;
+        });
+        return changed[0];
+    }
+}
@@ -3,10 +3,14 @@ package com.example.devnote.service;
 import com.example.devnote.entity.Comment;
 import com.example.devnote.entity.Post;
 import com.example.devnote.entity.User;
+import com.example.devnote.event.EngagementEvent;
 import com.example.devnote.repository.CommentRepository;
 import com.example.devnote.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +24,7 @@ import java.util.Optional;
  *  - 删除评论（仅作者或文章作者有权限）
  */
 @Service
+@Timed(value = "devnote.service", histogram = true)
 public class CommentService {
 
     @Autowired
@@ -28,6 +33,9 @@ public class CommentService {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 根据文章查询所有顶级评论
      */
@@ -37,7 +45,9 @@ public class CommentService {
 
     /**
      * 添加评论或回复
+     * 保存后发布 CommentAdded，事务提交后由事件监听器处理后续的通知等副作用
      */
+    @Transactional
     public Comment addComment(Long postId, String content, User author, Long parentId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("文章不存在"));
@@ -53,12 +63,17 @@ public class CommentService {
             parentComment.ifPresent(comment::setParent);
         }
 
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        eventPublisher.publishEvent(new EngagementEvent.CommentAdded(saved.getId(), postId, author.getId(),
+                saved.getParent() == null ? null : saved.getParent().getId()));
+        return saved;
     }
 
     /**
      * 删除评论（仅作者或文章作者有权删除）
+     * 回复随评论级联删除；发布 CommentDeleted，带上一共删除的条数，供计数类监听器扣减
      */
+    @Transactional
     public void deleteComment(Long commentId, User currentUser) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("评论不存在"));
@@ -72,9 +87,22 @@ public class CommentService {
             throw new RuntimeException("你没有权限删除此评论");
         }
 
+        int count = countWithReplies(comment);
         // 删除子评论
         commentRepository.deleteAll(comment.getReplies());
         //删除评论本身
         commentRepository.delete(comment);
+        eventPublisher.publishEvent(new EngagementEvent.CommentDeleted(commentId, post.getId(), count));
+    }
+
+    /**
+     * 评论本身加上其下所有层级的回复条数
+     */
+    private static int countWithReplies(Comment comment) {
+        int count = 1;
+        for (Comment reply : comment.getReplies()) {
+            count += countWithReplies(reply);
+        }
+        return count;
     }
 }
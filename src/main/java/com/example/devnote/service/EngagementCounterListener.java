@@ -0,0 +1,71 @@
+package com.example.devnote.service;
+
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.event.EngagementEventListener;
+import com.example.devnote.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 维护 users 表上的冗余计数（点赞文章数、收藏文章数、粉丝数、关注数）
+ *
+ * 一批事件先在内存里按用户合并成增量，再每个用户执行一条 UPDATE；
+ * 同一用户在一批里的点赞又取消等操作会相互抵消，不产生写入。
+ * 按用户 ID 顺序更新，避免和同时在发布方线程上处理的批次互相死锁。
+ */
+@Component
+public class EngagementCounterListener implements EngagementEventListener {
+
+    // 增量数组下标
+    private static final int LIKED = 0;
+    private static final int FAVORITED = 1;
+    private static final int FOLLOWERS = 2;
+    private static final int FOLLOWING = 3;
+
+    private final UserRepository userRepository;
+
+    public EngagementCounterListener(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    @Transactional
+    public void onEvents(List<EngagementEvent> events) {
+        Map<Long, long[]> deltas = new TreeMap<>();
+        for (EngagementEvent event : events) {
+            if (event instanceof EngagementEvent.PostLiked e) {
+                add(deltas, e.userId(), LIKED, 1);
+            } else if (event instanceof EngagementEvent.PostUnliked e) {
+                add(deltas, e.userId(), LIKED, -1);
+            } else if (event instanceof EngagementEvent.PostFavorited e) {
+                add(deltas, e.userId(), FAVORITED, 1);
+            } else if (event instanceof EngagementEvent.PostUnfavorited e) {
+                add(deltas, e.userId(), FAVORITED, -1);
+            } else if (event instanceof EngagementEvent.UserFollowed e) {
+                add(deltas, e.followerId(), FOLLOWING, 1);
+                add(deltas, e.followingId(), FOLLOWERS, 1);
+            } else if (event instanceof EngagementEvent.UserUnfollowed e) {
+                add(deltas, e.followerId(), FOLLOWING, -1);
+                add(deltas, e.followingId(), FOLLOWERS, -1);
+            } else if (event instanceof EngagementEvent.PostDeleted e) {
+                // 点赞 / 收藏记录随文章一起删除，每个用户对同一文章最多一条
+                e.likerIds().forEach(userId -> add(deltas, userId, LIKED, -1));
+                e.favoriterIds().forEach(userId -> add(deltas, userId, FAVORITED, -1));
+            }
+        }
+
+        deltas.forEach((userId, delta) -> {
+            if (delta[LIKED] != 0 || delta[FAVORITED] != 0 || delta[FOLLOWERS] != 0 || delta[FOLLOWING] != 0) {
+                userRepository.incrementCounts(userId, delta[LIKED], delta[FAVORITED], delta[FOLLOWERS], delta[FOLLOWING]);
+            }
+        });
+    }
+
+    private static void add(Map<Long, long[]> deltas, long userId, int counter, long amount) {
+        deltas.computeIfAbsent(userId, id -> new long[4])[counter] += amount;
+    }
+}
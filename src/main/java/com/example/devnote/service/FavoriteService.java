@@ -3,27 +3,33 @@ package com.example.devnote.service;
 import com.example.devnote.entity.Favorite;
 import com.example.devnote.entity.Post;
 import com.example.devnote.entity.User;
+import com.example.devnote.event.EngagementEvent;
 import com.example.devnote.repository.FavoriteRepository;
 import com.example.devnote.repository.PostRepository;
 import com.example.devnote.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(value = "devnote.service", histogram = true)
 public class FavoriteService {
 
     private final FavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // 构造函数注入依赖（推荐方式，保证依赖不可变、线程安全）
-    public FavoriteService(FavoriteRepository favoriteRepository, UserRepository userRepository, PostRepository postRepository) {
+    public FavoriteService(FavoriteRepository favoriteRepository, UserRepository userRepository, PostRepository postRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.favoriteRepository = favoriteRepository;
         this.userRepository = userRepository;
         this.postRepository = postRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -48,9 +54,11 @@ public class FavoriteService {
         if (existingFavorite.isPresent()) {
             // 如果已收藏 → 删除收藏记录（取消收藏）
             favoriteRepository.delete(existingFavorite.get());
+            eventPublisher.publishEvent(new EngagementEvent.PostUnfavorited(user.getId(), postId));
         } else {
             // 如果未收藏 → 新建收藏记录并保存
             favoriteRepository.save(new Favorite(user, post));
+            eventPublisher.publishEvent(new EngagementEvent.PostFavorited(user.getId(), postId));
         }
     }
 
@@ -59,6 +67,7 @@ public class FavoriteService {
      * @param postId 文章ID
      * @return 收藏数
      */
+    @Transactional(readOnly = true)
     public long countFavorites(Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("文章不存在"));
@@ -71,6 +80,7 @@ public class FavoriteService {
      * @param postId 文章ID
      * @return true 表示已收藏，false 表示未收藏
      */
+    @Transactional(readOnly = true)
     public boolean isFavoritedByUser(String username, Long postId) {
         User user = userRepository.findByUsername(username);
         Post post = postRepository.findById(postId)
@@ -80,13 +90,12 @@ public class FavoriteService {
     }
 
     /**
-     * 获取某个用户收藏的所有文章（用于 我的收藏 页面）
-     * @param username 用户名
-     * @return 用户收藏的 Favorite 列表
+     * 按 favorite 表重算所有用户的收藏文章数
+     * 绕过 toggleFavorite 直接写 favorite 表（如批量导入测试数据）之后调用。
      */
-    public List<Favorite> getUserFavorites(String username) {
-        User user = userRepository.findByUsername(username);
-        return favoriteRepository.findByUser(user);
+    @Transactional
+    public int recalculateFavoritedPostsCounts() {
+        return userRepository.recalculateFavoritedPostsCounts();
     }
 
 }
@@ -0,0 +1,75 @@
+package com.example.devnote.service;
+
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * FeedService
+ *
+ * 负责首页文章流的组装：
+ *  - 未登录：只看 PUBLIC 文章
+ *  - 已登录：自己的全部文章 + PUBLIC 文章 + 关注的人的 FOLLOWERS 文章
+ */
+@Service
+@Timed(value = "devnote.service", histogram = true)
+public class FeedService {
+
+    private final PostRepository postRepository;
+    private final FollowService followService;
+
+    public FeedService(PostRepository postRepository, FollowService followService) {
+        this.postRepository = postRepository;
+        this.followService = followService;
+    }
+
+    /**
+     * 匿名用户可见的文章流
+     */
+    public List<Post> getPublicFeed() {
+        return postRepository.findByVisibilityOrderByCreatedAtDesc("PUBLIC");
+    }
+
+    /**
+     * 登录用户可见的文章流
+     */
+    public List<Post> getVisibleFeed(User currentUser) {
+        //拿到当前登录用户发布的所有文章（包括PUBLIC、FOLLOWERS和PRIVATE）
+        List<Post> ownPosts = postRepository.findByAuthorOrderByCreatedAtDesc(currentUser);
+
+        //拿到公开文章
+        List<Post> publicPosts = postRepository.findByVisibilityOrderByCreatedAtDesc("PUBLIC");
+
+        //拿到当前登录用户关注的人的发布的"粉丝可见"的文章
+        //关注列表来自内存关注索引，按作者 ID 一次查询，不再逐个关注用户查询
+        List<Long> followingIds = followService.getFollowingIds(currentUser.getId());
+        List<Post> followerVisiblePosts = followingIds.isEmpty()
+                ? List.of()
+                : postRepository.findByAuthorIdInAndVisibilityOrderByCreatedAtDesc(followingIds, "FOLLOWERS");
+
+        return mergeVisiblePosts(ownPosts, publicPosts, followerVisiblePosts);
+    }
+
+    /**
+     * 合并：自己的文章 + 公开文章 + 关注用户的粉丝可见文章
+     * 去重后按创建时间倒序排列（最新的文章在前面）
+     */
+    public List<Post> mergeVisiblePosts(List<Post> ownPosts, List<Post> publicPosts, List<Post> followerVisiblePosts) {
+        List<Post> visiblePosts = new ArrayList<>(ownPosts.size() + publicPosts.size() + followerVisiblePosts.size());
+        visiblePosts.addAll(ownPosts);
+        visiblePosts.addAll(publicPosts);
+        visiblePosts.addAll(followerVisiblePosts);
+
+        // 去重（防止同一篇文章多次出现）
+        return visiblePosts.stream()
+                .distinct()
+                .sorted(Comparator.comparing(Post::getCreatedAt).reversed())
+                .toList();
+    }
+}
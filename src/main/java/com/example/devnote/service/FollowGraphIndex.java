@@ -0,0 +1,47 @@
+package com.example.devnote.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 关注关系的内存索引
+ *
+ * 每个用户关注的人保存为一个压缩位图（用户 ID），判断“是否关注”只需一次位图查找，
+ * 不再需要按用户名查用户、再加载 Follow 实体；位图之间还可以直接求交集（如“你关注的人里谁点了赞”）。
+ *
+ * 加载、增量更新与一致性校验见 BitmapMembershipIndex。
+ */
+@Component
+public class FollowGraphIndex extends BitmapMembershipIndex {
+
+    public FollowGraphIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        super(jdbcTemplate, meterRegistry, "follow", "SELECT follower_id, following_id FROM follows");
+    }
+
+    /**
+     * followerId 是否关注了 followingId
+     */
+    public boolean isFollowing(long followerId, long followingId) {
+        return contains(followerId, followingId);
+    }
+
+    /**
+     * 某用户关注的所有用户 ID（升序）
+     */
+    public long[] getFolloweeIds(long followerId) {
+        return toLongArray(members(followerId));
+    }
+
+    /**
+     * 某用户关注的人组成的位图（只读）
+     */
+    public RoaringBitmap getFollowees(long followerId) {
+        return members(followerId);
+    }
+
+    public int countFollowees(long followerId) {
+        return cardinality(followerId);
+    }
+}
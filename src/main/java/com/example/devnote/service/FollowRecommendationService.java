@@ -0,0 +1,281 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.CacheMetrics;
+import com.example.devnote.config.RecommendationProperties;
+import com.example.devnote.dto.FollowRecommendationDto;
+import com.example.devnote.entity.User;
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.event.EngagementEventListener;
+import com.example.devnote.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 关注推荐（“你关注的人也关注了”）
+ *
+ * 在内存关注索引（FollowGraphIndex）上做两跳遍历：取当前用户关注的人，再取他们各自关注的人，
+ * 按“被几个我关注的人关注”计数，排除自己和已关注的人后取计数最高的若干个。
+ *
+ *  - 候选人按 ID 区间拆成子任务，在专用的 ForkJoinPool 上并行计数：每个区间用一个 int 数组计数，
+ *    区间互不重叠，子任务只返回各自的前若干名，合并时不需要合并计数表
+ *  - 扇出有上限：第一跳超过 maxFollowees 时均匀抽样，第二跳每人最多计入 maxPerFollowee 个
+ *  - 结果按用户缓存 cacheTtl；本人关注 / 取关后（收到事件时）立即失效，其他人的关注变化等缓存过期
+ *
+ * 关注索引尚未加载完成时返回空列表，不缓存。
+ */
+@Service
+public class FollowRecommendationService implements EngagementEventListener {
+
+    private static final String CACHE_NAME = "follow.recommendations";
+
+    // 计数区间的最小长度（候选人 ID 个数）：区间太短时，每个区间都要在所有位图里定位一次，定位开销超过计数本身
+    private static final long MIN_SPAN = 4096;
+
+    // 计数高的在前，计数相同时 ID 小（注册早）的在前
+    private static final Comparator<Recommendation> BY_MUTUAL = Comparator.comparingInt(Recommendation::mutualCount)
+            .reversed()
+            .thenComparingLong(Recommendation::userId);
+
+    /** 一条推荐：用户 ID 与共同关注数 */
+    public record Recommendation(long userId, int mutualCount) {
+    }
+
+    private record Cached(List<Recommendation> recommendations, long expiresAt) {
+    }
+
+    private final FollowGraphIndex followGraph;
+    private final UserRepository userRepository;
+    private final AvatarService avatarService;
+    private final CacheMetrics cacheMetrics;
+    private final RecommendationProperties properties;
+    private final ForkJoinPool pool;
+    private final Timer computeTimer;
+
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+
+    public FollowRecommendationService(FollowGraphIndex followGraph, UserRepository userRepository,
+                                       AvatarService avatarService, CacheMetrics cacheMetrics,
+                                       RecommendationProperties properties, MeterRegistry registry) {
+        this.followGraph = followGraph;
+        this.userRepository = userRepository;
+        this.avatarService = avatarService;
+        this.cacheMetrics = cacheMetrics;
+        this.properties = properties;
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+        this.computeTimer = Timer.builder("devnote.recommendations.compute")
+                .description("一次关注推荐计算（两跳遍历）的耗时")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 推荐给 userId 的至多 limit 个用户（按共同关注数降序）
+     */
+    public List<Recommendation> recommend(long userId, int limit) {
+        int size = Math.min(Math.max(limit, 0), properties.getMaxResults());
+        if (size == 0 || !followGraph.isLoaded()) {
+            return List.of();
+        }
+        Cached cached = cache.get(userId);
+        boolean hit = cached != null && cached.expiresAt() > System.nanoTime();
+        cacheMetrics.record(CACHE_NAME, hit);
+        if (!hit) {
+            List<Recommendation> computed = computeTimer.record(() -> compute(userId));
+            cached = new Cached(computed, System.nanoTime() + properties.getCacheTtl().toNanos());
+            if (cache.size() >= properties.getMaxCachedUsers()) {
+                cache.clear();
+            }
+            cache.put(userId, cached);
+        }
+        List<Recommendation> recommendations = cached.recommendations();
+        return recommendations.subList(0, Math.min(size, recommendations.size()));
+    }
+
+    /**
+     * 推荐用户的展示信息（一次按主键批量加载，保持推荐顺序）
+     */
+    public List<FollowRecommendationDto> recommendUsers(long userId, int limit) {
+        List<Recommendation> recommendations = recommend(userId, limit);
+        if (recommendations.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = userRepository.findAllById(recommendations.stream().map(Recommendation::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<FollowRecommendationDto> result = new ArrayList<>(recommendations.size());
+        for (Recommendation recommendation : recommendations) {
+            User user = users.get(recommendation.userId());
+            if (user != null) {
+                result.add(new FollowRecommendationDto(user.getId(), user.getUsername(),
+                        avatarService.url(user.getAvatar(), "small"), recommendation.mutualCount()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onEvents(List<EngagementEvent> events) {
+        // 只删除缓存，重复投递无副作用
+        for (EngagementEvent event : events) {
+            if (event instanceof EngagementEvent.UserFollowed e) {
+                cache.remove(e.followerId());
+            } else if (event instanceof EngagementEvent.UserUnfollowed e) {
+                cache.remove(e.followerId());
+            }
+        }
+    }
+
+    private List<Recommendation> compute(long userId) {
+        RoaringBitmap followees = followGraph.getFollowees(userId);
+        if (followees.isEmpty()) {
+            return List.of();
+        }
+        int[] firstHop = sample(followees.toArray(), properties.getMaxFollowees());
+
+        // 第二跳：每个被关注者的关注位图，以及计入范围的上界（只计入 ID 最小的 maxPerFollowee 个）
+        RoaringBitmap[] secondHop = new RoaringBitmap[firstHop.length];
+        long[] upperBounds = new long[firstHop.length];
+        long maxUpper = 0;
+        int maxPerFollowee = properties.getMaxPerFollowee();
+        for (int i = 0; i < firstHop.length; i++) {
+            RoaringBitmap bitmap = followGraph.getFollowees(firstHop[i]);
+            secondHop[i] = bitmap;
+            if (!bitmap.isEmpty()) {
+                upperBounds[i] = (bitmap.getLongCardinality() > maxPerFollowee
+                        ? Integer.toUnsignedLong(bitmap.select(maxPerFollowee - 1))
+                        : bitmap.last() & 0xFFFFFFFFL) + 1;
+                maxUpper = Math.max(maxUpper, upperBounds[i]);
+            }
+        }
+        if (maxUpper == 0) {
+            return List.of();
+        }
+
+        // 按候选人 ID 区间拆分，每个区间用一个 int 数组计数，区间之间没有重叠，不需要合并计数表
+        long span = Math.max(MIN_SPAN, Long.highestOneBit(maxUpper / (pool.getParallelism() * 4L)) << 1);
+        int spans = (int) ((maxUpper + span - 1) / span);
+        SecondHop context = new SecondHop(userId, followees, secondHop, upperBounds, (int) span);
+        return List.copyOf(pool.invoke(new CountTask(context, 0, spans)));
+    }
+
+    /**
+     * 超过上限时按固定步长均匀抽取 limit 个（结果稳定，同一用户多次计算得到相同的样本）
+     */
+    static int[] sample(int[] ids, int limit) {
+        if (ids.length <= limit) {
+            return ids;
+        }
+        int[] sampled = new int[limit];
+        double step = (double) ids.length / limit;
+        for (int i = 0; i < limit; i++) {
+            sampled[i] = ids[(int) (i * step)];
+        }
+        return sampled;
+    }
+
+    /**
+     * 一次计算共享的只读数据
+     */
+    private record SecondHop(long userId, RoaringBitmap followees, RoaringBitmap[] bitmaps, long[] upperBounds,
+                             int span) {
+    }
+
+    /**
+     * 统计候选人 ID 落在第 [from, to) 个区间内的共同关注数，返回其中计数最高的 maxResults 个；区间较多时对半拆分
+     */
+    private final class CountTask extends RecursiveTask<List<Recommendation>> {
+        private final SecondHop context;
+        private final int from;
+        private final int to;
+
+        private CountTask(SecondHop context, int from, int to) {
+            this.context = context;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Recommendation> compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                CountTask left = new CountTask(context, from, middle);
+                left.fork();
+                List<Recommendation> right = new CountTask(context, middle, to).compute();
+                return top(left.join(), right);
+            }
+
+            long lo = (long) from * context.span();
+            long hi = lo + context.span();
+            int[] counts = new int[context.span()];
+            RoaringBitmap[] bitmaps = context.bitmaps();
+            for (int i = 0; i < bitmaps.length; i++) {
+                long upper = Math.min(hi, context.upperBounds()[i]);
+                if (upper <= lo) {
+                    continue;
+                }
+                PeekableIntIterator iterator = bitmaps[i].getIntIterator();
+                iterator.advanceIfNeeded((int) lo);
+                while (iterator.hasNext()) {
+                    long member = Integer.toUnsignedLong(iterator.peekNext());
+                    if (member >= upper) {
+                        break;
+                    }
+                    counts[(int) (member - lo)]++;
+                    iterator.next();
+                }
+            }
+
+            // 小顶堆保留计数最高的 maxResults 个，排除自己和已关注的人
+            int maxResults = properties.getMaxResults();
+            PriorityQueue<Recommendation> heap = new PriorityQueue<>(maxResults + 1, BY_MUTUAL.reversed());
+            for (int offset = 0; offset < counts.length; offset++) {
+                if (counts[offset] == 0) {
+                    continue;
+                }
+                long candidate = lo + offset;
+                if (candidate == context.userId() || context.followees().contains((int) candidate)) {
+                    continue;
+                }
+                heap.add(new Recommendation(candidate, counts[offset]));
+                if (heap.size() > maxResults) {
+                    heap.poll();
+                }
+            }
+            List<Recommendation> result = new ArrayList<>(heap);
+            result.sort(BY_MUTUAL);
+            return result;
+        }
+
+        private List<Recommendation> top(List<Recommendation> a, List<Recommendation> b) {
+            List<Recommendation> merged = new ArrayList<>(a.size() + b.size());
+            merged.addAll(a);
+            merged.addAll(b);
+            merged.sort(BY_MUTUAL);
+            return merged.size() > properties.getMaxResults()
+                    ? List.copyOf(merged.subList(0, properties.getMaxResults()))
+                    : merged;
+        }
+    }
+}
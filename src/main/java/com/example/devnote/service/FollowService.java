@@ -1,28 +1,62 @@
 package com.example.devnote.service;
 
-import com.example.devnote.entity.Follow;
+import com.example.devnote.config.CacheMetrics;
+import com.example.devnote.dto.BatchFollowResult;
 import com.example.devnote.entity.User;
+import com.example.devnote.event.EngagementEvent;
 import com.example.devnote.repository.FollowRepository;
 import com.example.devnote.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "devnote.service", histogram = true)
 @Transactional  //告诉Spring这个方法里的所有数据库操作要么全部成功，要么全部回滚
 public class FollowService {
 
+    private static final String FOLLOW_GRAPH_CACHE = "follow-graph";
+
+    // 批量操作时每条 IN 查询 / 每个 JDBC 批次的大小
+    private static final int BATCH_SIZE = 1000;
+
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
+    private final FollowGraphIndex followGraphIndex;
+    private final CacheMetrics cacheMetrics;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdGenerator idGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
 
-    public FollowService(FollowRepository followRepository, UserRepository userRepository) {
+    public FollowService(FollowRepository followRepository, UserRepository userRepository,
+                         FollowGraphIndex followGraphIndex, CacheMetrics cacheMetrics, JdbcTemplate jdbcTemplate,
+                         IdGenerator idGenerator, ApplicationEventPublisher eventPublisher) {
         this.followRepository = followRepository;
         this.userRepository = userRepository;
+        this.followGraphIndex = followGraphIndex;
+        this.cacheMetrics = cacheMetrics;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -33,22 +67,32 @@ public class FollowService {
             throw new RuntimeException("不能关注自己");
         }
 
-        User follower = userRepository.findByUsername(followerUsername);
-        User following = userRepository.findByUsername(followingUsername);
-
-
-        if (follower ==  null || following == null){
-            throw new RuntimeException("用户不存在");
-        }
-
-        // 检查是否已关注
-        if (followRepository.findByFollowerAndFollowing(follower, following).isPresent()) {
+        Long[] ids = resolveUserIds(followerUsername, followingUsername);
+        if (!follow(ids[0], ids[1])) {
             throw new RuntimeException("已经关注过该用户");
         }
+    }
 
-        System.out.println("FollowService: 正在保存关注关系：" + followerUsername + " -> " + followingUsername);
-        followRepository.save(new Follow(follower,following));
-        System.out.println("FollowRepository.save() 已执行");
+    /**
+     * 关注用户（按用户 ID）
+     *
+     * 不先查询是否已关注，直接 INSERT IGNORE，由 (follower_id, following_id) 唯一键保证不重复；
+     * 只有真正插入了一行时才更新内存索引并发布 UserFollowed（双方计数由 EngagementCounterListener 异步增加），
+     * 重复请求不会把计数加错。
+     *
+     * @return true 表示新建了关注关系，false 表示原本就已关注
+     */
+    public boolean follow(Long followerId, Long followingId) {
+        if (followerId.equals(followingId)) {
+            throw new RuntimeException("不能关注自己");
+        }
+        if (followRepository.insertIgnore(idGenerator.nextId(), followerId, followingId) == 0) {
+            return false;
+        }
+        // 事务提交后再更新内存索引，避免回滚后索引里残留脏数据
+        followGraphIndex.addAfterCommit(followerId, followingId);
+        eventPublisher.publishEvent(new EngagementEvent.UserFollowed(followerId, followingId));
+        return true;
     }
 
     /**
@@ -59,34 +103,242 @@ public class FollowService {
             throw new RuntimeException("不能取消关注自己");
         }
 
-        User follower = userRepository.findByUsername(followerUsername);
-        User following = userRepository.findByUsername(followingUsername);
+        Long[] ids = resolveUserIds(followerUsername, followingUsername);
+        unfollow(ids[0], ids[1]);
+    }
 
+    /**
+     * 取消关注（按用户 ID）
+     * 一条 DELETE 语句完成，删除了行才更新内存索引并发布 UserUnfollowed。
+     *
+     * @return true 表示删除了关注关系，false 表示原本就未关注
+     */
+    public boolean unfollow(Long followerId, Long followingId) {
+        if (followerId.equals(followingId)) {
+            throw new RuntimeException("不能取消关注自己");
+        }
+        if (followRepository.deleteByIds(followerId, followingId) == 0) {
+            return false;
+        }
+        followGraphIndex.removeAfterCommit(followerId, followingId);
+        eventPublisher.publishEvent(new EngagementEvent.UserUnfollowed(followerId, followingId));
+        return true;
+    }
+
+    /**
+     * 批量关注
+     *
+     * 目标用户名与 ID 各用一次 IN 查询解析（超过 BATCH_SIZE 时分批），已关注的关系一次查出，
+     * 其余通过 JDBC 批量 INSERT IGNORE 写入（MySQL 连接开启 rewriteBatchedStatements 后会合并成多值 INSERT）。
+     * 与单个关注一样，只对真正插入的关系更新内存索引并发布 UserFollowed，计数由 EngagementCounterListener 维护。
+     *
+     * @param followerId 关注者 ID
+     * @param usernames  目标用户名（可为空）
+     * @param userIds    目标用户 ID（可为空）
+     * @return 每个目标的处理结果，顺序与传入一致（先用户名，后用户 ID）
+     */
+    public BatchFollowResult followAll(Long followerId, Collection<String> usernames, Collection<Long> userIds) {
+        List<Object[]> targets = resolveTargets(usernames, userIds);
+        List<Long> candidates = distinctTargetIds(targets, followerId);
+        Set<Long> existing = findFollowingIdsIn(followerId, candidates);
 
-        System.out.println("FollowService: 正在取消关注关系：" + followerUsername + " -> " + followingUsername);
+        List<Long> toInsert = candidates.stream().filter(id -> !existing.contains(id)).toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] ids = idGenerator.nextIds(toInsert.size());
+        List<long[]> rows = new ArrayList<>(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            rows.add(new long[]{ids[i], toInsert.get(i)});
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT IGNORE INTO follows (id, follower_id, following_id, created_at) VALUES (?, ?, ?, ?)",
+                rows, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, row[0]);
+                    ps.setLong(2, followerId);
+                    ps.setLong(3, row[1]);
+                    ps.setTimestamp(4, now);
+                });
+        List<Long> inserted = insertedFollowingIds(rows, counts);
 
-        if (follower == null || following == null) {
-            throw new RuntimeException("用户不存在");
+        followGraphIndex.addAllAfterCommit(followerId, inserted);
+        inserted.forEach(id -> eventPublisher.publishEvent(new EngagementEvent.UserFollowed(followerId, id)));
+
+        return buildResult(targets, followerId, new HashSet<>(inserted),
+                BatchFollowResult.Outcome.FOLLOWED, BatchFollowResult.Outcome.ALREADY_FOLLOWING);
+    }
+
+    /**
+     * 批量取消关注
+     * 先用 SELECT ... FOR UPDATE 锁住已关注的关系，再按 BATCH_SIZE 分批用 DELETE ... IN 删除：
+     * 锁住的行不会被并发请求删掉，所以删除的正是锁到的这些关系，逐条发布 UserUnfollowed。
+     */
+    public BatchFollowResult unfollowAll(Long followerId, Collection<String> usernames, Collection<Long> userIds) {
+        List<Object[]> targets = resolveTargets(usernames, userIds);
+        List<Long> candidates = distinctTargetIds(targets, followerId);
+        List<Long> toDelete = new ArrayList<>();
+        for (List<Long> chunk : chunks(candidates)) {
+            toDelete.addAll(followRepository.lockFollowingIdsIn(followerId, chunk));
+        }
+
+        for (List<Long> chunk : chunks(toDelete)) {
+            followRepository.deleteByFollowerIdAndFollowingIdIn(followerId, chunk);
+        }
+        followGraphIndex.removeAllAfterCommit(followerId, toDelete);
+        toDelete.forEach(id -> eventPublisher.publishEvent(new EngagementEvent.UserUnfollowed(followerId, id)));
+
+        return buildResult(targets, followerId, new HashSet<>(toDelete),
+                BatchFollowResult.Outcome.UNFOLLOWED, BatchFollowResult.Outcome.NOT_FOLLOWING);
+    }
+
+    /**
+     * 按 batchUpdate 返回的逐行影响行数找出真正插入的关系（INSERT IGNORE 遇到已存在的关系时为 0）。
+     * 驱动把批次合并成多值 INSERT 后只返回 SUCCESS_NO_INFO，此时按本次生成的记录 ID 回查。
+     */
+    private List<Long> insertedFollowingIds(List<long[]> rows, int[][] counts) {
+        List<Long> inserted = new ArrayList<>(rows.size());
+        List<Long> unknownIds = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                long[] row = rows.get(index++);
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    unknownIds.add(row[0]);
+                } else if (count > 0) {
+                    inserted.add(row[1]);
+                }
+            }
+        }
+        for (List<Long> chunk : chunks(unknownIds)) {
+            inserted.addAll(followRepository.findFollowingIdsByIdIn(chunk));
         }
+        return inserted;
+    }
 
-        followRepository.deleteByFollowerAndFollowing(follower, following);
-        System.out.println("已执行 deleteByFollowerAndFollowing：" + followerUsername + " -> " + followingUsername);
+    /**
+     * 把用户名 / 用户 ID 解析为 [原始目标, 用户 ID 或 null]，保持传入顺序
+     */
+    private List<Object[]> resolveTargets(Collection<String> usernames, Collection<Long> userIds) {
+        Map<String, Long> idsByUsername = new HashMap<>();
+        for (List<String> chunk : chunks(List.copyOf(new LinkedHashSet<>(usernames)))) {
+            userRepository.findByUsernameIn(chunk).forEach(user -> idsByUsername.put(user.getUsername(), user.getId()));
+        }
+        Set<Long> existingIds = new HashSet<>();
+        for (List<Long> chunk : chunks(List.copyOf(new LinkedHashSet<>(userIds)))) {
+            existingIds.addAll(userRepository.findExistingIds(chunk));
+        }
+
+        List<Object[]> targets = new ArrayList<>(usernames.size() + userIds.size());
+        usernames.forEach(username -> targets.add(new Object[]{username, idsByUsername.get(username)}));
+        userIds.forEach(id -> targets.add(new Object[]{id, existingIds.contains(id) ? id : null}));
+        return targets;
+    }
 
+    private static List<Long> distinctTargetIds(List<Object[]> targets, Long followerId) {
+        return targets.stream()
+                .map(target -> (Long) target[1])
+                .filter(id -> id != null && !id.equals(followerId))
+                .distinct()
+                .toList();
+    }
+
+    private Set<Long> findFollowingIdsIn(Long followerId, List<Long> ids) {
+        Set<Long> result = new HashSet<>();
+        for (List<Long> chunk : chunks(ids)) {
+            result.addAll(followRepository.findFollowingIdsIn(followerId, chunk));
+        }
+        return result;
+    }
+
+    /**
+     * changed 中的目标记为 changedOutcome（同一用户重复出现时只有第一次算），其余记为 unchangedOutcome
+     */
+    private static BatchFollowResult buildResult(List<Object[]> targets, Long followerId, Set<Long> changed,
+                                                 BatchFollowResult.Outcome changedOutcome,
+                                                 BatchFollowResult.Outcome unchangedOutcome) {
+        BatchFollowResult result = new BatchFollowResult();
+        Set<Long> reported = new HashSet<>();
+        for (Object[] target : targets) {
+            Long id = (Long) target[1];
+            if (id == null) {
+                result.add(target[0], null, BatchFollowResult.Outcome.USER_NOT_FOUND);
+            } else if (id.equals(followerId)) {
+                result.add(target[0], id, BatchFollowResult.Outcome.SELF);
+            } else if (changed.contains(id) && reported.add(id)) {
+                result.add(target[0], id, changedOutcome);
+            } else {
+                result.add(target[0], id, unchangedOutcome);
+            }
+        }
+        return result;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + BATCH_SIZE)));
+        }
+        return chunks;
+    }
+
+    /**
+     * 一次查询把两个用户名解析成用户 ID：[关注者, 被关注者]
+     */
+    private Long[] resolveUserIds(String followerUsername, String followingUsername) {
+        Long[] ids = new Long[2];
+        for (UserRepository.IdAndUsername user : userRepository.findByUsernameIn(List.of(followerUsername, followingUsername))) {
+            if (user.getUsername().equals(followerUsername)) {
+                ids[0] = user.getId();
+            } else if (user.getUsername().equals(followingUsername)) {
+                ids[1] = user.getId();
+            }
+        }
+        if (ids[0] == null || ids[1] == null) {
+            throw new RuntimeException("用户不存在");
+        }
+        return ids;
     }
 
     /**
      * 判断是否已关注
      */
+    @Transactional(readOnly = true)
     public boolean isFollowing(String followerUsername, String followingUsername) {
         User follower = userRepository.findByUsername(followerUsername);
         User following = userRepository.findByUsername(followingUsername);
         if (follower == null || following == null) return false;
-        return followRepository.findByFollowerAndFollowing(follower, following).isPresent();
+        return isFollowing(follower.getId(), following.getId());
+    }
+
+    /**
+     * 判断是否已关注（按用户 ID）
+     * 优先查内存关注索引；索引尚未加载完成时回退到数据库。
+     */
+    @Transactional(readOnly = true)
+    public boolean isFollowing(Long followerId, Long followingId) {
+        boolean indexed = followGraphIndex.isLoaded();
+        cacheMetrics.record(FOLLOW_GRAPH_CACHE, indexed);
+        if (indexed) {
+            return followGraphIndex.isFollowing(followerId, followingId);
+        }
+        return followRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
+    }
+
+    /**
+     * 获取某用户关注的所有用户 ID
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getFollowingIds(Long userId) {
+        boolean indexed = followGraphIndex.isLoaded();
+        cacheMetrics.record(FOLLOW_GRAPH_CACHE, indexed);
+        if (indexed) {
+            return Arrays.stream(followGraphIndex.getFolloweeIds(userId)).boxed().toList();
+        }
+        return followRepository.findFollowingIds(userId);
     }
 
     /**
      * 获取粉丝列表
      */
+    @Transactional(readOnly = true)
     public List<User> getFollowers(String username) {
         User user = userRepository.findByUsername(username);
         return followRepository.findByFollowing(user).stream()
@@ -97,6 +349,7 @@ public class FollowService {
     /**
      * 获取关注列表
      */
+    @Transactional(readOnly = true)
     public List<User> getFollowing(String username) {
         User user = userRepository.findByUsername(username);
         return followRepository.findByFollower(user)
@@ -116,6 +369,7 @@ public class FollowService {
     /**
      *获取粉丝列表分页版
      */
+    @Transactional(readOnly = true)
     public Page<User> getFollowersPage(String targetUsername, User currentUser, Pageable pageable) {
         User targetUser = userRepository.findByUsername(targetUsername);
         if (targetUser == null) throw new RuntimeException("用户不存在");
@@ -129,6 +383,7 @@ public class FollowService {
     /**
      *获取关注列表分页版
      */
+    @Transactional(readOnly = true)
     public Page<User> getFollowingPage(String targetUsername, User currentUser, Pageable pageable) {
         User targetUser = userRepository.findByUsername(targetUsername);
         if (targetUser == null) throw new RuntimeException("用户不存在");
@@ -141,18 +396,28 @@ public class FollowService {
     }
 
     /**
-     * 获取粉丝个数
+     * 获取粉丝个数（读取 users 表上的冗余计数）
      */
+    @Transactional(readOnly = true)
     public long countFollowers(String username) {
         User user = userRepository.findByUsername(username);
-        return followRepository.countByFollowing(user);
+        return user == null ? 0 : user.getFollowersCount();
     }
 
     /**
-     * 获取关注个数
+     * 获取关注个数（读取 users 表上的冗余计数）
      */
+    @Transactional(readOnly = true)
     public long countFollowing(String username) {
         User user = userRepository.findByUsername(username);
-        return followRepository.countByFollower(user);
+        return user == null ? 0 : user.getFollowingCount();
+    }
+
+    /**
+     * 按 follows 表重算所有用户的粉丝数 / 关注数
+     * 绕过 follow/unfollow 直接写 follows 表（如批量导入测试数据）之后调用。
+     */
+    public int recalculateFollowCounts() {
+        return userRepository.recalculateFollowCounts();
     }
 }
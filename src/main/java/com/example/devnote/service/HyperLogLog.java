@@ -0,0 +1,114 @@
+package com.example.devnote.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog 基数估计（估算一篇文章的独立访客数）
+ *
+ * 2^11 = 2048 个寄存器，每个 1 字节，标准误差约 1.04 / sqrt(2048) ≈ 2.3%；两个草图按寄存器取最大值即可合并，
+ * 所以内存中的增量草图可以直接并入数据库里保存的草图，不需要保存访客列表。
+ *
+ * offer 先无锁比较，寄存器不需要变大时（同一访客重复访问的常见情况）直接返回，只有真正更新时才加锁。
+ */
+public final class HyperLogLog {
+
+    static final int PRECISION = 11;
+    static final int REGISTERS = 1 << PRECISION;
+
+    // 偏差修正常数 alpha_m（m >= 128）
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * 从 toBytes 的结果还原；长度不对（如精度调整过）时视为空草图
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != REGISTERS) {
+            return new HyperLogLog();
+        }
+        return new HyperLogLog(bytes.clone());
+    }
+
+    /**
+     * 记录一个元素（按字符串的 64 位哈希）
+     */
+    public void offer(String value) {
+        offerHash(hash(value));
+    }
+
+    void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // 剩余位中第一个 1 的位置（1 起）；剩余位全 0 时取最大值
+        byte rank = (byte) Math.min(Long.numberOfLeadingZeros(hash << PRECISION) + 1, 64 - PRECISION + 1);
+        if (registers[index] >= rank) {
+            return;
+        }
+        synchronized (this) {
+            if (registers[index] < rank) {
+                registers[index] = rank;
+            }
+        }
+    }
+
+    /**
+     * 并入另一个草图（按寄存器取最大值）
+     */
+    public synchronized void merge(HyperLogLog other) {
+        byte[] source = other.toBytes();
+        for (int i = 0; i < REGISTERS; i++) {
+            if (source[i] > registers[i]) {
+                registers[i] = source[i];
+            }
+        }
+    }
+
+    /**
+     * 估算的基数
+     */
+    public synchronized long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // 小基数时改用线性计数，误差更小
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public synchronized byte[] toBytes() {
+        return registers.clone();
+    }
+
+    /**
+     * 64 位 FNV-1a 再做一次 murmur3 fmix64 混合，保证高位分布均匀（寄存器下标取自高位）
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
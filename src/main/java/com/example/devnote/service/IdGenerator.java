@@ -0,0 +1,23 @@
+package com.example.devnote.service;
+
+/**
+ * 主键生成器
+ *
+ * 在应用内本地生成 ID，不需要访问数据库，插入前即可拿到主键。
+ * 默认实现为 SnowflakeIdGenerator（按时间递增）。
+ */
+public interface IdGenerator {
+
+    long nextId();
+
+    /**
+     * 一次生成 count 个 ID（批量写入时使用）
+     */
+    default long[] nextIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = nextId();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.devnote.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 点赞关系的内存索引
+ *
+ * 每篇文章的点赞用户保存为一个压缩位图（用户 ID）：
+ *  - “某用户是否点赞了某文章”、点赞数：一次位图查找
+ *  - 一页文章的点赞状态：逐篇查位图，不再逐篇查数据库
+ *  - “你关注的人里有几个点了赞”：点赞位图与关注位图求交集
+ *
+ * 加载、增量更新与一致性校验见 BitmapMembershipIndex。
+ */
+@Component
+public class LikeMembershipIndex extends BitmapMembershipIndex {
+
+    public LikeMembershipIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        super(jdbcTemplate, meterRegistry, "like", "SELECT post_id, user_id FROM post_likes");
+    }
+
+    public boolean isLiked(long userId, long postId) {
+        return contains(postId, userId);
+    }
+
+    public int countLikes(long postId) {
+        return cardinality(postId);
+    }
+
+    /**
+     * 一组文章中被该用户点赞过的文章 ID
+     */
+    public Set<Long> findLikedPostIds(long userId, Collection<Long> postIds) {
+        return keysContaining(postIds, userId);
+    }
+
+    /**
+     * 某文章的点赞用户位图（只读）
+     */
+    public RoaringBitmap getLikers(long postId) {
+        return members(postId);
+    }
+
+    /**
+     * 某文章的点赞用户中，有多少在给定的用户集合里（如当前用户关注的人）
+     */
+    public int countLikesAmong(long postId, RoaringBitmap users) {
+        return RoaringBitmap.andCardinality(members(postId), users);
+    }
+}
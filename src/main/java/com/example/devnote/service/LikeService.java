@@ -1,28 +1,55 @@
 package com.example.devnote.service;
 
 
+import com.example.devnote.config.CacheMetrics;
+import com.example.devnote.dto.LikeStatusDto;
 import com.example.devnote.entity.Like;
 import com.example.devnote.entity.Post;
 import com.example.devnote.entity.User;
+import com.example.devnote.event.EngagementEvent;
 import com.example.devnote.repository.LikeRepository;
 import com.example.devnote.repository.PostRepository;
 import com.example.devnote.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(value = "devnote.service", histogram = true)
 public class LikeService {
 
+    private static final String LIKE_INDEX_CACHE = "like-index";
+
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final LikeMembershipIndex likeIndex;
+    private final FollowGraphIndex followGraphIndex;
+    private final CacheMetrics cacheMetrics;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public LikeService(LikeRepository likeRepository, PostRepository postRepository, UserRepository userRepository) {
+    public LikeService(LikeRepository likeRepository, PostRepository postRepository, UserRepository userRepository,
+                       LikeMembershipIndex likeIndex, FollowGraphIndex followGraphIndex, CacheMetrics cacheMetrics,
+                       ApplicationEventPublisher eventPublisher) {
         this.likeRepository = likeRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
+        this.likeIndex = likeIndex;
+        this.followGraphIndex = followGraphIndex;
+        this.cacheMetrics = cacheMetrics;
+        this.eventPublisher = eventPublisher;
     }
 
     //
@@ -44,16 +71,24 @@ public class LikeService {
         if (existingLike.isPresent()) {
             //点过则删除点赞记录（取消点赞）
             likeRepository.delete(existingLike.get());
+            likeIndex.removeAfterCommit(postId, user.getId());
+            eventPublisher.publishEvent(new EngagementEvent.PostUnliked(user.getId(), postId));
         } else {
             //没点过则新建一个点赞记录（点赞）
             likeRepository.save(new Like(user, post));
+            likeIndex.addAfterCommit(postId, user.getId());
+            eventPublisher.publishEvent(new EngagementEvent.PostLiked(user.getId(), postId));
         }
     }
 
     /**
      * 获取文章点赞数
      */
+    @Transactional(readOnly = true)
     public long countLikes(Long postId) {
+        if (useIndex()) {
+            return likeIndex.countLikes(postId);
+        }
         Post post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("文章不存在"));
         return likeRepository.countByPost(post);
     }
@@ -61,9 +96,86 @@ public class LikeService {
     /**
      * 判断用户是否已点赞
      */
+    @Transactional(readOnly = true)
     public boolean isLikedByUser(String username, Long postId) {
         User user = userRepository.findByUsername(username);
+        if (useIndex()) {
+            return user != null && likeIndex.isLiked(user.getId(), postId);
+        }
         Post post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("文章不存在"));
         return likeRepository.findByUserAndPost(user, post).isPresent();
     }
+
+    /**
+     * 批量获取一页文章的点赞状态
+     * 索引已加载时全部在内存中完成（“关注的人点赞数”为点赞位图与关注位图的交集）；
+     * 否则回退到数据库，点赞状态、点赞数与关注的人点赞数各一次查询。
+     * 关注索引尚未加载时，关注的人点赞数同样用一次分组查询得到。
+     *
+     * @param username 当前登录用户名，未登录为 null
+     * @return 与 postIds 顺序一致
+     */
+    @Transactional(readOnly = true)
+    public List<LikeStatusDto> getLikeStatuses(String username, Collection<Long> postIds) {
+        User user = username != null ? userRepository.findByUsername(username) : null;
+        List<LikeStatusDto> statuses = new ArrayList<>(postIds.size());
+        if (postIds.isEmpty()) {
+            return statuses;
+        }
+
+        if (useIndex()) {
+            Set<Long> liked = user != null ? likeIndex.findLikedPostIds(user.getId(), postIds) : Set.of();
+            RoaringBitmap followees = user != null && followGraphIndex.isLoaded()
+                    ? followGraphIndex.getFollowees(user.getId())
+                    : null;
+            Map<Long, Long> followingLikes = user != null && followees == null
+                    ? countLikedByFollowing(postIds, user.getId())
+                    : Map.of();
+            for (Long postId : postIds) {
+                long following = followees != null ? likeIndex.countLikesAmong(postId, followees)
+                        : followingLikes.getOrDefault(postId, 0L);
+                statuses.add(new LikeStatusDto(postId, liked.contains(postId), likeIndex.countLikes(postId), following));
+            }
+            return statuses;
+        }
+
+        Set<Long> liked = user != null ? new HashSet<>(likeRepository.findLikedPostIds(user.getId(), postIds)) : Set.of();
+        Map<Long, Long> counts = toCounts(likeRepository.countByPostIds(postIds));
+        Map<Long, Long> followingLikes = user != null ? countLikedByFollowing(postIds, user.getId()) : Map.of();
+        for (Long postId : postIds) {
+            statuses.add(new LikeStatusDto(postId, liked.contains(postId), counts.getOrDefault(postId, 0L),
+                    followingLikes.getOrDefault(postId, 0L)));
+        }
+        return statuses;
+    }
+
+    /**
+     * 按 post_likes 表重算所有用户的点赞文章数
+     * 绕过 toggleLike 直接写 post_likes 表（如批量导入测试数据）之后调用。
+     */
+    @Transactional
+    public int recalculateLikedPostsCounts() {
+        return userRepository.recalculateLikedPostsCounts();
+    }
+
+    private Map<Long, Long> countLikedByFollowing(Collection<Long> postIds, Long userId) {
+        return toCounts(likeRepository.countByPostIdsLikedByFollowing(postIds, userId));
+    }
+
+    /**
+     * [postId, count] 行 → postId 到 count 的映射
+     */
+    private static Map<Long, Long> toCounts(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private boolean useIndex() {
+        boolean indexed = likeIndex.isLoaded();
+        cacheMetrics.record(LIKE_INDEX_CACHE, indexed);
+        return indexed;
+    }
 }
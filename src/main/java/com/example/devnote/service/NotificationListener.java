@@ -0,0 +1,133 @@
+package com.example.devnote.service;
+
+import com.example.devnote.entity.Notification;
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.event.EngagementEventListener;
+import com.example.devnote.repository.CommentRepository;
+import com.example.devnote.repository.NotificationRepository;
+import com.example.devnote.repository.PostRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 把互动事件写成收件人的通知（写扩散）
+ *
+ * 关注、点赞、评论文章、回复评论分别通知被关注者、文章作者、被回复的评论作者；自己对自己的操作不通知，
+ * 取消点赞 / 取消关注不撤回已发出的通知。
+ * 一批事件先批量查出收件人，再按 (收件人, 类型, 对象) 在内存里合并，每组一条 UPDATE 合并进已有的未读通知，
+ * 没有可合并的才插入新行。通知上的人数按人去重：同一批内用集合去重，跨批次时已有通知的最近操作者
+ * 再次操作不重复计人（更早的操作者隔了别人之后再来仍会多计一次，不为此逐条保存操作者）。
+ */
+@Component
+public class NotificationListener implements EngagementEventListener {
+
+    private final NotificationRepository notificationRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final NotificationService notificationService;
+
+    public NotificationListener(NotificationRepository notificationRepository, PostRepository postRepository,
+                                CommentRepository commentRepository, NotificationService notificationService) {
+        this.notificationRepository = notificationRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.notificationService = notificationService;
+    }
+
+    // 合并的维度
+    private record Key(long recipientId, Notification.Type type, long targetId) {
+    }
+
+    // 一组合并后的操作
+    private static final class Group {
+        private final Long postId;
+        private final Set<Long> actorIds = new LinkedHashSet<>();
+        private long lastActorId;
+
+        private Group(Long postId) {
+            this.postId = postId;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onEvents(List<EngagementEvent> events) {
+        Set<Long> postIds = new HashSet<>();
+        Set<Long> parentIds = new HashSet<>();
+        for (EngagementEvent event : events) {
+            if (event instanceof EngagementEvent.PostLiked e) {
+                postIds.add(e.postId());
+            } else if (event instanceof EngagementEvent.CommentAdded e) {
+                if (e.parentId() != null) {
+                    parentIds.add(e.parentId());
+                } else {
+                    postIds.add(e.postId());
+                }
+            }
+        }
+        Map<Long, Long> postAuthors = postIds.isEmpty() ? Map.of() : toMap(postRepository.findAuthorIds(postIds));
+        Map<Long, Long> commentAuthors = parentIds.isEmpty() ? Map.of() : toMap(commentRepository.findAuthorIds(parentIds));
+
+        Map<Key, Group> groups = new LinkedHashMap<>();
+        for (EngagementEvent event : events) {
+            if (event instanceof EngagementEvent.UserFollowed e) {
+                add(groups, e.followingId(), Notification.Type.FOLLOW, 0, null, e.followerId());
+            } else if (event instanceof EngagementEvent.PostLiked e) {
+                add(groups, postAuthors.get(e.postId()), Notification.Type.LIKE, e.postId(), e.postId(), e.userId());
+            } else if (event instanceof EngagementEvent.CommentAdded e) {
+                if (e.parentId() != null) {
+                    add(groups, commentAuthors.get(e.parentId()), Notification.Type.REPLY, e.parentId(), e.postId(),
+                            e.authorId());
+                } else {
+                    add(groups, postAuthors.get(e.postId()), Notification.Type.COMMENT, e.postId(), e.postId(),
+                            e.authorId());
+                }
+            }
+        }
+        if (groups.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> newUnread = new HashMap<>();
+        groups.forEach((key, group) -> {
+            int merged = notificationRepository.mergeUnread(key.recipientId(), key.type(), key.targetId(),
+                    group.actorIds.size(), group.actorIds, group.lastActorId, now);
+            if (merged == 0) {
+                notificationRepository.save(new Notification(key.recipientId(), key.type(), key.targetId(),
+                        group.postId, group.actorIds.size(), group.lastActorId, now));
+                newUnread.merge(key.recipientId(), 1, Integer::sum);
+            }
+        });
+        notificationService.addUnreadAfterCommit(newUnread);
+    }
+
+    private static void add(Map<Key, Group> groups, Long recipientId, Notification.Type type, long targetId,
+                            Long postId, long actorId) {
+        // 收件人不存在（文章 / 评论已删除）或是自己时不通知
+        if (recipientId == null || recipientId == actorId) {
+            return;
+        }
+        Group group = groups.computeIfAbsent(new Key(recipientId, type, targetId), key -> new Group(postId));
+        group.actorIds.add(actorId);
+        group.lastActorId = actorId;
+    }
+
+    private static Map<Long, Long> toMap(Collection<Object[]> rows) {
+        Map<Long, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.CacheMetrics;
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.dto.KeysetCursor;
+import com.example.devnote.dto.NotificationDto;
+import com.example.devnote.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 通知收件箱的读取与未读数
+ *
+ * 未读数（导航栏角标）保存在内存里：第一次访问时查一次数据库，之后由 NotificationListener 在写入提交后累加、
+ * 全部已读时归零，每次渲染页面不再查询。缓存的用户数超过上限时整体清空，之后按需重新加载。
+ * 未读数按“通知行”计算，合并进已有未读通知的操作不会增加未读数。
+ */
+@Service
+public class NotificationService {
+
+    private static final String CACHE_NAME = "notifications.unread";
+
+    private final NotificationRepository notificationRepository;
+    private final CacheMetrics cacheMetrics;
+    private final int maxCachedUsers;
+
+    private final Map<Long, Integer> unreadCounts = new ConcurrentHashMap<>();
+    // 有未提交的新未读通知的用户（值为进行中的事务数）：这些用户的未读数不从数据库加载进缓存
+    private final Map<Long, Integer> writing = new ConcurrentHashMap<>();
+    // 写入完成序号：查库前后序号不变（期间没有写入完成）时，查到的未读数才放进缓存，
+    // 否则查到的可能是提交前的值，而提交后的累加因为缓存里还没有该用户而被跳过
+    private final AtomicLong writeSeq = new AtomicLong();
+
+    public NotificationService(NotificationRepository notificationRepository, CacheMetrics cacheMetrics,
+                               @Value("${devnote.notifications.max-cached-users:100000}") int maxCachedUsers) {
+        this.notificationRepository = notificationRepository;
+        this.cacheMetrics = cacheMetrics;
+        this.maxCachedUsers = maxCachedUsers;
+    }
+
+    /**
+     * 未读通知数；已缓存时不查询数据库
+     */
+    public int unreadCount(Long userId) {
+        Integer cached = unreadCounts.get(userId);
+        cacheMetrics.record(CACHE_NAME, cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        long seq = writeSeq.get();
+        boolean fill = !writing.containsKey(userId);
+        int count = (int) notificationRepository.countUnread(userId);
+        if (!fill) {
+            return count;
+        }
+        if (unreadCounts.size() >= maxCachedUsers) {
+            unreadCounts.clear();
+        }
+        Integer current = unreadCounts.compute(userId, (id, old) -> old != null ? old
+                : !writing.containsKey(userId) && writeSeq.get() == seq ? count : null);
+        return current != null ? current : count;
+    }
+
+    /**
+     * 收件箱（游标分页，用法与点赞列表相同）
+     *
+     * 按 updated_at 排序：合并了新动态的通知会移到最前面。翻页期间某条还没翻到的通知被合并时，
+     * 它会越过游标，在这一轮往后翻页中不再出现，而是出现在第一页；已经看过的通知移到前面后也不会在后续页重复
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDto> findInbox(Long userId, KeysetCursor cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<NotificationDto> rows = cursor == null
+                ? notificationRepository.findInbox(userId, limit)
+                : notificationRepository.findInboxBefore(userId, cursor.time(), cursor.id(), limit);
+        return CursorPage.of(rows, size, null, NotificationDto::getCursor);
+    }
+
+    /**
+     * 全部标为已读，提交后未读数归零
+     */
+    @Transactional
+    public void markAllRead(Long userId) {
+        notificationRepository.markAllRead(userId);
+        afterCommit(() -> unreadCounts.put(userId, 0));
+    }
+
+    /**
+     * 新增未读通知后调用：提交后累加已缓存用户的未读数（未缓存的用户下次访问时从数据库加载）。
+     * 在事务内、提交前调用，事务结束前这些用户的未读数不会从数据库加载进缓存
+     */
+    public void addUnreadAfterCommit(Map<Long, Integer> newUnread) {
+        if (newUnread.isEmpty()) {
+            return;
+        }
+        newUnread.keySet().forEach(userId -> writing.merge(userId, 1, Integer::sum));
+        afterCompletion(committed -> {
+            try {
+                if (committed) {
+                    newUnread.forEach((userId, count) ->
+                            unreadCounts.computeIfPresent(userId, (id, current) -> current + count));
+                }
+                writeSeq.incrementAndGet();
+            } finally {
+                newUnread.keySet().forEach(userId ->
+                        writing.computeIfPresent(userId, (id, running) -> running > 1 ? running - 1 : null));
+            }
+        });
+    }
+
+    // 事务结束（提交或回滚）后执行，参数为是否已提交；没有事务时立即执行
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.devnote.service;
+
+import java.io.IOException;
+
+/**
+ * 上传文件的存储
+ *
+ * key 是以 / 分隔的相对路径（如 avatars/ab/abcd...-64.jpg），对外访问地址为 /uploads/{key}。
+ * 目前只有写本地目录的 LocalObjectStorage；换成对象存储时实现这个接口，并把 /uploads 指向对应的访问域名即可。
+ * 实现必须保证读取方看不到写了一半的对象。
+ */
+public interface ObjectStorage {
+
+    boolean exists(String key) throws IOException;
+
+    void put(String key, byte[] content) throws IOException;
+}
@@ -0,0 +1,345 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.SseProperties;
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.event.EngagementEventListener;
+import com.example.devnote.repository.CommentRepository;
+import com.example.devnote.repository.FavoriteRepository;
+import com.example.devnote.repository.LikeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 文章点赞 / 收藏 / 评论数的实时推送（SSE）
+ *
+ * 作为 EngagementEventListener 接收互动事件，只把有变化的文章记为“脏”；定时任务每隔 flushInterval
+ * 对有订阅者的脏文章批量查一次计数，序列化一次后推给该文章的所有连接，因此每篇文章的推送频率有上限，
+ * 且与点赞的频率无关。
+ *
+ * 连接使用 Servlet 异步请求，空闲时不占线程；写出由少量发送线程完成。每个连接只保留最新一条待发送的计数
+ * （新的覆盖旧的），一次发送迟迟不返回的连接视为慢消费者，直接摘除，不让它拖住其他连接。
+ */
+@Service
+public class PostCountStream implements EngagementEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PostCountStream.class);
+
+    /** 推送给客户端的计数 */
+    public record PostCounts(long postId, long likeCount, long favoriteCount, long commentCount) {
+    }
+
+    // 心跳占位（计数 JSON 不会是空串）：待发送内容为它时发送 SSE 注释行
+    private static final String HEARTBEAT = "";
+
+    private final LikeRepository likeRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final CommentRepository commentRepository;
+    private final ObjectMapper objectMapper;
+    private final SseProperties properties;
+    private final long slowConsumerNanos;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyPosts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ThreadPoolExecutor sender;
+
+    private final Counter pushed;
+    private final Counter shed;
+    private final Counter rejected;
+
+    public PostCountStream(LikeRepository likeRepository, FavoriteRepository favoriteRepository,
+                           CommentRepository commentRepository, ObjectMapper objectMapper,
+                           SseProperties properties, MeterRegistry registry) {
+        this.likeRepository = likeRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.commentRepository = commentRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.slowConsumerNanos = properties.getSlowConsumerTimeout().toNanos();
+        AtomicInteger threadCount = new AtomicInteger();
+        // 队列长度不超过连接数：每个连接同一时刻最多排一个发送任务
+        this.sender = new ThreadPoolExecutor(properties.getSendThreads(), properties.getSendThreads(),
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getMaxConnections()), runnable -> {
+            Thread thread = new Thread(runnable, "sse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("devnote.sse.connections", connections, AtomicInteger::get)
+                .description("当前的文章计数推送连接数")
+                .register(registry);
+        this.pushed = Counter.builder("devnote.sse.pushed")
+                .description("实际写出的计数推送条数")
+                .register(registry);
+        this.shed = Counter.builder("devnote.sse.shed")
+                .description("因发送过慢被断开的连接数")
+                .register(registry);
+        this.rejected = Counter.builder("devnote.sse.rejected")
+                .description("因连接数已满被拒绝的订阅数")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * 订阅一篇文章的计数，连接建立后立即推送一次当前值
+     *
+     * @throws IllegalStateException 连接数已满
+     */
+    public SseEmitter subscribe(long postId) {
+        if (connections.incrementAndGet() > properties.getMaxConnections()) {
+            connections.decrementAndGet();
+            rejected.increment();
+            throw new IllegalStateException("实时连接数已满");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(postId, emitter);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(e -> subscriber.detach());
+        subscribers.compute(postId, (id, set) -> {
+            Set<Subscriber> result = set != null ? set : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        try {
+            subscriber.offer(toJson(loadCounts(List.of(postId)).get(postId)));
+        } catch (RuntimeException e) {
+            subscriber.detach();
+            throw e;
+        }
+        return emitter;
+    }
+
+    /**
+     * 只记录哪些文章的计数变了；计数在 flush 时统一查询（重复投递时只是多标记一次）
+     */
+    @Override
+    public void onEvents(List<EngagementEvent> events) {
+        for (EngagementEvent event : events) {
+            if (event instanceof EngagementEvent.PostLiked e) {
+                markDirty(e.postId());
+            } else if (event instanceof EngagementEvent.PostUnliked e) {
+                markDirty(e.postId());
+            } else if (event instanceof EngagementEvent.PostFavorited e) {
+                markDirty(e.postId());
+            } else if (event instanceof EngagementEvent.PostUnfavorited e) {
+                markDirty(e.postId());
+            } else if (event instanceof EngagementEvent.CommentAdded e) {
+                markDirty(e.postId());
+            } else if (event instanceof EngagementEvent.CommentDeleted e) {
+                markDirty(e.postId());
+            } else if (event instanceof EngagementEvent.PostDeleted e) {
+                // 文章已删除：结束该文章的所有连接
+                Set<Subscriber> removed = subscribers.remove(e.postId());
+                if (removed != null) {
+                    removed.forEach(Subscriber::close);
+                }
+            }
+        }
+    }
+
+    private void markDirty(long postId) {
+        if (subscribers.containsKey(postId)) {
+            dirtyPosts.add(postId);
+        }
+    }
+
+    /**
+     * 批量查询脏文章的计数，每篇文章序列化一次后推给它的所有连接
+     */
+    @Scheduled(fixedDelayString = "${devnote.sse.flush-interval:PT0.5S}")
+    public void flush() {
+        if (dirtyPosts.isEmpty()) {
+            return;
+        }
+        List<Long> postIds = new ArrayList<>();
+        for (Long postId : dirtyPosts) {
+            dirtyPosts.remove(postId);
+            if (subscribers.containsKey(postId)) {
+                postIds.add(postId);
+            }
+        }
+        if (postIds.isEmpty()) {
+            return;
+        }
+        try {
+            loadCounts(postIds).forEach((postId, counts) -> {
+                Set<Subscriber> set = subscribers.get(postId);
+                if (set != null) {
+                    String json = toJson(counts);
+                    set.forEach(subscriber -> subscriber.offer(json));
+                }
+            });
+        } catch (RuntimeException e) {
+            // 查询失败时放回去，下一轮再推
+            dirtyPosts.addAll(postIds);
+            log.warn("查询文章计数失败，稍后重试: {}", e.toString());
+        }
+    }
+
+    /**
+     * 定期发送注释行：客户端不展示，但写失败能及时发现已断开的连接，也能防止代理因空闲断开
+     */
+    @Scheduled(fixedDelayString = "${devnote.sse.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::heartbeat));
+    }
+
+    /** 当前连接数 */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    Map<Long, PostCounts> loadCounts(Collection<Long> postIds) {
+        Map<Long, Long> likes = toMap(likeRepository.countByPostIds(postIds));
+        Map<Long, Long> favorites = toMap(favoriteRepository.countByPostIds(postIds));
+        Map<Long, Long> comments = toMap(commentRepository.countByPostIds(postIds));
+        Map<Long, PostCounts> result = new HashMap<>();
+        for (Long postId : postIds) {
+            result.put(postId, new PostCounts(postId, likes.getOrDefault(postId, 0L),
+                    favorites.getOrDefault(postId, 0L), comments.getOrDefault(postId, 0L)));
+        }
+        return result;
+    }
+
+    private static Map<Long, Long> toMap(List<Object[]> rows) {
+        Map<Long, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+
+    private String toJson(PostCounts counts) {
+        try {
+            return objectMapper.writeValueAsString(counts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 一个 SSE 连接：只保留最新一条待发送内容，同一时刻最多一个发送任务
+     */
+    private final class Subscriber {
+
+        private final long postId;
+        private final SseEmitter emitter;
+        private final AtomicReference<String> pending = new AtomicReference<>();
+        // 当前发送开始的时间（System.nanoTime），0 表示空闲
+        private final AtomicLong sendingSince = new AtomicLong();
+        private final AtomicBoolean detached = new AtomicBoolean();
+
+        private Subscriber(long postId, SseEmitter emitter) {
+            this.postId = postId;
+            this.emitter = emitter;
+        }
+
+        void offer(String data) {
+            pending.set(data);
+            schedule();
+        }
+
+        void heartbeat() {
+            // 有计数待发时不需要额外的心跳
+            if (pending.compareAndSet(null, HEARTBEAT)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (detached.get()) {
+                return;
+            }
+            long since = sendingSince.get();
+            if (since == 0) {
+                if (sendingSince.compareAndSet(0, Math.max(1, System.nanoTime()))) {
+                    try {
+                        sender.execute(this::drain);
+                    } catch (RejectedExecutionException e) {
+                        sendingSince.set(0);
+                        detach();
+                    }
+                }
+            } else if (System.nanoTime() - since > slowConsumerNanos) {
+                // 上一次发送卡住了：摘除连接，正在进行的发送返回后再结束它
+                shed.increment();
+                detach();
+            }
+        }
+
+        private void drain() {
+            try {
+                String data;
+                while (!detached.get() && (data = pending.getAndSet(null)) != null) {
+                    sendingSince.set(Math.max(1, System.nanoTime()));
+                    if (data.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().name("counts").data(data));
+                        pushed.increment();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开
+                detach();
+            } finally {
+                sendingSince.set(0);
+            }
+            if (detached.get()) {
+                emitter.complete();
+            } else if (pending.get() != null) {
+                // 发送期间到达的内容（offer 看到正在发送，没有另起任务）
+                schedule();
+            }
+        }
+
+        /** 摘除连接但不调用 complete（连接回调中调用，或发送线程可能仍被阻塞） */
+        void detach() {
+            if (detached.compareAndSet(false, true)) {
+                connections.decrementAndGet();
+                subscribers.computeIfPresent(postId, (id, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+
+        /** 摘除并结束连接 */
+        void close() {
+            detach();
+            if (sendingSince.get() == 0) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -1,20 +1,28 @@
 package com.example.devnote.service;
 
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.dto.KeysetCursor;
+import com.example.devnote.dto.SavedPostDto;
 import com.example.devnote.entity.Post;
+import com.example.devnote.entity.Tag;
 import com.example.devnote.entity.User;
+import com.example.devnote.event.EngagementEvent;
 import com.example.devnote.repository.FavoriteRepository;
 import com.example.devnote.repository.LikeRepository;
 import com.example.devnote.repository.PostRepository;
 import com.example.devnote.repository.UserRepository;
-import org.springframework.data.domain.Page;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "devnote.service", histogram = true)
+@Transactional(readOnly = true)  // 只有查询：配置了只读副本时走副本（见 ReadWriteRoutingDataSource）
 public class PostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
@@ -23,11 +31,69 @@ public class PostService {
 
     private final FavoriteRepository favoriteRepository;
 
-    public PostService(PostRepository postRepository, UserRepository userRepository, LikeRepository likeRepository, FavoriteRepository favoriteRepository) {
+    private final LikeMembershipIndex likeIndex;
+
+    private final TagService tagService;
+
+    private final TagIndex tagIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PostService(PostRepository postRepository, UserRepository userRepository, LikeRepository likeRepository, FavoriteRepository favoriteRepository,
+                       LikeMembershipIndex likeIndex, TagService tagService, TagIndex tagIndex,
+                       ApplicationEventPublisher eventPublisher) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.likeRepository = likeRepository;
         this.favoriteRepository = favoriteRepository;
+        this.likeIndex = likeIndex;
+        this.tagService = tagService;
+        this.tagIndex = tagIndex;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 发表或修改文章，并发布 PostSaved
+     * tagNames 为规范化后的标签名（见 TagService.parse），为 null 时保留原有标签；提交后更新标签索引
+     */
+    @Transactional
+    public Post savePost(Post post, List<String> tagNames) {
+        boolean created = post.getId() == null;
+        if (tagNames != null) {
+            post.setTags(tagService.resolve(tagNames));
+        }
+        Post saved = postRepository.save(post);
+        tagIndex.putAfterCommit(saved.getId(), saved.getAuthor().getId(), saved.getVisibility(),
+                saved.getTags().stream().map(Tag::getName).toList());
+        eventPublisher.publishEvent(new EngagementEvent.PostSaved(saved.getId(), saved.getAuthor().getId(), created));
+        return saved;
+    }
+
+    /**
+     * 删除文章（仅作者本人可删除）
+     * 同一事务内先删掉文章的点赞、收藏记录再删文章（评论随文章级联删除），
+     * 提交后从点赞索引、标签索引中移除，并发布 PostDeleted，由监听器扣减相关用户的点赞 / 收藏计数。
+     *
+     * @return 被删除的文章
+     */
+    @Transactional
+    public Post deletePost(Long postId, String username) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new RuntimeException("文章不存在"));
+        if (!post.getAuthor().getUsername().equals(username)) {
+            throw new RuntimeException("你没有权限删除这篇文章");
+        }
+
+        List<Long> likerIds = likeRepository.findUserIdsByPostId(postId);
+        List<Long> favoriterIds = favoriteRepository.findUserIdsByPostId(postId);
+        likeRepository.deleteByPostId(postId);
+        favoriteRepository.deleteByPostId(postId);
+        postRepository.delete(post);
+
+        likeIndex.removeAllAfterCommit(postId, likerIds);
+        tagIndex.removeAfterCommit(postId);
+        eventPublisher.publishEvent(new EngagementEvent.PostDeleted(postId, post.getAuthor().getId(), likerIds, favoriterIds));
+        return post;
     }
 
     /**
@@ -43,47 +109,59 @@ public class PostService {
     }
 
     /**
-     * 获取点赞文章列表（分页）
-     * @param userId 用户ID
-     * @param pageable 分页参数
-     * @return 分页后的文章列表
+     * 获取点赞文章列表（游标分页）
+     * 每页一条查询：按 (点赞时间, 点赞 ID) 键集定位，多取一条判断是否有下一页，不执行 COUNT；
+     * 需要总数时直接读 users.liked_posts_count。
+     *
+     * @param user 目标用户
+     * @param cursor 上一页返回的 nextCursor，第一页为 null
+     * @param size 每页条数
+     * @param withTotal 是否返回总数
      */
-    public Page<Post> findLikedPostsByUserId(Long userId, Pageable pageable) {
-        return postRepository.findLikedPostsByUserId(userId, pageable);
+    public CursorPage<SavedPostDto> findLikedPosts(User user, KeysetCursor cursor, int size, boolean withTotal) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<SavedPostDto> rows = cursor == null
+                ? likeRepository.findLikedPosts(user.getId(), limit)
+                : likeRepository.findLikedPostsBefore(user.getId(), cursor.time(), cursor.id(), limit);
+        return CursorPage.of(rows, size, withTotal ? user.getLikedPostsCount() : null);
     }
 
     /**
-     * 获取收藏文章列表（不分页）
-     * @param username
-     * @return
+     * 获取收藏文章列表（游标分页）
+     * 与 findLikedPosts 对称：按 (收藏时间, 收藏 ID) 键集定位，每页一条查询；需要总数时读 users.favorited_posts_count。
+     *
+     * @param user 目标用户
+     * @param cursor 上一页返回的 nextCursor，第一页为 null
+     * @param size 每页条数
+     * @param withTotal 是否返回总数
      */
-    public List<Post> getFavoritedPosts(String username) {
-        User user = userRepository.findByUsername(username);
-        return favoriteRepository.findByUser(user).stream()
-                .map(favorite -> favorite.getPost())
-                .collect(Collectors.toList());
+    public CursorPage<SavedPostDto> findFavoritedPosts(User user, KeysetCursor cursor, int size, boolean withTotal) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<SavedPostDto> rows = cursor == null
+                ? favoriteRepository.findFavoritedPosts(user.getId(), limit)
+                : favoriteRepository.findFavoritedPostsBefore(user.getId(), cursor.time(), cursor.id(), limit);
+        return CursorPage.of(rows, size, withTotal ? user.getFavoritedPostsCount() : null);
     }
 
-
     
     /**
-     * 统计用户点赞的文章总数
+     * 统计用户点赞的文章总数（读取 users 表上的冗余计数）
      * @param username 用户名
      * @return 点赞文章总数
      */
     public long countLikedPosts(String username) {
         User user = userRepository.findByUsername(username);
-        return likeRepository.countByUser(user);
+        return user == null ? 0 : user.getLikedPostsCount();
     }
     
     /**
-     * 统计用户收藏的文章总数
+     * 统计用户收藏的文章总数（读取 users 表上的冗余计数）
      * @param username 用户名
      * @return 收藏文章总数
      */
     public long countFavoritedPosts(String username) {
         User user = userRepository.findByUsername(username);
-        return favoriteRepository.countByUser(user);
+        return user == null ? 0 : user.getFavoritedPostsCount();
     }
     
 
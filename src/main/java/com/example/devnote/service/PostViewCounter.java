@@ -0,0 +1,244 @@
+package com.example.devnote.service;
+
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.event.EngagementEventListener;
+import com.example.devnote.repository.PostViewRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 文章阅读数（阅读次数与独立访客数）
+ *
+ * 打开文章详情时只在内存里累加：阅读次数用 LongAdder（分段计数，并发访问不争用同一个变量），
+ * 独立访客用 HyperLogLog 草图（同一访客重复访问时无锁直接返回），不访问数据库。
+ * 定时任务把一段时间内的增量按批写入 post_views：阅读次数累加，草图与库里保存的草图合并后整体覆盖。
+ *
+ * 增量按“代”保存：每次写库时换上一张新表，上次换下的那张（已经空闲了一个写库间隔，
+ * 不会再有进行中的 record 写入）才真正写库，避免写库与并发累加之间加锁。
+ * 写库只由定时任务单线程执行；部署多个实例时草图的“读取-合并-覆盖”之间没有加锁，
+ * 并发写同一篇文章可能丢失一部分独立访客（阅读次数是累加，不受影响），作为近似值可以接受。
+ * 宕机时丢失最近两个间隔的增量；正常关闭时全部写库。
+ *
+ * 展示用的已写库总数也保存在内存里：每篇文章第一次展示时查一次 post_views，之后由写库时顺带更新，
+ * 打开文章详情不再访问数据库。
+ */
+@Service
+public class PostViewCounter implements EngagementEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PostViewCounter.class);
+
+    // 每批写入的文章数
+    private static final int FLUSH_BATCH = 500;
+
+    /**
+     * 一篇文章在一个写库间隔内的增量
+     */
+    private static final class Pending {
+        private final LongAdder views = new LongAdder();
+        private final HyperLogLog viewers = new HyperLogLog();
+    }
+
+    private final PostViewRepository postViewRepository;
+
+    // 正在累加的一代，上次写库时换下、等待下次写库的一代，以及正在写库的一代（写完之前仍计入展示的总数）
+    private volatile Map<Long, Pending> current = new ConcurrentHashMap<>();
+    private volatile Map<Long, Pending> retired = new ConcurrentHashMap<>();
+    private volatile Map<Long, Pending> writing = new ConcurrentHashMap<>();
+
+    // 已写入数据库的计数（只含展示过的文章）
+    private final Map<Long, PostViewRepository.Counts> saved = new ConcurrentHashMap<>();
+    // 写库序号：写库期间为奇数。查库得到的计数只有在查询前后序号不变（期间没有写库）时才放进 saved
+    private final AtomicLong writeSeq = new AtomicLong();
+    // 写库后把增量从正在写库的一代移到 saved 时持有写锁，展示时的乐观读不会看到只移了一半的计数
+    private final StampedLock publishLock = new StampedLock();
+
+    public PostViewCounter(PostViewRepository postViewRepository, MeterRegistry registry) {
+        this.postViewRepository = postViewRepository;
+        Gauge.builder("devnote.views.pending", this, counter -> counter.pendingCount())
+                .description("尚未写入数据库的阅读数所涉及的文章数")
+                .register(registry);
+        Gauge.builder("devnote.views.cached", saved, Map::size)
+                .description("内存中保存了已写库阅读数的文章数")
+                .register(registry);
+    }
+
+    /**
+     * 记录一次阅读；viewerKey 用来区分访客（登录用户名或匿名访客的地址等）
+     */
+    public void record(long postId, String viewerKey) {
+        Map<Long, Pending> generation = current;
+        Pending pending = generation.get(postId);
+        if (pending == null) {
+            pending = generation.computeIfAbsent(postId, id -> new Pending());
+        }
+        pending.views.increment();
+        pending.viewers.offer(viewerKey);
+    }
+
+    /**
+     * 一篇文章的阅读次数与独立访客数：已写库的值加上尚未写库的增量。
+     * 独立访客数只取写库时的估算值，最多滞后两个写库间隔
+     */
+    public PostViewRepository.Counts counts(long postId) {
+        PostViewRepository.Counts loaded = saved.containsKey(postId) ? null : loadSaved(postId);
+        long stamp = publishLock.tryOptimisticRead();
+        PostViewRepository.Counts counts = sum(postId, loaded);
+        if (!publishLock.validate(stamp)) {
+            stamp = publishLock.readLock();
+            try {
+                counts = sum(postId, loaded);
+            } finally {
+                publishLock.unlockRead(stamp);
+            }
+        }
+        return counts;
+    }
+
+    public int pendingCount() {
+        return current.size() + retired.size() + writing.size();
+    }
+
+    /**
+     * 换上新的一代，并把上次换下的一代写库
+     */
+    @Scheduled(initialDelayString = "${devnote.views.flush-interval:PT10S}",
+            fixedDelayString = "${devnote.views.flush-interval:PT10S}")
+    public synchronized void flush() {
+        writing = retired;
+        retired = current;
+        current = new ConcurrentHashMap<>();
+        write(writing);
+    }
+
+    /**
+     * 关闭时把两代都写库（此时已不再接受请求）
+     */
+    @PreDestroy
+    public synchronized void flushAll() {
+        flush();
+        writing = retired;
+        retired = new ConcurrentHashMap<>();
+        write(writing);
+    }
+
+    @Override
+    public void onEvents(List<EngagementEvent> events) {
+        // 删除文章时一并删除阅读数；重复投递无副作用
+        Set<Long> deleted = new HashSet<>();
+        for (EngagementEvent event : events) {
+            if (event instanceof EngagementEvent.PostDeleted e) {
+                deleted.add(e.postId());
+            }
+        }
+        if (deleted.isEmpty()) {
+            return;
+        }
+        postViewRepository.delete(deleted);
+        current.keySet().removeAll(deleted);
+        retired.keySet().removeAll(deleted);
+        writing.keySet().removeAll(deleted);
+        saved.keySet().removeAll(deleted);
+    }
+
+    /**
+     * 第一次展示时从数据库读取已写库的计数；查询期间有写库时只返回这次的结果，不放进 saved
+     * （查到的可能是写库前的值，而写库时 saved 里还没有它，增量不会补上）
+     */
+    private PostViewRepository.Counts loadSaved(long postId) {
+        long seq = writeSeq.get();
+        PostViewRepository.Counts loaded = postViewRepository.findCounts(postId);
+        if (seq % 2 == 0) {
+            saved.compute(postId, (id, old) -> old != null ? old : writeSeq.get() == seq ? loaded : null);
+        }
+        return loaded;
+    }
+
+    private void write(Map<Long, Pending> generation) {
+        if (generation.isEmpty()) {
+            return;
+        }
+        List<Long> postIds = new ArrayList<>(generation.keySet());
+        for (int from = 0; from < postIds.size(); from += FLUSH_BATCH) {
+            List<Long> batch = postIds.subList(from, Math.min(from + FLUSH_BATCH, postIds.size()));
+            try {
+                Map<Long, byte[]> sketches = postViewRepository.findSketches(batch);
+                List<PostViewRepository.Row> rows = new ArrayList<>(batch.size());
+                for (Long postId : batch) {
+                    Pending pending = generation.get(postId);
+                    HyperLogLog merged = HyperLogLog.fromBytes(sketches.get(postId));
+                    merged.merge(pending.viewers);
+                    rows.add(new PostViewRepository.Row(postId, pending.views.sum(), merged.estimate(),
+                            merged.toBytes()));
+                }
+                writeSeq.incrementAndGet();
+                try {
+                    postViewRepository.upsert(rows);
+                    // 先从这一代移除再加进 saved：两步在写锁内完成，展示时不会重复计入或漏掉这批增量。
+                    // 只更新已在内存中的文章，其余第一次展示时再查库
+                    long stamp = publishLock.writeLock();
+                    try {
+                        batch.forEach(generation::remove);
+                        rows.forEach(row -> saved.computeIfPresent(row.postId(), (id, old) ->
+                                new PostViewRepository.Counts(old.views() + row.views(), row.uniqueViewers())));
+                    } finally {
+                        publishLock.unlockWrite(stamp);
+                    }
+                } finally {
+                    writeSeq.incrementAndGet();
+                }
+            } catch (DataAccessException e) {
+                // 未写入的增量并回下一代，下次写库时重试
+                log.warn("阅读数写入失败，下次重试：{}", e.getMessage());
+                long stamp = publishLock.writeLock();
+                try {
+                    requeue(generation);
+                    generation.clear();
+                } finally {
+                    publishLock.unlockWrite(stamp);
+                }
+                return;
+            }
+        }
+    }
+
+    private void requeue(Map<Long, Pending> generation) {
+        Map<Long, Pending> target = retired;
+        generation.forEach((postId, pending) -> {
+            Pending into = target.computeIfAbsent(postId, id -> new Pending());
+            into.views.add(pending.views.sum());
+            into.viewers.merge(pending.viewers);
+        });
+    }
+
+    // 已写库的计数加上三代中尚未写库的增量；saved 里没有时用查库的结果（文章刚被删除时按 0 计）
+    private PostViewRepository.Counts sum(long postId, PostViewRepository.Counts loaded) {
+        PostViewRepository.Counts persisted = saved.get(postId);
+        if (persisted == null) {
+            persisted = loaded != null ? loaded : new PostViewRepository.Counts(0, 0);
+        }
+        long views = persisted.views() + pendingViews(current, postId) + pendingViews(retired, postId)
+                + pendingViews(writing, postId);
+        return new PostViewRepository.Counts(views, persisted.uniqueViewers());
+    }
+
+    private static long pendingViews(Map<Long, Pending> generation, long postId) {
+        Pending pending = generation.get(postId);
+        return pending == null ? 0 : pending.views.sum();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.devnote.service;
+
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+/**
+ * PostVisibilityService
+ *
+ * 判断当前用户能否查看某篇文章：
+ *  - PUBLIC：任何人都可以查看（包括匿名）
+ *  - PRIVATE：只有作者本人可以查看
+ *  - FOLLOWERS：作者本人或已关注作者的用户可以查看
+ */
+@Service
+@Timed(value = "devnote.service", histogram = true)
+public class PostVisibilityService {
+
+    private final FollowService followService;
+    private final UserRepository userRepository;
+
+    public PostVisibilityService(FollowService followService, UserRepository userRepository) {
+        this.followService = followService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @param post 目标文章（author 需可访问）
+     * @param currentUsername 当前登录用户名，未登录为 null
+     * @return true 表示有权限查看
+     */
+    public boolean canView(Post post, String currentUsername) {
+        String visibility = post.getVisibility();
+
+        if ("PUBLIC".equalsIgnoreCase(visibility)) {
+            return true;
+        }
+
+        boolean isAuthor = post.getAuthor().getUsername().equals(currentUsername);
+        if ("PRIVATE".equalsIgnoreCase(visibility)) {
+            return isAuthor;
+        }
+
+        if ("FOLLOWERS".equalsIgnoreCase(visibility)) {
+            if (isAuthor) {
+                return true;
+            }
+            if (currentUsername == null) {
+                return false;
+            }
+            // 非本人则需要询问 FollowService：currentUser 是否关注了 post.author（作者 ID 已在 post 上，只需查一次当前用户）
+            User viewer = userRepository.findByUsername(currentUsername);
+            return viewer != null && followService.isFollowing(viewer.getId(), post.getAuthor().getId());
+        }
+
+        return false;
+    }
+}
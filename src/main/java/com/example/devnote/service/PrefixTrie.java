@@ -0,0 +1,239 @@
+package com.example.devnote.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 带权重的压缩前缀树（radix tree），用于前缀补全
+ *
+ * 只有一个子节点的链路合并成一条边（边上保存一段字符串），节点数与键的个数同阶，而不是与总字符数同阶。
+ * 每个节点记录子树中的最大权重，按前缀取权重最高的 limit 个键时做最优优先搜索：
+ * 总是先展开子树最大权重最高的节点，取满 limit 个即停止，不需要遍历前缀下的全部键。
+ *
+ * 结果按权重降序、权重相同时按键升序排列。非线程安全，由调用方加锁。
+ */
+public class PrefixTrie {
+
+    /** 一个补全结果 */
+    public record Match(String key, long weight) {
+    }
+
+    // 权重高的在前，权重相同时键小的在前；同一个键的结果排在以它为前缀的子树之前
+    private static final Comparator<Candidate> ORDER = Comparator.comparingLong((Candidate c) -> c.weight).reversed()
+            .thenComparing(c -> c.key)
+            .thenComparing(c -> c.node != null);
+
+    private static final class Node {
+        private String edge;
+        private final List<Node> children = new ArrayList<>(2);
+        private boolean terminal;
+        private long weight;
+        private long maxWeight = Long.MIN_VALUE;
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        private Node child(char first) {
+            for (Node child : children) {
+                if (child.edge.charAt(0) == first) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private void updateMax() {
+            long max = terminal ? weight : Long.MIN_VALUE;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    /**
+     * 搜索中的一项：node 不为空时表示一棵待展开的子树（weight 为子树最大权重），否则表示一个结果
+     */
+    private record Candidate(String key, long weight, Node node) {
+    }
+
+    private final Node root = new Node("");
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 设置键的权重（键不存在时插入）
+     */
+    public void put(String key, long weight) {
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("键不能为空");
+        }
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int offset = 0;
+        while (true) {
+            path.add(node);
+            if (offset == key.length()) {
+                break;
+            }
+            Node child = node.child(key.charAt(offset));
+            if (child == null) {
+                child = new Node(key.substring(offset));
+                node.children.add(child);
+                node = child;
+                path.add(node);
+                break;
+            }
+            int common = commonPrefix(child.edge, key, offset);
+            if (common < child.edge.length()) {
+                // 在公共前缀处拆开这条边
+                Node middle = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                middle.children.add(child);
+                middle.maxWeight = child.maxWeight;
+                node.children.set(node.children.indexOf(child), middle);
+                child = middle;
+            }
+            node = child;
+            offset += common;
+        }
+        if (!node.terminal) {
+            node.terminal = true;
+            size++;
+        }
+        node.weight = weight;
+        updatePath(path);
+    }
+
+    /**
+     * 键的权重，不存在时返回 null
+     */
+    public Long get(String key) {
+        Node node = find(key);
+        return node != null && node.terminal ? node.weight : null;
+    }
+
+    /**
+     * 删除键；删除后只剩一个子节点的中间节点与子节点合并，保持压缩
+     */
+    public boolean remove(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int offset = 0;
+        path.add(node);
+        while (offset < key.length()) {
+            Node child = node.child(key.charAt(offset));
+            if (child == null || !key.startsWith(child.edge, offset)) {
+                return false;
+            }
+            offset += child.edge.length();
+            node = child;
+            path.add(node);
+        }
+        if (!node.terminal || node == root) {
+            return false;
+        }
+        node.terminal = false;
+        node.weight = 0;
+        size--;
+
+        // 自下而上：去掉空叶子，合并只有一个子节点的非终止节点
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (!current.terminal && current.children.isEmpty()) {
+                parent.children.remove(current);
+            } else if (!current.terminal && current.children.size() == 1) {
+                Node only = current.children.get(0);
+                only.edge = current.edge + only.edge;
+                parent.children.set(parent.children.indexOf(current), only);
+            }
+        }
+        updatePath(path);
+        return true;
+    }
+
+    /**
+     * 以 prefix 开头、权重最高的至多 limit 个键
+     */
+    public List<Match> top(String prefix, int limit) {
+        List<Match> result = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+        if (limit <= 0) {
+            return result;
+        }
+
+        // 定位前缀：前缀可能停在某条边的中间，此时从这条边的末端节点开始
+        Node node = root;
+        StringBuilder matched = new StringBuilder();
+        int offset = 0;
+        while (offset < prefix.length()) {
+            Node child = node.child(prefix.charAt(offset));
+            if (child == null) {
+                return result;
+            }
+            int common = commonPrefix(child.edge, prefix, offset);
+            if (offset + common < prefix.length() && common < child.edge.length()) {
+                return result;
+            }
+            matched.append(child.edge);
+            offset += child.edge.length();
+            node = child;
+        }
+        if (node.maxWeight == Long.MIN_VALUE) {
+            return result;
+        }
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(ORDER);
+        queue.add(new Candidate(matched.toString(), node.maxWeight, node));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node current = candidate.node();
+            if (current == null) {
+                result.add(new Match(candidate.key(), candidate.weight()));
+                continue;
+            }
+            if (current.terminal) {
+                queue.add(new Candidate(candidate.key(), current.weight, null));
+            }
+            for (Node child : current.children) {
+                queue.add(new Candidate(candidate.key() + child.edge, child.maxWeight, child));
+            }
+        }
+        return result;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = node.child(key.charAt(offset));
+            if (child == null || !key.startsWith(child.edge, offset)) {
+                return null;
+            }
+            offset += child.edge.length();
+            node = child;
+        }
+        return node;
+    }
+
+    private static void updatePath(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).updateMax();
+        }
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
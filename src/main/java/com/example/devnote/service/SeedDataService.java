@@ -0,0 +1,290 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.SeedDataProperties;
+import com.example.devnote.repository.IdBlockAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * SeedDataService
+ *
+ * 按配置批量生成测试数据（用户、文章、关注、点赞、收藏、多层评论），用于压测与性能分析。
+ *  - 直接使用 JdbcTemplate.batchUpdate 批量写入，不经过 JPA，十万级数据也能在短时间内生成
+ *  - 主键预先生成，不需要插入后再查回 ID：用户 / 收藏用 IdBlockAllocator 号段（与 @PooledId 共用），
+ *    文章 / 关注 / 点赞 / 评论用 IdGenerator（与 @TimeOrderedId 共用）
+ *  - 关注、点赞、收藏、评论的目标按幂律（Zipf）分布选取，形成真实的“热门用户 / 热门文章”
+ *  - 所有生成的用户名带本次运行的标记前缀，可重复执行而不冲突
+ *  - 由于绕过了业务层，生成后统一重算粉丝数 / 关注数，并重新加载内存成员索引
+ */
+@Service
+public class SeedDataService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeedDataService.class);
+
+    private static final String[] VISIBILITIES = {
+            "PUBLIC", "PUBLIC", "PUBLIC", "PUBLIC", "PUBLIC", "PUBLIC", "PUBLIC", "FOLLOWERS", "FOLLOWERS", "PRIVATE"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final SeedDataProperties properties;
+    private final FollowService followService;
+    private final LikeService likeService;
+    private final FavoriteService favoriteService;
+    private final List<BitmapMembershipIndex> membershipIndexes;
+    private final IdBlockAllocator idAllocator;
+    private final IdGenerator idGenerator;
+
+    public SeedDataService(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, SeedDataProperties properties,
+                           FollowService followService, LikeService likeService, FavoriteService favoriteService,
+                           List<BitmapMembershipIndex> membershipIndexes, IdBlockAllocator idAllocator, IdGenerator idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.idGenerator = idGenerator;
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+        this.followService = followService;
+        this.likeService = likeService;
+        this.favoriteService = favoriteService;
+        this.membershipIndexes = membershipIndexes;
+    }
+
+    /**
+     * 使用 devnote.seed.* 配置生成数据
+     */
+    public SeedResult generate() {
+        return generate(properties);
+    }
+
+    public SeedResult generate(SeedDataProperties config) {
+        long start = System.currentTimeMillis();
+        Random random = new Random(config.getRandomSeed());
+        String tag = "seed" + Long.toString(start, 36);
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = config.getBatchSize();
+
+        // 1. 用户（BCrypt 很慢，所有用户共用同一个哈希）
+        String passwordHash = passwordEncoder.encode(config.getPassword());
+        List<String> usernames = new ArrayList<>(config.getUsers());
+        long[] userIds = idAllocator.nextIds("users", config.getUsers());
+        List<Object[]> userRows = new ArrayList<>(config.getUsers());
+        for (int i = 0; i < config.getUsers(); i++) {
+            String username = tag + "_" + i;
+            usernames.add(username);
+            userRows.add(new Object[]{userIds[i], username, passwordHash, username + "@seed.devnote", "USER",
+                    "/images/default-avatar.png", "seed user", true, true, true, true});
+        }
+        batchInsert("INSERT INTO users (id, username, password, email, role, avatar, bio, "
+                + "show_followers, show_following, show_likes, show_favorites) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                userRows, batchSize);
+        logger.info("生成用户 {} 个", userIds.length);
+
+        // 2. 文章：作者按幂律分布（少数人写大量文章）
+        ZipfSampler userSampler = new ZipfSampler(userIds.length, config.getZipfExponent(), random);
+        int postCount = config.getUsers() * config.getPostsPerUser();
+        long[] postIds = idGenerator.nextIds(postCount);
+        List<Object[]> postRows = new ArrayList<>(postCount);
+        for (int i = 0; i < postCount; i++) {
+            long authorId = userIds[userSampler.sample()];
+            postRows.add(new Object[]{postIds[i], "Seed post " + i, content(random, 400 + random.nextInt(1200)),
+                    VISIBILITIES[random.nextInt(VISIBILITIES.length)], authorId, randomTime(random, now)});
+        }
+        batchInsert("INSERT INTO posts (id, title, content, visibility, user_id, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                postRows, batchSize);
+        logger.info("生成文章 {} 篇", postIds.length);
+
+        // 3. 关注：关注者均匀选取，被关注者按幂律选取
+        long followCount = insertPairs("follows", "follower_id, following_id, created_at",
+                userIds, userIds, (long) config.getUsers() * config.getFollowsPerUser(),
+                config.getZipfExponent(), true, random, now, batchSize);
+        logger.info("生成关注关系 {} 条", followCount);
+
+        // 4. 点赞 / 收藏：用户均匀选取，文章按幂律选取（热门文章）
+        long likeCount = insertPairs("post_likes", "user_id, post_id, liked_at",
+                userIds, postIds, (long) config.getUsers() * config.getLikesPerUser(),
+                config.getZipfExponent(), false, random, now, batchSize);
+        logger.info("生成点赞 {} 条", likeCount);
+        long favoriteCount = insertPairs("favorite", "user_id, post_id, favorited_at",
+                userIds, postIds, (long) config.getUsers() * config.getFavoritesPerUser(),
+                config.getZipfExponent(), false, random, now, batchSize);
+        logger.info("生成收藏 {} 条", favoriteCount);
+
+        // 5. 评论：先写顶级评论，再逐层写回复（回复需要父评论 ID）
+        long commentCount = insertComments(config, postIds, userIds, random, now);
+        logger.info("生成评论 {} 条", commentCount);
+
+        // 6. 冗余计数与内存索引
+        followService.recalculateFollowCounts();
+        likeService.recalculateLikedPostsCounts();
+        favoriteService.recalculateFavoritedPostsCounts();
+        membershipIndexes.forEach(BitmapMembershipIndex::load);
+
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("测试数据生成完成，耗时 {} ms", elapsed);
+        return new SeedResult(tag, usernames, userIds, postIds, followCount, likeCount, favoriteCount, commentCount, elapsed);
+    }
+
+    /**
+     * 生成 (left, right) 关系对，right 按幂律选取，自动去重；selfExclusive 为 true 时排除 left == right
+     */
+    private long insertPairs(String table, String columns, long[] left, long[] right, long target, double exponent,
+                             boolean selfExclusive, Random random, LocalDateTime now, int batchSize) {
+        if (left.length == 0 || right.length == 0) {
+            return 0;
+        }
+        String sql = "INSERT INTO " + table + " (id, " + columns + ") VALUES (?, ?, ?, ?)";
+        ZipfSampler rightSampler = new ZipfSampler(right.length, exponent, random);
+        // 可能的组合数有限，避免目标数量超过上限时死循环
+        long capacity = (long) left.length * right.length - (selfExclusive ? left.length : 0);
+        target = Math.min(target, capacity / 2);
+
+        Set<Long> seen = new HashSet<>();
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        long inserted = 0;
+        long attempts = 0;
+        while (inserted < target && attempts < target * 10) {
+            attempts++;
+            int l = random.nextInt(left.length);
+            int r = rightSampler.sample();
+            if (selfExclusive && left[l] == right[r]) {
+                continue;
+            }
+            if (!seen.add(((long) l << 32) | r)) {
+                continue;
+            }
+            rows.add(new Object[]{null, left[l], right[r], randomTime(random, now)});
+            inserted++;
+            if (rows.size() == batchSize) {
+                insertWithIds(sql, table, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            insertWithIds(sql, table, rows);
+        }
+        return inserted;
+    }
+
+    private long insertComments(SeedDataProperties config, long[] postIds, long[] userIds, Random random, LocalDateTime now) {
+        if (postIds.length == 0 || userIds.length == 0) {
+            return 0;
+        }
+        String sql = "INSERT INTO comments (id, content, created_at, post_id, user_id, parent_id) VALUES (?, ?, ?, ?, ?, ?)";
+        ZipfSampler postSampler = new ZipfSampler(postIds.length, config.getZipfExponent(), random);
+
+        List<Object[]> rows = new ArrayList<>();
+        long total = (long) postIds.length * config.getCommentsPerPost();
+        for (long i = 0; i < total; i++) {
+            rows.add(new Object[]{null, content(random, 20 + random.nextInt(200)), randomTime(random, now),
+                    postIds[postSampler.sample()], userIds[random.nextInt(userIds.length)], null});
+        }
+        assignIds("comments", rows);
+        batchInsert(sql, rows, config.getBatchSize());
+        long inserted = rows.size();
+
+        // 逐层生成回复：上一层每条评论随机产生 0 ~ 2 * repliesPerComment 条回复（主键已预先分配，直接引用上一层的行）
+        List<Object[]> parents = rows;
+        for (int depth = 0; depth < config.getReplyDepth(); depth++) {
+            rows = new ArrayList<>();
+            for (Object[] parent : parents) {
+                int replies = random.nextInt(2 * config.getRepliesPerComment() + 1);
+                for (int r = 0; r < replies; r++) {
+                    rows.add(new Object[]{null, content(random, 20 + random.nextInt(120)), randomTime(random, now),
+                            parent[3], userIds[random.nextInt(userIds.length)], parent[0]});
+                }
+            }
+            assignIds("comments", rows);
+            batchInsert(sql, rows, config.getBatchSize());
+            inserted += rows.size();
+            parents = rows;
+        }
+        return inserted;
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows, int batchSize) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+
+    private void insertWithIds(String sql, String table, List<Object[]> rows) {
+        assignIds(table, rows);
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    /**
+     * 为每行的第 0 列填入新分配的主键（favorite 表用号段，其余用 IdGenerator）
+     */
+    private void assignIds(String table, List<Object[]> rows) {
+        long[] ids = "favorite".equals(table) ? idAllocator.nextIds(table, rows.size()) : idGenerator.nextIds(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i)[0] = ids[i];
+        }
+    }
+
+    private static Timestamp randomTime(Random random, LocalDateTime now) {
+        return Timestamp.valueOf(now.minusSeconds(random.nextInt(365 * 24 * 3600)));
+    }
+
+    private static String content(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length + 32);
+        while (sb.length() < length) {
+            sb.append("DevNote 测试内容 ").append(random.nextInt(100_000)).append("。");
+        }
+        return sb.substring(0, length);
+    }
+
+    /**
+     * Zipf 分布采样：下标越小概率越大，P(k) ∝ 1 / (k + 1)^s
+     * 预计算累积分布，采样时二分查找，O(log n)
+     */
+    static final class ZipfSampler {
+        private final double[] cdf;
+        private final Random random;
+
+        ZipfSampler(int n, double exponent, Random random) {
+            this.cdf = new double[n];
+            this.random = random;
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cdf[k] /= sum;
+            }
+        }
+
+        int sample() {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            index = index >= 0 ? index : -index - 1;
+            return Math.min(index, cdf.length - 1);
+        }
+    }
+
+    /**
+     * 本次生成的结果，压测脚本用它来挑选登录用户与访问的文章
+     */
+    public record SeedResult(String tag,
+                             List<String> usernames,
+                             long[] userIds,
+                             long[] postIds,
+                             long follows,
+                             long likes,
+                             long favorites,
+                             long comments,
+                             long elapsedMillis) {
+    }
+}
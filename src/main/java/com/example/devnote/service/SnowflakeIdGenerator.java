@@ -0,0 +1,108 @@
+package com.example.devnote.service;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake 风格的时间有序 ID
+ *
+ * 布局（共 53 位，保证在 JavaScript Number 的安全整数范围内，前端直接使用不会丢精度）：
+ * <pre>
+ *  | 41 位：自 EPOCH 起的毫秒数（约 69 年） | 5 位：节点号 workerId（0 ~ 31） | 7 位：毫秒内序号（0 ~ 127） |
+ * </pre>
+ *  - ID 随时间单调递增：按 ID 排序即按创建时间排序，游标分页可以直接用 ID，timestampOf 可还原创建时间
+ *  - 多个应用节点配置不同的 workerId 即可各自生成、互不冲突（devnote.id.worker-id）
+ *  - 无锁：当前的 (毫秒, 序号) 打包在一个 AtomicLong 中，用 CAS 推进
+ *  - 同一毫秒内序号用完时借用下一毫秒；时钟回拨时沿用已发出的最大时间继续递增，不会生成重复或倒序的 ID
+ *
+ * 同一进程内相同 workerId 必须共用一个实例（Hibernate 主键生成器与 JDBC 批量写入都通过 forWorker 获取）。
+ */
+public final class SnowflakeIdGenerator implements IdGenerator {
+
+    /** 起始时间：2024-01-01T00:00:00Z */
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int WORKER_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    static final int TIMESTAMP_BITS = 41;
+
+    public static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final ConcurrentHashMap<Integer, SnowflakeIdGenerator> INSTANCES = new ConcurrentHashMap<>();
+
+    private final int workerId;
+    private final Clock clock;
+
+    /** 最近一次发出的 (毫秒 << SEQUENCE_BITS) | 序号 */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * 获取某个节点号对应的共享实例
+     */
+    public static SnowflakeIdGenerator forWorker(int workerId) {
+        return INSTANCES.computeIfAbsent(workerId, id -> new SnowflakeIdGenerator(id, System::currentTimeMillis));
+    }
+
+    SnowflakeIdGenerator(int workerId, Clock clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId 必须在 0 ~ " + MAX_WORKER_ID + " 之间：" + workerId);
+        }
+        this.workerId = workerId;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long now = clock.millis() - EPOCH;
+
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // 同一毫秒（或时钟回拨）：序号加一
+                next = last + 1;
+            } else {
+                // 序号用完：借用下一毫秒
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (WORKER_BITS + SEQUENCE_BITS))
+                        | ((long) workerId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * ID 中记录的生成时间（毫秒时间戳）
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    /**
+     * 不晚于给定时间的最小 ID，可用作按时间范围查询的游标下界
+     */
+    public static long minIdAt(long epochMillis) {
+        return Math.max(0, epochMillis - EPOCH) << (WORKER_BITS + SEQUENCE_BITS);
+    }
+
+    /**
+     * 时间来源（测试时可替换）
+     */
+    @FunctionalInterface
+    interface Clock {
+        long millis();
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.devnote.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 标签 → 文章的内存倒排索引
+ *
+ *  - 每个标签对应一个按文章 ID 降序排列的集合（文章 ID 按时间递增，降序即最新在前），
+ *    按标签翻页时从游标处继续往后取，不查询 post_tags，更不需要对 content 做 LIKE 扫描
+ *  - 每篇文章记录作者与可见性，翻页时由调用方按当前用户过滤（见 TagService.feed）
+ *  - 标签名同时放进前缀树做补全，权重为带该标签的公开文章数（只出现在非公开文章上的标签不参与补全）
+ *
+ * 启动完成后通过一次联表查询全量加载；文章发表、修改、删除时在事务提交后增量更新（put / remove 幂等）。
+ * 加载期间到达的更新先缓存，加载完成后重放到新快照上。
+ *
+ * 并发：写操作与补全查询由 lock 串行化；翻页只读并发集合，不加锁。
+ */
+@Component
+public class TagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TagIndex.class);
+
+    private static final String LOAD_SQL = "SELECT pt.post_id, t.name, p.user_id, p.visibility FROM post_tags pt "
+            + "JOIN tags t ON t.id = pt.tag_id JOIN posts p ON p.id = pt.post_id";
+
+    /** 索引中的一篇文章 */
+    public record Tagged(long postId, long authorId, String visibility, List<String> tags) {
+
+        boolean isPublic() {
+            return "PUBLIC".equalsIgnoreCase(visibility);
+        }
+    }
+
+    /** 一页结果：nextBefore 为下一页的游标（本页最后扫描到的文章 ID），没有下一页时为 null */
+    public record Page(List<Long> postIds, Long nextBefore) {
+    }
+
+    /**
+     * 索引的全部数据；加载时整体替换
+     */
+    private static final class State {
+        private final Map<String, ConcurrentSkipListSet<Long>> postsByTag = new ConcurrentHashMap<>();
+        private final Map<Long, Tagged> posts = new ConcurrentHashMap<>();
+        private final PrefixTrie publicTags = new PrefixTrie();
+
+        private void put(Tagged tagged) {
+            remove(tagged.postId());
+            posts.put(tagged.postId(), tagged);
+            for (String tag : tagged.tags()) {
+                postsByTag.computeIfAbsent(tag, key -> new ConcurrentSkipListSet<>(Comparator.reverseOrder()))
+                        .add(tagged.postId());
+                if (tagged.isPublic()) {
+                    Long count = publicTags.get(tag);
+                    publicTags.put(tag, count == null ? 1 : count + 1);
+                }
+            }
+        }
+
+        private void remove(long postId) {
+            Tagged old = posts.remove(postId);
+            if (old == null) {
+                return;
+            }
+            for (String tag : old.tags()) {
+                ConcurrentSkipListSet<Long> ids = postsByTag.get(tag);
+                if (ids != null) {
+                    ids.remove(postId);
+                    if (ids.isEmpty()) {
+                        postsByTag.remove(tag);
+                    }
+                }
+                if (old.isPublic()) {
+                    Long count = publicTags.get(tag);
+                    if (count != null && count > 1) {
+                        publicTags.put(tag, count - 1);
+                    } else {
+                        publicTags.remove(tag);
+                    }
+                }
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Object lock = new Object();
+    private volatile State state = new State();
+    private volatile boolean loaded = false;
+    // 加载期间的更新（由 lock 保护），加载完成后重放
+    private List<Consumer<State>> pendingDuringLoad;
+
+    public TagIndex(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("devnote.tags.index.tags", this, index -> index.state.postsByTag.size())
+                .description("标签索引中的标签数")
+                .register(registry);
+        Gauge.builder("devnote.tags.index.posts", this, index -> index.state.posts.size())
+                .description("标签索引中带标签的文章数")
+                .register(registry);
+    }
+
+    /**
+     * 索引是否已完成加载；未加载时调用方应回退到数据库
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 设置文章的标签（覆盖原有标签；tags 为空等同于 remove）
+     */
+    public void put(long postId, long authorId, String visibility, List<String> tags) {
+        Tagged tagged = new Tagged(postId, authorId, visibility, List.copyOf(tags));
+        apply(current -> {
+            if (tagged.tags().isEmpty()) {
+                current.remove(postId);
+            } else {
+                current.put(tagged);
+            }
+        });
+    }
+
+    public void remove(long postId) {
+        apply(current -> current.remove(postId));
+    }
+
+    /**
+     * 当前事务提交后再更新，避免回滚后索引里残留脏数据（没有事务时立即执行）
+     */
+    public void putAfterCommit(long postId, long authorId, String visibility, List<String> tags) {
+        afterCommit(() -> put(postId, authorId, visibility, tags));
+    }
+
+    public void removeAfterCommit(long postId) {
+        afterCommit(() -> remove(postId));
+    }
+
+    /**
+     * 按标签翻页：从 before（不含，null 表示第一页）往后取至多 size 篇 visible 的文章，按发布时间倒序。
+     * 最多检查 maxScan 篇，大量文章对当前用户不可见时提前返回不足一页的结果，游标停在检查到的位置。
+     */
+    public Page page(String tag, Long before, int size, int maxScan, Predicate<Tagged> visible) {
+        State current = state;
+        ConcurrentSkipListSet<Long> ids = current.postsByTag.get(tag);
+        if (ids == null || size <= 0) {
+            return new Page(List.of(), null);
+        }
+        List<Long> result = new ArrayList<>(size);
+        Long last = null;
+        int scanned = 0;
+        for (Long postId : before == null ? ids : ids.tailSet(before, false)) {
+            if (result.size() == size || scanned == maxScan) {
+                return new Page(result, last);
+            }
+            scanned++;
+            last = postId;
+            Tagged tagged = current.posts.get(postId);
+            if (tagged != null && visible.test(tagged)) {
+                result.add(postId);
+            }
+        }
+        return new Page(result, null);
+    }
+
+    /**
+     * 以 prefix 开头、公开文章数最多的至多 limit 个标签
+     */
+    public List<PrefixTrie.Match> suggest(String prefix, int limit) {
+        synchronized (lock) {
+            return state.publicTags.top(prefix, limit);
+        }
+    }
+
+    /**
+     * 全量加载，构建完成后原子替换当前索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        synchronized (lock) {
+            pendingDuringLoad = new ArrayList<>();
+        }
+
+        // 每行为一篇文章的一个标签，按文章归并
+        Map<Long, Tagged> rows = new HashMap<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            long postId = rs.getLong(1);
+            String tag = rs.getString(2);
+            long authorId = rs.getLong(3);
+            String visibility = rs.getString(4);
+            rows.computeIfAbsent(postId, id -> new Tagged(id, authorId, visibility, new ArrayList<>())).tags().add(tag);
+        });
+        State snapshot = new State();
+        rows.values().forEach(tagged -> snapshot.put(new Tagged(tagged.postId(), tagged.authorId(),
+                tagged.visibility(), List.copyOf(tagged.tags()))));
+
+        synchronized (lock) {
+            pendingDuringLoad.forEach(update -> update.accept(snapshot));
+            pendingDuringLoad = null;
+            state = snapshot;
+            loaded = true;
+        }
+        log.info("标签索引加载完成：{} 个标签，{} 篇文章，耗时 {} ms",
+                snapshot.postsByTag.size(), snapshot.posts.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(Consumer<State> update) {
+        synchronized (lock) {
+            update.accept(state);
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(update);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.devnote.service;
+
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.Tag;
+import com.example.devnote.entity.User;
+import com.example.devnote.repository.PostRepository;
+import com.example.devnote.repository.TagRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 标签：解析与规范化文章的标签、按标签浏览文章、标签补全
+ *
+ * 按标签浏览只读内存索引（TagIndex）得到当前用户可见的文章 ID，再按主键加载这一页的文章；
+ * 索引尚未加载完成时回退到数据库，只返回公开文章。
+ */
+@Service
+@Timed(value = "devnote.service", histogram = true)
+@Transactional(readOnly = true)
+public class TagService {
+
+    /** 每篇文章最多的标签数 */
+    public static final int MAX_TAGS_PER_POST = 5;
+
+    /** 标签名最大长度（规范化之后） */
+    public static final int MAX_TAG_LENGTH = 32;
+
+    // 一页最多检查的文章数（相对页大小的倍数），大量文章不可见时提前返回
+    private static final int MAX_SCAN_FACTOR = 20;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[,，、\\s]+");
+    private static final Pattern VALID = Pattern.compile("[\\p{L}\\p{N}_+#.-]+");
+
+    private final TagRepository tagRepository;
+    private final PostRepository postRepository;
+    private final TagIndex tagIndex;
+    private final FollowService followService;
+
+    public TagService(TagRepository tagRepository, PostRepository postRepository, TagIndex tagIndex,
+                      FollowService followService) {
+        this.tagRepository = tagRepository;
+        this.postRepository = postRepository;
+        this.tagIndex = tagIndex;
+        this.followService = followService;
+    }
+
+    /**
+     * 规范化标签名：去掉首尾空白和开头的 #，转小写
+     *
+     * @throws IllegalArgumentException 为空、过长或包含不允许的字符
+     */
+    public static String normalize(String raw) {
+        String name = raw.trim();
+        while (name.startsWith("#")) {
+            name = name.substring(1);
+        }
+        name = name.toLowerCase(Locale.ROOT);
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("标签不能为空");
+        }
+        if (name.length() > MAX_TAG_LENGTH) {
+            throw new IllegalArgumentException("标签长度不能超过 " + MAX_TAG_LENGTH + " 个字符：" + raw);
+        }
+        if (!VALID.matcher(name).matches()) {
+            throw new IllegalArgumentException("标签只能包含文字、数字和 _ + # . -：" + raw);
+        }
+        return name;
+    }
+
+    /**
+     * 解析表单中输入的标签（逗号、顿号或空白分隔），规范化并去重，保持输入顺序
+     *
+     * @throws IllegalArgumentException 标签不合法或超过 MAX_TAGS_PER_POST 个
+     */
+    public static List<String> parse(String input) {
+        if (input == null || input.isBlank()) {
+            return List.of();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String part : SEPARATORS.split(input.trim())) {
+            if (!part.isEmpty() && !part.chars().allMatch(c -> c == '#')) {
+                names.add(normalize(part));
+            }
+        }
+        if (names.size() > MAX_TAGS_PER_POST) {
+            throw new IllegalArgumentException("每篇文章最多 " + MAX_TAGS_PER_POST + " 个标签");
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * 按名称取得标签实体，不存在的新建（一次查询已有标签，新标签批量插入），保持传入顺序
+     */
+    @Transactional
+    public Set<Tag> resolve(List<String> names) {
+        Set<Tag> tags = new LinkedHashSet<>();
+        if (names.isEmpty()) {
+            return tags;
+        }
+        Map<String, Tag> existing = tagRepository.findByNameIn(names).stream()
+                .collect(Collectors.toMap(Tag::getName, Function.identity()));
+        List<Tag> created = new ArrayList<>();
+        for (String name : names) {
+            Tag tag = existing.get(name);
+            if (tag == null) {
+                tag = new Tag(name);
+                created.add(tag);
+            }
+            tags.add(tag);
+        }
+        tagRepository.saveAll(created);
+        return tags;
+    }
+
+    /**
+     * 某个标签下当前用户可见的文章（游标分页，按发布时间倒序）
+     *
+     * @param tag 规范化后的标签名
+     * @param viewer 当前用户，未登录为 null
+     * @param cursor 上一页返回的 nextCursor（文章 ID），第一页为 null
+     * @param size 每页条数
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public CursorPage<Post> feed(String tag, User viewer, String cursor, int size) {
+        Long before = decodeCursor(cursor);
+        if (!tagIndex.isLoaded()) {
+            List<Post> rows = postRepository.findPublicByTagBefore(tag, before == null ? Long.MAX_VALUE : before,
+                    PageRequest.of(0, size + 1));
+            boolean hasNext = rows.size() > size;
+            List<Post> content = hasNext ? rows.subList(0, size) : rows;
+            return new CursorPage<>(content, hasNext ? String.valueOf(content.get(size - 1).getId()) : null,
+                    hasNext, null);
+        }
+
+        Long viewerId = viewer == null ? null : viewer.getId();
+        TagIndex.Page page = tagIndex.page(tag, before, size, size * MAX_SCAN_FACTOR,
+                tagged -> canView(tagged, viewerId));
+        Map<Long, Post> byId = page.postIds().isEmpty() ? Map.of() : postRepository.findWithAuthorByIdIn(page.postIds())
+                .stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // 按索引顺序输出；刚删除、索引尚未更新的文章直接跳过
+        List<Post> posts = new ArrayList<>(page.postIds().size());
+        for (Long id : page.postIds()) {
+            Post post = byId.get(id);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        Long next = page.nextBefore();
+        return new CursorPage<>(posts, next == null ? null : String.valueOf(next), next != null, null);
+    }
+
+    /**
+     * 标签补全：以 prefix 开头、公开文章最多的至多 limit 个标签
+     */
+    public List<PrefixTrie.Match> suggest(String prefix, int limit) {
+        String normalized = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        while (normalized.startsWith("#")) {
+            normalized = normalized.substring(1);
+        }
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return tagIndex.suggest(normalized, limit);
+    }
+
+    /**
+     * 与 PostVisibilityService.canView 规则一致，只是作者与可见性取自索引
+     */
+    private boolean canView(TagIndex.Tagged tagged, Long viewerId) {
+        String visibility = tagged.visibility();
+        if ("PUBLIC".equalsIgnoreCase(visibility)) {
+            return true;
+        }
+        if (viewerId == null) {
+            return false;
+        }
+        boolean isAuthor = tagged.authorId() == viewerId;
+        if ("PRIVATE".equalsIgnoreCase(visibility)) {
+            return isAuthor;
+        }
+        if ("FOLLOWERS".equalsIgnoreCase(visibility)) {
+            return isAuthor || followService.isFollowing(viewerId, tagged.authorId());
+        }
+        return false;
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.TrendingProperties;
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.event.EngagementEventListener;
+import com.example.devnote.repository.CommentRepository;
+import com.example.devnote.repository.FavoriteRepository;
+import com.example.devnote.repository.LikeRepository;
+import com.example.devnote.repository.PostHotScoreRepository;
+import com.example.devnote.repository.PostRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 热门文章排行
+ *
+ * 热度 = log2(1 + 点赞×权重 + 收藏×权重 + 评论×权重) + 发布时间 / 半衰期。
+ * 时间衰减体现在发布时间一项上：晚发布一个半衰期相当于互动量翻倍，分数不随当前时间变化，
+ * 所以只有发生互动的文章需要重新计算，排行不必定时全量重算。
+ *
+ * 窗口内（默认 7 天）的公开文章及其计数保存在内存里，按分数排序；作为 EngagementEventListener
+ * 在事件批次提交后按增量更新计数和位置，每次更新后把前 K 篇的 ID 发布成不可变列表，/trending 直接读取，
+ * 不查询 post_likes 等表。计数定时写入 post_hot_scores，启动时读回；快照里没有的文章（如首次上线）
+ * 才按文章统计一次。快照间隔内的增量在宕机时会丢失，排行本身是近似值，可以接受。
+ *
+ * 文章的可见性只在发表时设置，之后不会改变，因此只在收录时判断一次。
+ */
+@Service
+public class TrendingService implements EngagementEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    // 启动加载时每批统计的文章数
+    private static final int COUNT_BATCH = 500;
+
+    // 分数高的在前，分数相同时新文章在前
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingDouble((Entry entry) -> entry.score)
+            .reversed()
+            .thenComparing(Comparator.comparingLong((Entry entry) -> entry.postId).reversed());
+
+    /**
+     * 一篇文章的计数与分数；score 只在从 ranking 中移出后修改
+     */
+    private static final class Entry {
+        private final long postId;
+        private final LocalDateTime createdAt;
+        private long likes;
+        private long favorites;
+        private long comments;
+        private double score;
+
+        private Entry(long postId, LocalDateTime createdAt, long likes, long favorites, long comments) {
+            this.postId = postId;
+            this.createdAt = createdAt;
+            this.likes = likes;
+            this.favorites = favorites;
+            this.comments = comments;
+        }
+    }
+
+    /**
+     * 一批事件在提交后要应用的变化
+     */
+    private record Change(Map<Long, long[]> deltas, List<Object[]> created, Set<Long> deleted) {
+    }
+
+    // 增量数组下标
+    private static final int LIKES = 0;
+    private static final int FAVORITES = 1;
+    private static final int COMMENTS = 2;
+
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final CommentRepository commentRepository;
+    private final PostHotScoreRepository hotScoreRepository;
+    private final TrendingProperties properties;
+    private final double halfLifeSeconds;
+
+    // 以下状态都由 lock 保护；读取排行只读 top，不加锁
+    private final Object lock = new Object();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(BY_SCORE);
+    private final Set<Long> dirty = new HashSet<>();
+    private final Set<Long> removed = new HashSet<>();
+    // 加载完成前到达的变化，加载后重放
+    private List<Change> pendingDuringLoad = new ArrayList<>();
+
+    private volatile List<Long> top = List.of();
+
+    public TrendingService(PostRepository postRepository, LikeRepository likeRepository,
+                           FavoriteRepository favoriteRepository, CommentRepository commentRepository,
+                           PostHotScoreRepository hotScoreRepository, TrendingProperties properties,
+                           MeterRegistry registry) {
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.commentRepository = commentRepository;
+        this.hotScoreRepository = hotScoreRepository;
+        this.properties = properties;
+        this.halfLifeSeconds = properties.getHalfLife().toSeconds();
+        Gauge.builder("devnote.trending.tracked", this, service -> service.trackedCount())
+                .description("热门排行窗口内跟踪的文章数")
+                .register(registry);
+    }
+
+    /**
+     * 热度最高的至多 limit 篇文章 ID（按热度降序），不查询数据库
+     */
+    public List<Long> top(int limit) {
+        List<Long> current = top;
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+
+    public int trackedCount() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void onEvents(List<EngagementEvent> events) {
+        Map<Long, long[]> deltas = new HashMap<>();
+        Set<Long> createdIds = new HashSet<>();
+        Set<Long> deleted = new HashSet<>();
+        for (EngagementEvent event : events) {
+            if (event instanceof EngagementEvent.PostLiked e) {
+                add(deltas, e.postId(), LIKES, 1);
+            } else if (event instanceof EngagementEvent.PostUnliked e) {
+                add(deltas, e.postId(), LIKES, -1);
+            } else if (event instanceof EngagementEvent.PostFavorited e) {
+                add(deltas, e.postId(), FAVORITES, 1);
+            } else if (event instanceof EngagementEvent.PostUnfavorited e) {
+                add(deltas, e.postId(), FAVORITES, -1);
+            } else if (event instanceof EngagementEvent.CommentAdded e) {
+                add(deltas, e.postId(), COMMENTS, 1);
+            } else if (event instanceof EngagementEvent.CommentDeleted e) {
+                add(deltas, e.postId(), COMMENTS, -e.count());
+            } else if (event instanceof EngagementEvent.PostSaved e && e.created()) {
+                createdIds.add(e.postId());
+            } else if (event instanceof EngagementEvent.PostDeleted e) {
+                deleted.add(e.postId());
+            }
+        }
+        createdIds.removeAll(deleted);
+        List<Object[]> created = createdIds.isEmpty() ? List.of() : postRepository.findPublicCreatedAt(createdIds);
+        if (deltas.isEmpty() && created.isEmpty() && deleted.isEmpty()) {
+            return;
+        }
+        // 内存计数不是幂等的：等批次提交（outbox 行已删除、不会重新投递）后再应用
+        afterCommit(() -> apply(new Change(deltas, created, deleted)));
+    }
+
+    /**
+     * 启动完成后加载窗口内的公开文章：计数优先取快照，快照里没有的文章按文章统计一次。
+     * 加载期间到达的变化在加载后重放，但按文章统计的计数不再叠加这些增量
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minus(properties.getWindow());
+        Map<Long, PostHotScoreRepository.Row> snapshot = new HashMap<>();
+        for (PostHotScoreRepository.Row row : hotScoreRepository.findCreatedSince(since)) {
+            snapshot.put(row.postId(), row);
+        }
+
+        Map<Long, Entry> loaded = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Object[] row : postRepository.findPublicCreatedSince(since)) {
+            long postId = ((Number) row[0]).longValue();
+            LocalDateTime createdAt = (LocalDateTime) row[1];
+            PostHotScoreRepository.Row saved = snapshot.get(postId);
+            if (saved != null) {
+                loaded.put(postId, new Entry(postId, createdAt, saved.likeCount(), saved.favoriteCount(),
+                        saved.commentCount()));
+            } else {
+                loaded.put(postId, new Entry(postId, createdAt, 0, 0, 0));
+                missing.add(postId);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += COUNT_BATCH) {
+            List<Long> batch = missing.subList(from, Math.min(from + COUNT_BATCH, missing.size()));
+            likeRepository.countByPostIds(batch).forEach(row -> loaded.get(id(row)).likes = count(row));
+            favoriteRepository.countByPostIds(batch).forEach(row -> loaded.get(id(row)).favorites = count(row));
+            commentRepository.countByPostIds(batch).forEach(row -> loaded.get(id(row)).comments = count(row));
+        }
+
+        synchronized (lock) {
+            entries.clear();
+            ranking.clear();
+            for (Entry entry : loaded.values()) {
+                entry.score = score(entry);
+                entries.put(entry.postId, entry);
+                ranking.add(entry);
+            }
+            // 快照里没有的文章在下次持久化时写入；快照里有、但文章已删除或不再公开的行一并清理
+            dirty.addAll(missing);
+            snapshot.keySet().stream().filter(postId -> !loaded.containsKey(postId)).forEach(removed::add);
+            // 重新统计的文章读的是实时表，加载期间提交的互动已经算在内，重放会重复计数；只重放到来自快照的文章上
+            Set<Long> recounted = new HashSet<>(missing);
+            List<Change> pending = pendingDuringLoad;
+            pendingDuringLoad = null;
+            for (Change change : pending) {
+                Map<Long, long[]> deltas = new HashMap<>(change.deltas());
+                deltas.keySet().removeAll(recounted);
+                applyLocked(new Change(deltas, change.created(), change.deleted()));
+            }
+            publishTop();
+        }
+        log.info("热门排行加载完成：{} 篇文章（{} 篇来自快照），耗时 {} ms",
+                loaded.size(), loaded.size() - missing.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 把有变化的计数写入快照，删除已删除 / 移出窗口的文章
+     */
+    @Scheduled(initialDelayString = "${devnote.trending.persist-interval:PT1M}",
+            fixedDelayString = "${devnote.trending.persist-interval:PT1M}")
+    public void persist() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getWindow());
+        List<PostHotScoreRepository.Row> rows = new ArrayList<>();
+        Set<Long> toDelete;
+        synchronized (lock) {
+            if (pendingDuringLoad != null) {
+                return;
+            }
+            boolean expired = entries.values().removeIf(entry -> {
+                if (entry.createdAt.isBefore(cutoff)) {
+                    ranking.remove(entry);
+                    dirty.remove(entry.postId);
+                    return true;
+                }
+                return false;
+            });
+            if (expired) {
+                publishTop();
+            }
+            for (Long postId : dirty) {
+                Entry entry = entries.get(postId);
+                if (entry != null) {
+                    rows.add(new PostHotScoreRepository.Row(postId, entry.likes, entry.favorites, entry.comments,
+                            entry.createdAt));
+                }
+            }
+            toDelete = new HashSet<>(removed);
+            dirty.clear();
+            removed.clear();
+        }
+
+        try {
+            hotScoreRepository.upsert(rows);
+            hotScoreRepository.delete(toDelete);
+            hotScoreRepository.deleteCreatedBefore(cutoff);
+        } catch (DataAccessException e) {
+            log.warn("热门排行快照写入失败，下次重试：{}", e.getMessage());
+            synchronized (lock) {
+                rows.forEach(row -> dirty.add(row.postId()));
+                removed.addAll(toDelete);
+            }
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (lock) {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(change);
+                return;
+            }
+            applyLocked(change);
+            publishTop();
+        }
+    }
+
+    private void applyLocked(Change change) {
+        for (Object[] row : change.created()) {
+            long postId = ((Number) row[0]).longValue();
+            if (!entries.containsKey(postId)) {
+                Entry entry = new Entry(postId, (LocalDateTime) row[1], 0, 0, 0);
+                entry.score = score(entry);
+                entries.put(postId, entry);
+                ranking.add(entry);
+                dirty.add(postId);
+            }
+        }
+        change.deltas().forEach((postId, delta) -> {
+            // 不在窗口内（或非公开）的文章不参与排行
+            Entry entry = entries.get(postId);
+            if (entry == null) {
+                return;
+            }
+            ranking.remove(entry);
+            entry.likes = Math.max(0, entry.likes + delta[LIKES]);
+            entry.favorites = Math.max(0, entry.favorites + delta[FAVORITES]);
+            entry.comments = Math.max(0, entry.comments + delta[COMMENTS]);
+            entry.score = score(entry);
+            ranking.add(entry);
+            dirty.add(postId);
+        });
+        for (Long postId : change.deleted()) {
+            Entry entry = entries.remove(postId);
+            if (entry != null) {
+                ranking.remove(entry);
+            }
+            dirty.remove(postId);
+            removed.add(postId);
+        }
+    }
+
+    // 在 lock 内调用：发布前 K 篇的 ID，读取方无需加锁
+    private void publishTop() {
+        List<Long> ids = new ArrayList<>(Math.min(properties.getMaxResults(), ranking.size()));
+        for (Entry entry : ranking) {
+            if (ids.size() >= properties.getMaxResults()) {
+                break;
+            }
+            ids.add(entry.postId);
+        }
+        top = List.copyOf(ids);
+    }
+
+    private double score(Entry entry) {
+        double points = entry.likes * properties.getLikeWeight()
+                + entry.favorites * properties.getFavoriteWeight()
+                + entry.comments * properties.getCommentWeight();
+        long createdSeconds = entry.createdAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        return Math.log1p(points) / Math.log(2) + createdSeconds / halfLifeSeconds;
+    }
+
+    private static void add(Map<Long, long[]> deltas, long postId, int counter, long amount) {
+        deltas.computeIfAbsent(postId, id -> new long[3])[counter] += amount;
+    }
+
+    private static long id(Object[] row) {
+        return ((Number) row[0]).longValue();
+    }
+
+    private static long count(Object[] row) {
+        return ((Number) row[1]).longValue();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
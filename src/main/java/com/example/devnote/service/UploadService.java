@@ -0,0 +1,208 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.UploadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 上传文件的接收
+ *
+ * 容器把 multipart 请求体写到磁盘（file-size-threshold 为 0，不在堆上缓冲）之后，
+ * 这里再通过 NIO 通道以固定大小的缓冲区把它复制到自己的临时文件，边复制边计算 SHA-256 并累计字节数，超过上限立即中止。
+ * 同时处理中的上传数受全局信号量和每个用户的名额限制：名额在 Upload 关闭时才归还，
+ * 因此后台处理（如头像缩放）也计入并发，临时文件占用的磁盘有明确上限。
+ */
+@Service
+public class UploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadProperties properties;
+    private final Path tempDir;
+    private final Semaphore permits;
+    private final Map<Long, Integer> inFlightByUser = new ConcurrentHashMap<>();
+    private final Counter rejectedBusy;
+    private final Counter rejectedTooLarge;
+
+    public UploadService(UploadProperties properties, MeterRegistry registry) throws IOException {
+        this.properties = properties;
+        this.tempDir = properties.getTempDir().isEmpty()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "devnote-uploads")
+                : Paths.get(properties.getTempDir());
+        Files.createDirectories(tempDir);
+        this.permits = new Semaphore(properties.getMaxConcurrent());
+        Gauge.builder("devnote.upload.active", permits, p -> properties.getMaxConcurrent() - p.availablePermits())
+                .description("处理中的上传数")
+                .register(registry);
+        this.rejectedBusy = Counter.builder("devnote.upload.rejected").tag("reason", "busy")
+                .description("因并发名额不足或文件过大被拒绝的上传数")
+                .register(registry);
+        this.rejectedTooLarge = Counter.builder("devnote.upload.rejected").tag("reason", "too_large")
+                .description("因并发名额不足或文件过大被拒绝的上传数")
+                .register(registry);
+    }
+
+    /**
+     * 一次已接收的上传：临时文件及其摘要；用完后必须 close，删除临时文件并归还名额
+     */
+    public final class Upload implements AutoCloseable {
+
+        private final Long userId;
+        private final Path path;
+        private final String sha256;
+        private final long size;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Upload(Long userId, Path path, String sha256, long size) {
+            this.userId = userId;
+            this.path = path;
+            this.sha256 = sha256;
+            this.size = size;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        /** 文件内容的 SHA-256（十六进制小写） */
+        public String getSha256() {
+            return sha256;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    Files.deleteIfExists(path);
+                } finally {
+                    release(userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * 接收上传文件
+     *
+     * @throws IllegalArgumentException 文件超过大小上限
+     * @throws IllegalStateException    该用户已有上传在处理，或全局名额已满
+     */
+    public Upload receive(Long userId, MultipartFile file) throws IOException {
+        long maxBytes = properties.getMaxFileSize().toBytes();
+        if (file.getSize() > maxBytes) {
+            rejectedTooLarge.increment();
+            throw tooLarge();
+        }
+        acquire(userId);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tempDir, "upload", ".tmp");
+            MessageDigest digest = sha256();
+            long size = copy(file, temp, digest, maxBytes);
+            return new Upload(userId, temp, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+            release(userId);
+            throw e;
+        }
+    }
+
+    private long copy(MultipartFile file, Path target, MessageDigest digest, long maxBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = 0;
+        try (ReadableByteChannel in = Channels.newChannel(file.getInputStream());
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                // 声明的大小不可信，按实际读到的字节数判断
+                if (size > maxBytes) {
+                    rejectedTooLarge.increment();
+                    throw tooLarge();
+                }
+                buffer.mark();
+                digest.update(buffer);
+                buffer.reset();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return size;
+    }
+
+    private void acquire(Long userId) {
+        // 先占用户名额（不等待），再占全局名额（最多等待 acquireTimeout）
+        int limit = properties.getMaxPerUser();
+        boolean[] granted = new boolean[1];
+        inFlightByUser.compute(userId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            granted[0] = current < limit;
+            return granted[0] ? current + 1 : count;
+        });
+        if (!granted[0]) {
+            rejectedBusy.increment();
+            throw new IllegalStateException("上一个文件还在处理中，请稍后再试");
+        }
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!acquired) {
+            releaseUser(userId);
+            rejectedBusy.increment();
+            throw new IllegalStateException("上传繁忙，请稍后重试");
+        }
+    }
+
+    private void release(Long userId) {
+        permits.release();
+        releaseUser(userId);
+    }
+
+    private void releaseUser(Long userId) {
+        inFlightByUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private IllegalArgumentException tooLarge() {
+        return new IllegalArgumentException("文件不能超过 " + properties.getMaxFileSize().toMegabytes() + "MB");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.devnote.service;
+
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.event.EngagementEventListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 用户名前缀补全（搜索框、评论里的 @提及）
+ *
+ * 所有用户名（转小写）放在一棵压缩前缀树（PrefixTrie）里，权重为粉丝数：按前缀取粉丝最多的若干个用户，
+ * 只展开能进入结果的子树，与用户总数无关，不查询数据库。
+ *
+ *  - 启动完成后从 users 表全量加载（只读 id、用户名、粉丝数三列）
+ *  - 注册成功后（事务提交后）插入新用户
+ *  - 关注 / 取关事件在批次提交后增量调整粉丝数；事件重复投递等造成的偏差由定时全量重建修正
+ *
+ * 加载期间到达的新用户在加载完成后补进新快照；粉丝数的增量不重放：users.followers_count 在监听器的
+ * afterCommit 之前已经提交，快照可能已经包含了它们，重放会重复计入。没包含到的由下一次重建补上。
+ *
+ * 用户名在 MySQL 中按不区分大小写的排序规则唯一，小写后不会冲突。
+ * 并发：查询持读锁，可以同时进行；更新与重建持写锁。
+ */
+@Component
+public class UserSearchIndex implements EngagementEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final String LOAD_SQL = "SELECT id, username, followers_count FROM users";
+
+    /** 一个补全结果 */
+    public record Suggestion(long userId, String username, long followersCount) {
+    }
+
+    /**
+     * 索引的全部数据；重建时整体替换
+     */
+    private static final class State {
+        private final PrefixTrie trie = new PrefixTrie();
+        // 小写用户名 → 用户；用户 ID → 小写用户名
+        private final Map<String, Suggestion> users = new HashMap<>();
+        private final Map<Long, String> keys = new HashMap<>();
+
+        private void add(long userId, String username) {
+            if (!keys.containsKey(userId)) {
+                put(userId, username, 0);
+            }
+        }
+
+        private void put(long userId, String username, long followersCount) {
+            String key = username.toLowerCase(Locale.ROOT);
+            trie.put(key, followersCount);
+            users.put(key, new Suggestion(userId, username, followersCount));
+            keys.put(userId, key);
+        }
+
+        private void adjust(long userId, long delta) {
+            String key = keys.get(userId);
+            Suggestion user = key == null ? null : users.get(key);
+            if (user != null) {
+                put(userId, user.username(), Math.max(0, user.followersCount() + delta));
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer suggestTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // 以下字段由 lock 保护
+    private State state = new State();
+    private boolean loaded = false;
+    // 加载期间新增的用户，加载完成后补进新快照
+    private List<Consumer<State>> pendingDuringLoad;
+
+    public UserSearchIndex(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.suggestTimer = Timer.builder("devnote.users.suggest")
+                .description("一次用户名补全的耗时")
+                .register(registry);
+        Gauge.builder("devnote.users.suggest.indexed", this, UserSearchIndex::size)
+                .description("用户名补全索引中的用户数")
+                .register(registry);
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 用户名以 prefix 开头（不区分大小写）、粉丝最多的至多 limit 个用户；粉丝数相同时按用户名排序
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return suggestTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                List<PrefixTrie.Match> matches = state.trie.top(key, limit);
+                List<Suggestion> result = new ArrayList<>(matches.size());
+                for (PrefixTrie.Match match : matches) {
+                    Suggestion user = state.users.get(match.key());
+                    result.add(new Suggestion(user.userId(), user.username(), match.weight()));
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 新增用户（注册）；当前事务提交后执行，没有事务时立即执行
+     */
+    public void addAfterCommit(long userId, String username) {
+        afterCommit(() -> apply(current -> current.add(userId, username), true));
+    }
+
+    @Override
+    public void onEvents(List<EngagementEvent> events) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (EngagementEvent event : events) {
+            if (event instanceof EngagementEvent.UserFollowed e) {
+                deltas.merge(e.followingId(), 1L, Long::sum);
+            } else if (event instanceof EngagementEvent.UserUnfollowed e) {
+                deltas.merge(e.followingId(), -1L, Long::sum);
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            afterCommit(() -> apply(current -> deltas.forEach(current::adjust), false));
+        }
+    }
+
+    /**
+     * 全量加载（启动完成后，以及定时重建），构建完成后原子替换
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${devnote.user-search.rebuild-interval:PT30M}",
+            fixedDelayString = "${devnote.user-search.rebuild-interval:PT30M}")
+    public void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State snapshot = new State();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            snapshot.put(rs.getLong(1), rs.getString(2), rs.getLong(3));
+        });
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringLoad.forEach(update -> update.accept(snapshot));
+            pendingDuringLoad = null;
+            state = snapshot;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("用户名补全索引加载完成：{} 个用户，耗时 {} ms", snapshot.users.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @param replayAfterLoad 正在加载时是否在加载完成后对新快照再执行一次
+     */
+    private void apply(Consumer<State> update, boolean replayAfterLoad) {
+        lock.writeLock().lock();
+        try {
+            update.accept(state);
+            if (replayAfterLoad && pendingDuringLoad != null) {
+                pendingDuringLoad.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
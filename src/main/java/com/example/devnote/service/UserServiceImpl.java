@@ -5,6 +5,7 @@ import com.example.devnote.entity.User;
 import com.example.devnote.exception.UserAlreadyExistsException;
 import com.example.devnote.repository.PostRepository;
 import com.example.devnote.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,6 +17,7 @@ import java.util.List;
 
 // 实现 UserService 接口，提供用户相关的业务逻辑
 @Service
+@Timed(value = "devnote.service", histogram = true)
 public class UserServiceImpl implements UserService {
 
     // 注入 UserRepository
@@ -24,12 +26,16 @@ public class UserServiceImpl implements UserService {
     private final PostRepository postRepository;
     // 注入 PasswordEncoder
     private final PasswordEncoder passwordEncoder;
+    // 用户名补全索引
+    private final UserSearchIndex userSearchIndex;
 
     // 构造函数注入依赖
-    public UserServiceImpl(UserRepository userRepository, PostRepository postRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PostRepository postRepository, PasswordEncoder passwordEncoder,
+                           UserSearchIndex userSearchIndex) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userSearchIndex = userSearchIndex;
     }
 
     // 根据用户名查找用户
@@ -108,8 +114,10 @@ public class UserServiceImpl implements UserService {
         user.setEmail(emailTrim);
 
         try {
-            // 保存用户
-            return userRepository.save(user);
+            // 保存用户，提交后加入用户名补全索引
+            User saved = userRepository.save(user);
+            userSearchIndex.addAfterCommit(saved.getId(), saved.getUsername());
+            return saved;
         } catch (DataIntegrityViolationException ex) {
             // 如果用户名已存在，抛出自定义异常
             throw new UserAlreadyExistsException(username);
@@ -0,0 +1,19 @@
+-- 文章标签：标签名全局唯一（规范化为小写），文章与标签多对多
+CREATE TABLE tags (
+    id         BIGINT      NOT NULL,
+    name       VARCHAR(32) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_tags_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE post_tags (
+    post_id BIGINT NOT NULL,
+    tag_id  BIGINT NOT NULL,
+    PRIMARY KEY (post_id, tag_id),
+    CONSTRAINT fk_post_tags_post FOREIGN KEY (post_id) REFERENCES posts (id),
+    CONSTRAINT fk_post_tags_tag FOREIGN KEY (tag_id) REFERENCES tags (id)
+) ENGINE = InnoDB;
+
+-- 按标签翻页：WHERE tag_id = ? AND post_id < ? ORDER BY post_id DESC（文章 ID 按时间递增）
+CREATE INDEX idx_post_tags_tag_post ON post_tags (tag_id, post_id);
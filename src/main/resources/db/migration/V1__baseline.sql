@@ -0,0 +1,73 @@
+-- 基线表结构：与引入 Flyway 之前 Hibernate（ddl-auto: update）生成的结构一致（主键为 IDENTITY 自增）
+-- 已有数据库由 baseline-on-migrate 标记为版本 1，不会重复执行本脚本，因此之后新增的列和表都放在后续版本里
+
+CREATE TABLE users (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    username        VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    role            VARCHAR(255) NOT NULL,
+    avatar          VARCHAR(255),
+    bio             VARCHAR(500),
+    show_followers  BIT          NOT NULL,
+    show_following  BIT          NOT NULL,
+    show_likes      BIT          NOT NULL,
+    show_favorites  BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE = InnoDB;
+
+CREATE TABLE posts (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    title      VARCHAR(255) NOT NULL,
+    content    TEXT,
+    created_at DATETIME(6),
+    user_id    BIGINT,
+    visibility VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_posts_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE comments (
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    content    VARCHAR(1000) NOT NULL,
+    created_at DATETIME(6),
+    post_id    BIGINT        NOT NULL,
+    user_id    BIGINT        NOT NULL,
+    parent_id  BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_comments_post FOREIGN KEY (post_id) REFERENCES posts (id),
+    CONSTRAINT fk_comments_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_comments_parent FOREIGN KEY (parent_id) REFERENCES comments (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE post_likes (
+    id       BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id  BIGINT      NOT NULL,
+    post_id  BIGINT      NOT NULL,
+    liked_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_post_likes_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_post_likes_post FOREIGN KEY (post_id) REFERENCES posts (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE favorite (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id      BIGINT,
+    post_id      BIGINT,
+    favorited_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_favorite_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_favorite_post FOREIGN KEY (post_id) REFERENCES posts (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE follows (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    follower_id  BIGINT,
+    following_id BIGINT,
+    created_at   DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_follows_follower_following UNIQUE (follower_id, following_id),
+    CONSTRAINT fk_follows_follower FOREIGN KEY (follower_id) REFERENCES users (id),
+    CONSTRAINT fk_follows_following FOREIGN KEY (following_id) REFERENCES users (id)
+) ENGINE = InnoDB;
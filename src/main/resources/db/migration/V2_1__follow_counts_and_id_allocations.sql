@@ -0,0 +1,13 @@
+-- 引入 Flyway 之后新增的结构（基线之后的库与新库都从这里开始有这些列和表）
+
+-- 粉丝数 / 关注数冗余列，数值由 V3 按 follows 表补齐
+ALTER TABLE users ADD COLUMN followers_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN following_count BIGINT DEFAULT 0 NOT NULL;
+
+-- @PooledId 的号段表：每张表一行，next_val 为下一个未分配的 ID（见 IdBlockAllocator）
+-- 主键改为应用内分配后，旧库 id 列上的 AUTO_INCREMENT 不再使用，保留不动（显式写入的 ID 不受影响）
+CREATE TABLE id_allocations (
+    name     VARCHAR(64) NOT NULL,
+    next_val BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
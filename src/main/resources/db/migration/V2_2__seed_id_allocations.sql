@@ -0,0 +1,4 @@
+-- 预先写入 @PooledId 各表的号段行，起点为已有数据的 MAX(id) + 1（见 IdBlockAllocator）
+-- 应用启动后多个节点同时第一次分配时不必再并发插入这一行（MySQL 上两边的插入会互相等待而被判为死锁）
+INSERT INTO id_allocations (name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM users;
+INSERT INTO id_allocations (name, next_val) SELECT 'favorite', COALESCE(MAX(id), 0) + 1 FROM favorite;
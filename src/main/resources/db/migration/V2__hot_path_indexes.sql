@@ -0,0 +1,25 @@
+-- 热点查询的组合索引（对应实体上的 @Index / @UniqueConstraint）
+-- 每个索引服务的查询见 RepositoryIndexUsageTest
+
+-- 首页 / 广场：WHERE visibility = ? ORDER BY created_at DESC
+CREATE INDEX idx_posts_visibility_created ON posts (visibility, created_at);
+
+-- 个人主页、关注动态：WHERE user_id [IN] (...) AND visibility [IN] (...) ORDER BY created_at DESC
+CREATE INDEX idx_posts_user_visibility_created ON posts (user_id, visibility, created_at);
+
+-- “我点赞的文章”：WHERE user_id = ? ORDER BY liked_at DESC
+CREATE INDEX idx_post_likes_user_liked ON post_likes (user_id, liked_at);
+
+-- 同一用户对同一文章只能点赞 / 收藏一次；建唯一索引前先清理并发点击留下的重复行（保留最早的一条）
+DELETE FROM post_likes WHERE id NOT IN (
+    SELECT id FROM (SELECT MIN(id) AS id FROM post_likes GROUP BY user_id, post_id) keep_likes
+);
+CREATE UNIQUE INDEX uk_post_likes_user_post ON post_likes (user_id, post_id);
+
+DELETE FROM favorite WHERE id NOT IN (
+    SELECT id FROM (SELECT MIN(id) AS id FROM favorite GROUP BY user_id, post_id) keep_favorites
+);
+CREATE UNIQUE INDEX uk_favorite_user_post ON favorite (user_id, post_id);
+
+-- 文章详情页评论：WHERE post_id = ? AND parent_id IS NULL ORDER BY created_at
+CREATE INDEX idx_comments_post_parent_created ON comments (post_id, parent_id, created_at);
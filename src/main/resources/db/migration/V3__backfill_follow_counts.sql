@@ -0,0 +1,5 @@
+-- 粉丝数 / 关注数冗余列由 V2.1 以默认值 0 加上，这里按 follows 表补齐一次
+-- 之后由 EngagementCounterListener 按关注 / 取关事件增量维护
+UPDATE users u SET
+    followers_count = (SELECT COUNT(*) FROM follows f WHERE f.following_id = u.id),
+    following_count = (SELECT COUNT(*) FROM follows f WHERE f.follower_id = u.id);
@@ -0,0 +1,4 @@
+-- 用户点赞过的文章数（冗余计数），点赞列表的总数直接读这一列，不再 COUNT post_likes
+ALTER TABLE users ADD COLUMN liked_posts_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE users u SET liked_posts_count = (SELECT COUNT(*) FROM post_likes l WHERE l.user_id = u.id);
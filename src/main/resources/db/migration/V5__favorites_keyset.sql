@@ -0,0 +1,7 @@
+-- “我收藏的文章”：WHERE user_id = ? ORDER BY favorited_at DESC（与点赞列表的 idx_post_likes_user_liked 对称）
+CREATE INDEX idx_favorite_user_favorited ON favorite (user_id, favorited_at);
+
+-- 用户收藏的文章数（冗余计数），收藏列表的总数直接读这一列，不再 COUNT favorite
+ALTER TABLE users ADD COLUMN favorited_posts_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE users u SET favorited_posts_count = (SELECT COUNT(*) FROM favorite f WHERE f.user_id = u.id);
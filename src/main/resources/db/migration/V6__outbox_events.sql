@@ -0,0 +1,9 @@
+-- 事务性 outbox：与点赞 / 收藏 / 关注 / 评论 / 文章写入在同一事务中插入，处理完才删除
+-- id 为时间有序的 Snowflake ID，按主键范围即可找出积压的事件，不需要额外索引
+CREATE TABLE outbox_events (
+    id         BIGINT      NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload    MEDIUMTEXT  NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
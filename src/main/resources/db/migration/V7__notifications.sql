@@ -0,0 +1,20 @@
+-- 通知收件箱：同一收件人、同一类型、同一对象的未读通知合并为一行（“12 人赞了你的文章”），
+-- 只存 ID 和计数，标题、用户名在读取时关联查询
+CREATE TABLE notifications (
+    id            BIGINT      NOT NULL,
+    recipient_id  BIGINT      NOT NULL,
+    type          VARCHAR(16) NOT NULL,
+    target_id     BIGINT      NOT NULL,
+    post_id       BIGINT      NULL,
+    actor_count   INT         NOT NULL,
+    last_actor_id BIGINT      NOT NULL,
+    is_read       BOOLEAN     NOT NULL,
+    updated_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- 收件箱分页：WHERE recipient_id = ? ORDER BY updated_at DESC, id DESC
+CREATE INDEX idx_notifications_recipient_updated ON notifications (recipient_id, updated_at);
+
+-- 合并写入与未读数：WHERE recipient_id = ? AND type = ? AND target_id = ? AND is_read = FALSE
+CREATE INDEX idx_notifications_group ON notifications (recipient_id, is_read, type, target_id);
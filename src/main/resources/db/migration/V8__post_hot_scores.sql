@@ -0,0 +1,13 @@
+-- 热门排行的持久化快照：最近一段时间内公开文章的点赞 / 收藏 / 评论数，由 TrendingService 定时写入，
+-- 启动时读回，不必重新统计 post_likes 等表；热度分数由计数和发布时间算出，不落库（改权重后无需迁移）
+CREATE TABLE post_hot_scores (
+    post_id        BIGINT      NOT NULL,
+    like_count     INT         NOT NULL,
+    favorite_count INT         NOT NULL,
+    comment_count  INT         NOT NULL,
+    created_at     DATETIME(6) NOT NULL,
+    PRIMARY KEY (post_id)
+) ENGINE = InnoDB;
+
+-- 启动加载与清理过期行：WHERE created_at >= ? / WHERE created_at < ?
+CREATE INDEX idx_post_hot_scores_created ON post_hot_scores (created_at);
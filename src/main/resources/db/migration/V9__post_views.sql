@@ -0,0 +1,10 @@
+-- 文章阅读数：view_count 为累计阅读次数，viewer_sketch 为独立访客的 HyperLogLog 草图（2048 个寄存器），
+-- unique_viewers 为草图的估算值（展示时不必解码草图）。由 PostViewCounter 定时批量写入，不在每次访问时写库
+CREATE TABLE post_views (
+    post_id        BIGINT          NOT NULL,
+    view_count     BIGINT          NOT NULL,
+    unique_viewers BIGINT          NOT NULL,
+    viewer_sketch  VARBINARY(2048) NOT NULL,
+    updated_at     DATETIME(6)     NOT NULL,
+    PRIMARY KEY (post_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,38 @@
+// 标签输入补全：对正在输入的最后一个标签请求 /api/tags/suggest，结果填入关联的 datalist
+(function () {
+  document.querySelectorAll('input[data-tag-suggest]').forEach(function (input) {
+    const list = document.getElementById(input.getAttribute('list'));
+    let timer = null;
+    let lastQuery = '';
+
+    input.addEventListener('input', function () {
+      clearTimeout(timer);
+      timer = setTimeout(async function () {
+        const parts = input.value.split(/[,，、\s]+/);
+        const current = parts[parts.length - 1].replace(/^#+/, '');
+        if (!current || current === lastQuery) {
+          return;
+        }
+        lastQuery = current;
+        try {
+          const response = await fetch('/api/tags/suggest?q=' + encodeURIComponent(current));
+          if (!response.ok) {
+            return;
+          }
+          const tags = await response.json();
+          // 选项是补全后的整行输入，选中时替换最后一个标签
+          const head = input.value.slice(0, input.value.length - parts[parts.length - 1].length);
+          list.innerHTML = '';
+          tags.forEach(function (tag) {
+            const option = document.createElement('option');
+            option.value = head + tag.name;
+            option.label = tag.postCount + ' 篇文章';
+            list.appendChild(option);
+          });
+        } catch (e) {
+          // 补全失败不影响输入
+        }
+      }, 150);
+    });
+  });
+})();
@@ -0,0 +1,133 @@
+// 用户名补全：
+//  - 导航栏搜索框（input[data-user-search]）：请求 /api/users/suggest，以 # 开头时改为搜索标签，回车打开第一个结果
+//  - 评论输入框（textarea[data-mention]）：光标前输入 @前缀 时弹出用户列表，点击插入 "@用户名 "
+(function () {
+  const MENTION = /@([^\s@]*)$/;
+
+  async function fetchJson(url) {
+    try {
+      const response = await fetch(url);
+      return response.ok ? await response.json() : [];
+    } catch (e) {
+      // 补全失败不影响输入
+      return [];
+    }
+  }
+
+  // 在 anchor 下方显示的下拉列表
+  function createMenu(anchor) {
+    const menu = document.createElement('div');
+    menu.className = 'list-group position-absolute shadow-sm';
+    menu.style.zIndex = 1050;
+    menu.style.minWidth = '12rem';
+    menu.hidden = true;
+    anchor.parentNode.style.position = 'relative';
+    anchor.parentNode.appendChild(menu);
+    anchor.addEventListener('blur', function () {
+      // 延迟关闭，让列表项的点击先生效
+      setTimeout(function () { menu.hidden = true; }, 150);
+    });
+    return menu;
+  }
+
+  function fillMenu(menu, items) {
+    menu.innerHTML = '';
+    items.forEach(function (item) {
+      const entry = document.createElement(item.href ? 'a' : 'button');
+      entry.className = 'list-group-item list-group-item-action d-flex justify-content-between small py-1';
+      if (item.href) {
+        entry.href = item.href;
+      } else {
+        entry.type = 'button';
+        entry.addEventListener('mousedown', function (event) {
+          event.preventDefault();
+          item.select();
+        });
+      }
+      const label = document.createElement('span');
+      label.textContent = item.label;
+      const hint = document.createElement('span');
+      hint.className = 'text-muted ms-3';
+      hint.textContent = item.hint;
+      entry.append(label, hint);
+      menu.appendChild(entry);
+    });
+    menu.hidden = items.length === 0;
+  }
+
+  function debounce(fn) {
+    let timer = null;
+    return function () {
+      clearTimeout(timer);
+      timer = setTimeout(fn, 150);
+    };
+  }
+
+  document.querySelectorAll('input[data-user-search]').forEach(function (input) {
+    const menu = createMenu(input);
+    let first = null;
+
+    input.addEventListener('input', debounce(async function () {
+      const query = input.value.trim();
+      let items = [];
+      if (query.startsWith('#')) {
+        const name = query.replace(/^#+/, '');
+        if (name) {
+          const tags = await fetchJson('/api/tags/suggest?q=' + encodeURIComponent(name));
+          items = tags.map(function (tag) {
+            return { label: '#' + tag.name, hint: tag.postCount + ' 篇文章', href: '/tags/' + encodeURIComponent(tag.name) };
+          });
+        }
+      } else if (query) {
+        const users = await fetchJson('/api/users/suggest?q=' + encodeURIComponent(query));
+        items = users.map(function (user) {
+          return { label: user.username, hint: user.followersCount + ' 粉丝', href: '/user/' + encodeURIComponent(user.username) };
+        });
+      }
+      if (query !== input.value.trim()) {
+        return; // 已有更新的输入
+      }
+      first = items.length > 0 ? items[0].href : null;
+      fillMenu(menu, items);
+    }));
+
+    input.addEventListener('keydown', function (event) {
+      if (event.key === 'Enter' && first) {
+        event.preventDefault();
+        window.location.href = first;
+      } else if (event.key === 'Escape') {
+        menu.hidden = true;
+      }
+    });
+  });
+
+  document.querySelectorAll('textarea[data-mention]').forEach(function (textarea) {
+    const menu = createMenu(textarea);
+
+    textarea.addEventListener('input', debounce(async function () {
+      const caret = textarea.selectionStart;
+      const match = MENTION.exec(textarea.value.slice(0, caret));
+      if (!match || !match[1]) {
+        menu.hidden = true;
+        return;
+      }
+      const prefix = match[1];
+      const users = await fetchJson('/api/users/suggest?q=' + encodeURIComponent(prefix));
+      fillMenu(menu, users.map(function (user) {
+        return {
+          label: '@' + user.username,
+          hint: user.followersCount + ' 粉丝',
+          select: function () {
+            // 替换光标前的 @前缀
+            const start = caret - prefix.length;
+            const inserted = user.username + ' ';
+            textarea.value = textarea.value.slice(0, start) + inserted + textarea.value.slice(caret);
+            textarea.selectionStart = textarea.selectionEnd = start + inserted.length;
+            menu.hidden = true;
+            textarea.focus();
+          }
+        };
+      }));
+    }));
+  });
+})();
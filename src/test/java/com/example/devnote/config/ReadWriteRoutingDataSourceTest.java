@@ -0,0 +1,161 @@
+package com.example.devnote.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写分离路由测试
+ * 用两个 H2 内存库分别模拟主库和副本，各有一张 marker 表记录自己的名字，
+ * 通过查询 marker 判断连接实际来自哪个库。
+ */
+@DisplayName("ReadWriteRoutingDataSource 单元测试")
+class ReadWriteRoutingDataSourceTest {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("routing_primary");
+        replica = h2("routing_replica");
+        routing = new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(5),
+                new SimpleMeterRegistry(), new MutableClock());
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("DROP TABLE marker");
+        new JdbcTemplate(replica).execute("DROP TABLE marker");
+    }
+
+    @Test
+    @DisplayName("只读事务走副本，写事务和无事务访问走主库")
+    void routesByTransactionReadOnlyFlag() {
+        assertEquals("primary", readMarker(writeTx));
+        assertEquals("replica", readMarker(readTx));
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    @DisplayName("用户写入后 stickyWindow 内其读请求走主库，其他用户不受影响，窗口过后回到副本")
+    void readYourWritesAfterCommit() {
+        login("alice");
+        writeTx.executeWithoutResult(s -> jdbcTemplate.update("UPDATE marker SET name = name"));
+        assertEquals("primary", readMarker(readTx));
+
+        login("bob");
+        assertEquals("replica", readMarker(readTx));
+
+        login("alice");
+        now.set(now.get().plusSeconds(6));
+        assertEquals("replica", readMarker(readTx));
+    }
+
+    @Test
+    @DisplayName("写事务回滚不触发读己之写")
+    void rolledBackWriteIsNotSticky() {
+        login("alice");
+        writeTx.executeWithoutResult(s -> {
+            jdbcTemplate.update("UPDATE marker SET name = name");
+            s.setRollbackOnly();
+        });
+
+        assertEquals("replica", readMarker(readTx));
+    }
+
+    @Test
+    @DisplayName("副本延迟超过阈值、复制停止或检查失败时读回到主库")
+    void lagMonitorFallsBackToPrimary() {
+        assertEquals(Duration.ZERO, monitor("SELECT 0 AS Seconds_Behind_Source").currentLag());
+
+        monitor("SELECT 30 AS Seconds_Behind_Source").check();
+        assertFalse(routing.isReplicaAvailable());
+        assertEquals("primary", readMarker(readTx));
+
+        monitor("SELECT 1 AS Seconds_Behind_Source").check();
+        assertTrue(routing.isReplicaAvailable());
+        assertEquals("replica", readMarker(readTx));
+
+        monitor("SELECT CAST(NULL AS INT) AS Seconds_Behind_Source").check();
+        assertFalse(routing.isReplicaAvailable());
+
+        monitor("SELECT 1 AS Seconds_Behind_Source").check();
+        monitor("SHOW REPLICA STATUS").check();
+        assertFalse(routing.isReplicaAvailable());
+    }
+
+    private ReplicaLagMonitor monitor(String lagQuery) {
+        ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+        properties.setLagQuery(lagQuery);
+        properties.setMaxLag(Duration.ofSeconds(5));
+        return new ReplicaLagMonitor(replica, routing, properties, new SimpleMeterRegistry());
+    }
+
+    private String readMarker(TransactionTemplate tx) {
+        return tx.execute(s -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(16))");
+        jdbc.update("INSERT INTO marker VALUES (?)", name.substring("routing_".length()));
+        return dataSource;
+    }
+
+    private class MutableClock extends Clock {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    }
+}
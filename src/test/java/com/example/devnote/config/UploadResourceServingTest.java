@@ -0,0 +1,110 @@
+package com.example.devnote.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 上传文件访问测试
+ * 测试头像的永久缓存头、ETag 协商，以及大文件走 sendfile、小文件直接写出
+ */
+@DisplayName("上传文件静态资源映射测试")
+class UploadResourceServingTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ResourceHttpRequestHandler avatars;
+    private ResourceHttpRequestHandler uploads;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(uploadDir.resolve("avatars/ab"));
+        WebConfig config = new WebConfig();
+        ReflectionTestUtils.setField(config, "uploadDir", uploadDir.toString());
+        var urlMap = config.uploadHandlerMapping().getUrlMap();
+        avatars = (ResourceHttpRequestHandler) urlMap.get("/uploads/avatars/**");
+        uploads = (ResourceHttpRequestHandler) urlMap.get("/uploads/**");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("大文件只设置 sendfile 属性，不经过堆内缓冲写响应体")
+    void largeFilesUseSendfile() throws Exception {
+        Path file = Files.write(uploadDir.resolve("avatars/ab/abcd-256.jpg"), new byte[100 * 1024]);
+        MockHttpServletRequest request = request("ab/abcd-256.jpg", true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        avatars.handleRequest(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(100 * 1024, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(file.toFile().getAbsolutePath(), request.getAttribute(SendfileResourceHttpMessageConverter.FILENAME_ATTR));
+        assertEquals(100 * 1024L, request.getAttribute(SendfileResourceHttpMessageConverter.END_ATTR));
+        assertEquals("max-age=31536000, public, immutable", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    @DisplayName("小文件或连接器不支持 sendfile 时照常写出")
+    void smallFilesAreWrittenDirectly() throws Exception {
+        Files.write(uploadDir.resolve("avatars/ab/abcd-64.jpg"), new byte[1024]);
+        Files.write(uploadDir.resolve("old.png"), new byte[100 * 1024]);
+
+        MockHttpServletResponse small = new MockHttpServletResponse();
+        avatars.handleRequest(request("ab/abcd-64.jpg", true), small);
+        assertEquals(1024, small.getContentAsByteArray().length);
+
+        MockHttpServletRequest request = request("old.png", false);
+        MockHttpServletResponse unsupported = new MockHttpServletResponse();
+        uploads.handleRequest(request, unsupported);
+        assertEquals(100 * 1024, unsupported.getContentAsByteArray().length);
+        assertNull(request.getAttribute(SendfileResourceHttpMessageConverter.FILENAME_ATTR));
+        assertEquals("max-age=604800, public", unsupported.getHeader("Cache-Control"));
+    }
+
+    @Test
+    @DisplayName("带 If-None-Match 的重复请求返回 304")
+    void revalidatesWithEtag() throws Exception {
+        Files.write(uploadDir.resolve("old.png"), new byte[10]);
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        uploads.handleRequest(request("old.png", true), first);
+        String etag = first.getHeader("ETag");
+        assertNotNull(etag);
+
+        MockHttpServletRequest again = request("old.png", true);
+        again.addHeader("If-None-Match", etag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        uploads.handleRequest(again, second);
+        assertEquals(304, second.getStatus());
+        assertEquals(0, second.getContentAsByteArray().length);
+    }
+
+    private static MockHttpServletRequest request(String path, boolean sendfileSupported) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + path);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+        if (sendfileSupported) {
+            request.setAttribute(SendfileResourceHttpMessageConverter.SUPPORT_ATTR, Boolean.TRUE);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.devnote.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 键集分页游标与 CursorPage 单元测试
+ */
+@DisplayName("KeysetCursor / CursorPage 单元测试")
+class KeysetCursorTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000);
+
+    @Test
+    @DisplayName("编码后可以原样解析回来，空游标表示第一页")
+    void roundTrip() {
+        KeysetCursor cursor = new KeysetCursor(TIME, 42L);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+    }
+
+    @Test
+    @DisplayName("格式不正确的游标抛出 IllegalArgumentException")
+    void rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("%%%"));
+    }
+
+    @Test
+    @DisplayName("多取的一条只用来判断是否有下一页，游标指向本页最后一条")
+    void cursorPageFromOverFetchedRows() {
+        List<SavedPostDto> rows = List.of(
+                new SavedPostDto(1L, "a", TIME, 30L),
+                new SavedPostDto(2L, "b", TIME, 20L),
+                new SavedPostDto(3L, "c", TIME.minusSeconds(1), 10L));
+
+        CursorPage<SavedPostDto> page = CursorPage.of(rows, 2, 7L);
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals(new KeysetCursor(TIME, 20L), KeysetCursor.decode(page.getNextCursor()));
+        assertEquals(7L, page.getTotal());
+
+        CursorPage<SavedPostDto> last = CursorPage.of(rows, 3, null);
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+        assertNull(last.getTotal());
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.devnote.event;
+
+import com.example.devnote.config.EventBusProperties;
+import com.example.devnote.repository.OutboxRepository;
+import com.example.devnote.repository.UserRepository;
+import com.example.devnote.service.EngagementCounterListener;
+import com.example.devnote.service.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * 互动事件总线单元测试
+ * 测试批量分发、队列满时的反压、失败回滚与 outbox 重新投递，以及计数监听器按用户合并增量
+ */
+@DisplayName("EngagementEventBus 单元测试")
+class EngagementEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // outbox 表和事务管理器用 mock 代替：插入的行都还在、都能锁到
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+
+    private EngagementEventBus bus;
+
+    private EngagementEventBus startBus(int capacity, int batchSize, EngagementEventListener... listeners) {
+        EventBusProperties properties = new EventBusProperties();
+        properties.setQueueCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setEnqueueTimeout(Duration.ofMillis(10));
+        when(outboxRepository.lock(anyCollection()))
+                .thenAnswer(invocation -> new HashSet<>(invocation.<Collection<Long>>getArgument(0)));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        bus = new EngagementEventBus(List.of(listeners), outboxRepository, SnowflakeIdGenerator.forWorker(0),
+                transactionManager, properties, meterRegistry);
+        bus.start();
+        return bus;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("积压的事件按批次分发，每批不超过 batchSize，且保持发布顺序")
+    void dispatchesInOrderedBatches() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<EngagementEvent>> batches = new CopyOnWriteArrayList<>();
+        startBus(100, 4, events -> {
+            awaitQuietly(release);
+            batches.add(List.copyOf(events));
+        });
+
+        for (int i = 0; i < 10; i++) {
+            bus.onEvent(new EngagementEvent.PostLiked(i, 100));
+        }
+        release.countDown();
+        assertTrue(bus.awaitIdle(Duration.ofSeconds(5)));
+
+        List<Long> userIds = new ArrayList<>();
+        for (List<EngagementEvent> batch : batches) {
+            assertTrue(batch.size() <= 4);
+            batch.forEach(event -> userIds.add(((EngagementEvent.PostLiked) event).userId()));
+        }
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), userIds);
+        // 第一个事件单独成批（后台线程拿到它时其余还没发布），之后积压的事件合并成批
+        assertTrue(batches.size() < 10);
+    }
+
+    @Test
+    @DisplayName("队列已满时在发布方线程上直接处理，不丢事件")
+    void fallsBackToCallerWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        startBus(1, 1, events -> {
+            if (Thread.currentThread().getName().equals("engagement-events")) {
+                awaitQuietly(release);
+            }
+            events.forEach(event -> threads.add(Thread.currentThread().getName()));
+        });
+
+        // 第 1 个被后台线程取走并阻塞，第 2 个占满队列，第 3 个只能在当前线程处理
+        bus.onEvent(new EngagementEvent.UserFollowed(1, 2));
+        Thread.sleep(100);
+        bus.onEvent(new EngagementEvent.UserFollowed(1, 3));
+        bus.onEvent(new EngagementEvent.UserFollowed(1, 4));
+
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+        assertEquals(1.0, meterRegistry.get("devnote.events.inline").counter().count());
+
+        release.countDown();
+        assertTrue(bus.awaitIdle(Duration.ofSeconds(5)));
+        assertEquals(3, threads.size());
+    }
+
+    @Test
+    @DisplayName("事件写入 outbox，处理成功后删除；监听器失败时不删除，其他监听器照常收到")
+    void keepsOutboxRowsWhenListenerFails() throws InterruptedException {
+        List<EngagementEvent> received = new CopyOnWriteArrayList<>();
+        startBus(100, 10, events -> {
+            if (events.get(0) instanceof EngagementEvent.PostUnfavorited) {
+                throw new IllegalStateException("boom");
+            }
+        }, received::addAll);
+
+        bus.onEvent(new EngagementEvent.PostFavorited(1, 2));
+        assertTrue(bus.awaitIdle(Duration.ofSeconds(5)));
+        verify(outboxRepository).insert(anyLong(), eq(new EngagementEvent.PostFavorited(1, 2)));
+        verify(outboxRepository, times(1)).delete(anyCollection());
+
+        bus.onEvent(new EngagementEvent.PostUnfavorited(1, 2));
+        assertTrue(bus.awaitIdle(Duration.ofSeconds(5)));
+
+        assertEquals(2, received.size());
+        verify(outboxRepository, times(1)).delete(anyCollection());
+        assertEquals(1.0, meterRegistry.get("devnote.events.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("drainOutbox 按批重新投递积压的 outbox 事件，并删除已处理的行")
+    void redeliversStaleOutboxRows() {
+        List<EngagementEvent> received = new CopyOnWriteArrayList<>();
+        startBus(100, 2, received::addAll);
+        when(outboxRepository.lockBefore(anyLong(), anyInt())).thenReturn(
+                List.of(new OutboxRepository.Entry(1, new EngagementEvent.UserFollowed(1, 2)),
+                        new OutboxRepository.Entry(2, new EngagementEvent.UserFollowed(1, 3))),
+                List.of(new OutboxRepository.Entry(3, new EngagementEvent.UserFollowed(1, 4))));
+
+        bus.drainOutbox();
+
+        assertEquals(3, received.size());
+        verify(outboxRepository).delete(List.of(1L, 2L));
+        verify(outboxRepository).delete(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("devnote.events.outbox.redelivered").counter().count());
+    }
+
+    @Test
+    @DisplayName("计数监听器把一批事件按用户合并，相互抵消的操作不产生写入")
+    void counterListenerMergesDeltasPerUser() {
+        UserRepository userRepository = mock(UserRepository.class);
+        EngagementCounterListener listener = new EngagementCounterListener(userRepository);
+
+        listener.onEvents(List.of(
+                new EngagementEvent.PostLiked(1, 10),
+                new EngagementEvent.PostLiked(1, 11),
+                new EngagementEvent.PostFavorited(1, 10),
+                new EngagementEvent.UserFollowed(1, 2),
+                new EngagementEvent.UserFollowed(3, 2),
+                new EngagementEvent.PostLiked(4, 10),
+                new EngagementEvent.PostUnliked(4, 10),
+                new EngagementEvent.PostDeleted(10, 5, List.of(1L), List.of(1L))));
+
+        verify(userRepository).incrementCounts(1L, 1, 0, 0, 1);
+        verify(userRepository).incrementCounts(2L, 0, 0, 2, 0);
+        verify(userRepository).incrementCounts(3L, 0, 0, 0, 1);
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.devnote.load;
+
+import com.example.devnote.config.SeedDataProperties;
+import com.example.devnote.service.SeedDataService;
+import com.example.devnote.service.SeedDataService.SeedResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 端到端压测脚本
+ *
+ * 先用 SeedDataService 生成数据，再启动真实的 Web 服务器，多线程驱动真实接口，
+ * 按场景输出吞吐量、p50 / p99 延迟与每个请求的平均 SQL 条数（Hibernate Statistics）。
+ *
+ * 默认不随 mvn test 执行，使用 load profile 运行：
+ *   ./mvnw -Pload test                               （H2）
+ *   ./mvnw -Pload test -Dload.db=mysql               （Testcontainers MySQL，需要 Docker）
+ *   ./mvnw -Pload test -Dload.users=2000 -Dload.concurrency=32 -Dload.requests=5000
+ *
+ * 报告同时写入 target/load-test/report-时间戳.json。
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate=WARN"
+})
+@ActiveProfiles("test")
+@DisplayName("端到端压测")
+class LoadTest {
+
+    private static final int SEED_USERS = Integer.getInteger("load.users", 200);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 8);
+    private static final int REQUESTS_PER_SCENARIO = Integer.getInteger("load.requests", 500);
+
+    private static MySQLContainer<?> mysql;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        if (!"mysql".equalsIgnoreCase(System.getProperty("load.db", "h2"))) {
+            return;
+        }
+        mysql = new MySQLContainer<>("mysql:8.0");
+        mysql.start();
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "com.mysql.cj.jdbc.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SeedDataService seedDataService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("生成数据并压测主要接口")
+    void runLoadTest() throws Exception {
+        SeedDataProperties config = new SeedDataProperties();
+        config.setUsers(SEED_USERS);
+        config.setPostsPerUser(10);
+        config.setFollowsPerUser(Math.min(50, SEED_USERS / 4));
+        config.setLikesPerUser(50);
+        config.setFavoritesPerUser(10);
+        SeedResult seed = seedDataService.generate(config);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String base = "http://localhost:" + port;
+
+        // 每个线程一个已登录的会话
+        List<HttpClient> sessions = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            sessions.add(login(base, seed.usernames().get(i % seed.usernames().size()), config.getPassword()));
+        }
+        HttpClient anonymous = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        Map<String, Function<ThreadLocalRandom, HttpRequest>> scenarios = new LinkedHashMap<>();
+        scenarios.put("GET / (匿名)", r -> get(base + "/"));
+        scenarios.put("GET / (登录)", r -> get(base + "/"));
+        scenarios.put("GET /posts/{id}", r -> get(base + "/posts/" + randomPost(seed, r)));
+        scenarios.put("GET /user/{username}", r -> get(base + "/user/" + randomUser(seed, r)));
+        scenarios.put("GET /like/status/{id}", r -> get(base + "/like/status/" + randomPost(seed, r)));
+        scenarios.put("POST /like/{id}", r -> post(base + "/like/" + randomPost(seed, r)));
+        scenarios.put("POST /api/follow/{username}", r -> post(base + "/api/follow/" + randomUser(seed, r)));
+        scenarios.put("GET /api/user/{username}/liked-posts", r -> get(base + "/api/user/" + randomUser(seed, r) + "/liked-posts"));
+
+        List<ScenarioReport> reports = new ArrayList<>();
+        for (Map.Entry<String, Function<ThreadLocalRandom, HttpRequest>> scenario : scenarios.entrySet()) {
+            boolean anonymousScenario = scenario.getKey().contains("匿名");
+            reports.add(runScenario(scenario.getKey(), scenario.getValue(), anonymousScenario ? List.of(anonymous) : sessions, statistics));
+        }
+
+        printReport(seed, reports);
+        writeReport(seed, reports);
+
+        long failed = reports.stream().mapToLong(ScenarioReport::serverErrors).sum();
+        assertTrue(failed == 0, "压测期间出现 5xx 响应: " + failed);
+
+        if (mysql != null) {
+            mysql.stop();
+        }
+    }
+
+    private ScenarioReport runScenario(String name, Function<ThreadLocalRandom, HttpRequest> requestFactory,
+                                       List<HttpClient> clients, Statistics statistics) throws Exception {
+        long[] latencies = new long[REQUESTS_PER_SCENARIO];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger serverErrors = new AtomicInteger();
+        AtomicInteger clientErrors = new AtomicInteger();
+
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < CONCURRENCY; t++) {
+            HttpClient client = clients.get(t % clients.size());
+            workers.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int i;
+                while ((i = next.getAndIncrement()) < REQUESTS_PER_SCENARIO) {
+                    long begin = System.nanoTime();
+                    try {
+                        int status = client.send(requestFactory.apply(random), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status >= 500) {
+                            serverErrors.incrementAndGet();
+                        } else if (status >= 400) {
+                            clientErrors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        serverErrors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+        Arrays.sort(latencies);
+        return new ScenarioReport(name, REQUESTS_PER_SCENARIO, REQUESTS_PER_SCENARIO / seconds,
+                percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99), latencies[latencies.length - 1] / 1e6,
+                (double) statements / REQUESTS_PER_SCENARIO, serverErrors.get(), clientErrors.get());
+    }
+
+    private HttpClient login(String base, String username, String password) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        assertTrue(!location.contains("error"), "登录失败: " + username);
+        return client;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static HttpRequest post(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private static long randomPost(SeedResult seed, ThreadLocalRandom random) {
+        return seed.postIds()[random.nextInt(seed.postIds().length)];
+    }
+
+    private static String randomUser(SeedResult seed, ThreadLocalRandom random) {
+        return seed.usernames().get(random.nextInt(seed.usernames().size()));
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static void printReport(SeedResult seed, List<ScenarioReport> reports) {
+        System.out.printf("%n数据量：用户 %d，文章 %d，关注 %d，点赞 %d，收藏 %d，评论 %d（生成耗时 %d ms）%n",
+                seed.userIds().length, seed.postIds().length, seed.follows(), seed.likes(), seed.favorites(),
+                seed.comments(), seed.elapsedMillis());
+        System.out.printf("并发 %d，每个场景 %d 次请求%n", CONCURRENCY, REQUESTS_PER_SCENARIO);
+        System.out.printf("%-40s %10s %10s %10s %10s %10s %6s %6s%n",
+                "场景", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "SQL/req", "5xx", "4xx");
+        for (ScenarioReport r : reports) {
+            System.out.printf("%-40s %10.1f %10.2f %10.2f %10.2f %10.2f %6d %6d%n",
+                    r.name(), r.throughput(), r.p50Millis(), r.p99Millis(), r.maxMillis(),
+                    r.statementsPerRequest(), r.serverErrors(), r.clientErrors());
+        }
+    }
+
+    private static void writeReport(SeedResult seed, List<ScenarioReport> reports) throws IOException {
+        File dir = new File("target/load-test");
+        dir.mkdirs();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("database", System.getProperty("load.db", "h2"));
+        json.put("concurrency", CONCURRENCY);
+        json.put("requestsPerScenario", REQUESTS_PER_SCENARIO);
+        json.put("users", seed.userIds().length);
+        json.put("posts", seed.postIds().length);
+        json.put("follows", seed.follows());
+        json.put("likes", seed.likes());
+        json.put("scenarios", reports);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(new File(dir, "report-" + timestamp + ".json"), json);
+    }
+
+    record ScenarioReport(String name,
+                          int requests,
+                          double throughput,
+                          double p50Millis,
+                          double p99Millis,
+                          double maxMillis,
+                          double statementsPerRequest,
+                          long serverErrors,
+                          long clientErrors) {
+    }
+}
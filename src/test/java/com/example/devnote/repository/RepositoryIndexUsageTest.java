@@ -0,0 +1,330 @@
+package com.example.devnote.repository;
+
+import com.example.devnote.config.SeedDataProperties;
+import com.example.devnote.entity.Comment;
+import com.example.devnote.entity.Notification;
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.service.SeedDataService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 迁移脚本与索引使用检查
+ *
+ *  - 表结构完全由 Flyway 迁移脚本创建（不让 Hibernate 建表），生成测试数据和执行查询即覆盖了实体与表的映射
+ *  - 逐个调用仓库中声明的查询方法，记录 Hibernate 实际发出的 SQL，逐条 EXPLAIN，
+ *    执行计划中出现全表扫描（H2 中为 tableScan）即失败
+ *  - 仓库中新增查询方法而没有加到这里时同样失败
+ *  - 部分热点查询额外检查使用了迁移脚本中的组合 / 唯一索引（H2 的优化器比 MySQL 简单，
+ *    很多查询会选单列外键索引，所以只对执行计划稳定的查询做这项检查）
+ *
+ * 使用 H2（MySQL 模式）：H2 的 EXPLAIN 可以直接解释带 ? 参数的语句，执行计划中会标出使用的索引。
+ * 这里不用 ddl-auto=validate：H2 把 TEXT 列报告为 VARCHAR，与实体上的 TEXT 对不上；生产环境（MySQL）仍以 validate 启动。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:index_usage;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.devnote.repository.RepositoryIndexUsageTest$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DisplayName("迁移脚本与仓库查询索引使用检查")
+class RepositoryIndexUsageTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\*\\s*PUBLIC\\.(\\w+)\\.tableScan");
+
+    /** 按设计需要扫描整表的查询：方法 -> 允许扫描的表 */
+    private static final Map<String, Set<String>> ALLOWED_SCANS = Map.of(
+            "PostRepository.findAll", Set.of("POSTS"),
+            "UserRepository.recalculateFollowCounts()", Set.of("USERS"),
+            "UserRepository.recalculateLikedPostsCounts", Set.of("USERS"),
+            "UserRepository.recalculateFavoritedPostsCounts", Set.of("USERS"));
+
+    /** 必须使用指定索引的查询：方法 -> 索引名 */
+    private static final Map<String, String> EXPECTED_INDEXES = Map.of(
+            "PostRepository.findByVisibilityOrderByCreatedAtDesc", "IDX_POSTS_VISIBILITY_CREATED",
+            "LikeRepository.findByUserAndPost", "UK_POST_LIKES_USER_POST",
+            "FavoriteRepository.findByUserAndPost", "UK_FAVORITE_USER_POST");
+
+    private static final List<Class<?>> REPOSITORIES = List.of(CommentRepository.class, FavoriteRepository.class,
+            FollowRepository.class, LikeRepository.class, NotificationRepository.class, PostRepository.class,
+            TagRepository.class, UserRepository.class);
+
+    @Autowired private SeedDataService seedDataService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private FavoriteRepository favoriteRepository;
+    @Autowired private FollowRepository followRepository;
+    @Autowired private LikeRepository likeRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private PostRepository postRepository;
+    @Autowired private TagRepository tagRepository;
+    @Autowired private UserRepository userRepository;
+
+    private static boolean seeded;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        SeedDataProperties config = new SeedDataProperties();
+        config.setUsers(50);
+        config.setPostsPerUser(5);
+        config.setFollowsPerUser(10);
+        config.setLikesPerUser(20);
+        config.setFavoritesPerUser(5);
+        config.setCommentsPerPost(2);
+        seedDataService.generate(config);
+        // 更新统计信息，让优化器按真实数据分布选择索引
+        jdbcTemplate.execute("ANALYZE");
+        seeded = true;
+    }
+
+    @Test
+    @DisplayName("迁移脚本全部执行，且包含热点查询的组合索引")
+    void migrationsCreateHotPathIndexes() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" = TRUE AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"",
+                String.class);
+        assertEquals(List.of("1", "2", "2.1", "2.2", "3", "4", "5", "6", "7", "8", "9", "10"), versions);
+
+        Set<String> indexes = new TreeSet<>(jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES", String.class));
+        assertTrue(indexes.containsAll(Set.of(
+                "idx_posts_visibility_created",
+                "idx_posts_user_visibility_created",
+                "idx_post_likes_user_liked",
+                "uk_post_likes_user_post",
+                "uk_favorite_user_post",
+                "idx_comments_post_parent_created",
+                "idx_notifications_recipient_updated",
+                "idx_notifications_group",
+                "idx_post_hot_scores_created",
+                "idx_post_tags_tag_post")), indexes::toString);
+    }
+
+    @Test
+    @DisplayName("仓库中的每个查询都走索引，没有全表扫描")
+    void everyRepositoryQueryUsesAnIndex() {
+        Map<String, Runnable> queries = queries();
+
+        Set<String> uncovered = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (queries.keySet().stream().noneMatch(key -> key.equals(name) || key.startsWith(name + "("))) {
+                    uncovered.add(name);
+                }
+            }
+        }
+        assertTrue(uncovered.isEmpty(), "以下仓库方法没有加入索引检查：" + uncovered);
+
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            List<String> statements = capture(query);
+            assertFalse(statements.isEmpty(), name + " 没有发出 SQL");
+            List<String> plans = new ArrayList<>();
+            for (String sql : statements) {
+                if (sql.stripLeading().toLowerCase().startsWith("insert")) {
+                    continue;
+                }
+                String plan = explain(sql);
+                plans.add(plan);
+                Set<String> scanned = tableScans(plan);
+                scanned.removeAll(ALLOWED_SCANS.getOrDefault(name, Set.of()));
+                if (!scanned.isEmpty()) {
+                    failures.add(name + " 全表扫描 " + scanned + "：" + sql);
+                }
+            }
+            String index = EXPECTED_INDEXES.get(name);
+            if (index != null && plans.stream().noneMatch(plan -> plan.contains("PUBLIC." + index + ":"))) {
+                failures.add(name + " 没有使用索引 " + index + "：" + plans);
+            }
+        });
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    private Map<String, Runnable> queries() {
+        User user = userRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        User other = userRepository.findAll(PageRequest.of(1, 1)).getContent().get(0);
+        Post post = postRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        Comment comment = commentRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        Long userId = user.getId();
+        Long otherId = other.getId();
+        List<Long> userIds = List.of(userId, otherId);
+        List<Long> postIds = List.of(post.getId(), post.getId() + 1);
+        PageRequest page = PageRequest.of(0, 10);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("CommentRepository.findByPostAndParentIsNullOrderByCreatedAtAsc",
+                () -> commentRepository.findByPostAndParentIsNullOrderByCreatedAtAsc(post));
+        queries.put("CommentRepository.findByParentOrderByCreatedAtAsc",
+                () -> commentRepository.findByParentOrderByCreatedAtAsc(comment));
+        queries.put("CommentRepository.countByPostIds", () -> commentRepository.countByPostIds(postIds));
+        queries.put("CommentRepository.findAuthorIds", () -> commentRepository.findAuthorIds(List.of(comment.getId())));
+
+        queries.put("FavoriteRepository.findByUserAndPost", () -> favoriteRepository.findByUserAndPost(user, post));
+        queries.put("FavoriteRepository.countByPost", () -> favoriteRepository.countByPost(post));
+        queries.put("FavoriteRepository.countByUser", () -> favoriteRepository.countByUser(user));
+        queries.put("FavoriteRepository.countByPostIds", () -> favoriteRepository.countByPostIds(postIds));
+        queries.put("FavoriteRepository.findUserIdsByPostId", () -> favoriteRepository.findUserIdsByPostId(post.getId()));
+        queries.put("FavoriteRepository.deleteByPostId", () -> favoriteRepository.deleteByPostId(post.getId()));
+        queries.put("FavoriteRepository.findFavoritedPosts", () -> favoriteRepository.findFavoritedPosts(userId, page));
+        queries.put("FavoriteRepository.findFavoritedPostsBefore",
+                () -> favoriteRepository.findFavoritedPostsBefore(userId, LocalDateTime.now(), Long.MAX_VALUE, page));
+
+        queries.put("FollowRepository.findByFollowerAndFollowing", () -> followRepository.findByFollowerAndFollowing(user, other));
+        queries.put("FollowRepository.deleteByIds", () -> followRepository.deleteByIds(userId, otherId));
+        queries.put("FollowRepository.deleteByFollowerIdAndFollowingIdIn",
+                () -> followRepository.deleteByFollowerIdAndFollowingIdIn(userId, userIds));
+        queries.put("FollowRepository.insertIgnore", () -> followRepository.insertIgnore(Long.MAX_VALUE, userId, otherId));
+        queries.put("FollowRepository.findFollowingIdsIn", () -> followRepository.findFollowingIdsIn(userId, userIds));
+        queries.put("FollowRepository.lockFollowingIdsIn", () -> followRepository.lockFollowingIdsIn(userId, userIds));
+        queries.put("FollowRepository.findFollowingIdsByIdIn",
+                () -> followRepository.findFollowingIdsByIdIn(List.of(Long.MAX_VALUE, Long.MAX_VALUE - 1)));
+        queries.put("FollowRepository.existsByFollowerIdAndFollowingId",
+                () -> followRepository.existsByFollowerIdAndFollowingId(userId, otherId));
+        queries.put("FollowRepository.findFollowingIds", () -> followRepository.findFollowingIds(userId));
+        queries.put("FollowRepository.findByFollowing", () -> followRepository.findByFollowing(user));
+        queries.put("FollowRepository.findByFollower", () -> followRepository.findByFollower(user));
+        queries.put("FollowRepository.findFollowingUsers", () -> followRepository.findFollowingUsers(user));
+        queries.put("FollowRepository.findFollowers", () -> followRepository.findFollowers(user));
+        queries.put("FollowRepository.findFollowersPage", () -> followRepository.findFollowersPage(user, page));
+        queries.put("FollowRepository.findFollowingPage", () -> followRepository.findFollowingPage(user, page));
+        queries.put("FollowRepository.countByFollower", () -> followRepository.countByFollower(user));
+        queries.put("FollowRepository.countByFollowing", () -> followRepository.countByFollowing(user));
+
+        queries.put("LikeRepository.findByUserAndPost", () -> likeRepository.findByUserAndPost(user, post));
+        queries.put("LikeRepository.countByPost", () -> likeRepository.countByPost(post));
+        queries.put("LikeRepository.findByUser", () -> likeRepository.findByUser(user));
+        queries.put("LikeRepository.countByUser", () -> likeRepository.countByUser(user));
+        queries.put("LikeRepository.findLikedPostIds", () -> likeRepository.findLikedPostIds(userId, postIds));
+        queries.put("LikeRepository.countByPostIds", () -> likeRepository.countByPostIds(postIds));
+        queries.put("LikeRepository.findLikedPosts", () -> likeRepository.findLikedPosts(userId, page));
+        queries.put("LikeRepository.findLikedPostsBefore",
+                () -> likeRepository.findLikedPostsBefore(userId, LocalDateTime.now(), Long.MAX_VALUE, page));
+        queries.put("LikeRepository.findUserIdsByPostId", () -> likeRepository.findUserIdsByPostId(post.getId()));
+        queries.put("LikeRepository.deleteByPostId", () -> likeRepository.deleteByPostId(post.getId()));
+        queries.put("LikeRepository.countByPostIdsLikedByFollowing",
+                () -> likeRepository.countByPostIdsLikedByFollowing(postIds, userId));
+
+        queries.put("NotificationRepository.mergeUnread", () -> notificationRepository.mergeUnread(
+                userId, Notification.Type.LIKE, post.getId(), 1, List.of(otherId), otherId, LocalDateTime.now()));
+        queries.put("NotificationRepository.findInbox", () -> notificationRepository.findInbox(userId, page));
+        queries.put("NotificationRepository.findInboxBefore",
+                () -> notificationRepository.findInboxBefore(userId, LocalDateTime.now(), Long.MAX_VALUE, page));
+        queries.put("NotificationRepository.countUnread", () -> notificationRepository.countUnread(userId));
+        queries.put("NotificationRepository.markAllRead", () -> notificationRepository.markAllRead(userId));
+
+        queries.put("PostRepository.countByAuthor", () -> postRepository.countByAuthor(user));
+        queries.put("PostRepository.findAll", () -> postRepository.findAll());
+        queries.put("PostRepository.findAuthorIds", () -> postRepository.findAuthorIds(postIds));
+        queries.put("PostRepository.findPublicCreatedAt", () -> postRepository.findPublicCreatedAt(postIds));
+        queries.put("PostRepository.findPublicCreatedSince",
+                () -> postRepository.findPublicCreatedSince(LocalDateTime.now().minusDays(7)));
+        queries.put("PostRepository.findWithAuthorByIdIn", () -> postRepository.findWithAuthorByIdIn(postIds));
+        queries.put("PostRepository.findByAuthorOrderByCreatedAtDesc", () -> {
+            postRepository.findByAuthorOrderByCreatedAtDesc(user);
+            postRepository.findByAuthorOrderByCreatedAtDesc(user, page);
+        });
+        queries.put("PostRepository.findByVisibilityOrderByCreatedAtDesc",
+                () -> postRepository.findByVisibilityOrderByCreatedAtDesc("PUBLIC"));
+        queries.put("PostRepository.findByAuthorAndVisibilityOrderByCreatedAtDesc",
+                () -> postRepository.findByAuthorAndVisibilityOrderByCreatedAtDesc(user, "PUBLIC"));
+        queries.put("PostRepository.findByAuthorIdInAndVisibilityOrderByCreatedAtDesc",
+                () -> postRepository.findByAuthorIdInAndVisibilityOrderByCreatedAtDesc(userIds, "PUBLIC"));
+        queries.put("PostRepository.findByAuthorAndVisibilityInOrderByCreatedAtDesc",
+                () -> postRepository.findByAuthorAndVisibilityInOrderByCreatedAtDesc(user, List.of("PUBLIC", "FOLLOWERS"), page));
+        queries.put("PostRepository.findPublicByTagBefore",
+                () -> postRepository.findPublicByTagBefore("java", Long.MAX_VALUE, page));
+
+        queries.put("TagRepository.findByNameIn", () -> tagRepository.findByNameIn(List.of("java", "spring")));
+
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername(user.getUsername()));
+        queries.put("UserRepository.findByUsernameIn",
+                () -> userRepository.findByUsernameIn(List.of(user.getUsername(), other.getUsername())));
+        queries.put("UserRepository.findExistingIds", () -> userRepository.findExistingIds(userIds));
+        queries.put("UserRepository.incrementCounts", () -> userRepository.incrementCounts(userId, 1, 1, 1, 1));
+        queries.put("UserRepository.updateAvatar", () -> userRepository.updateAvatar(userId, "/uploads/avatars/ab/abcd"));
+        queries.put("UserRepository.recalculateLikedPostsCounts", () -> userRepository.recalculateLikedPostsCounts());
+        queries.put("UserRepository.recalculateFavoritedPostsCounts", () -> userRepository.recalculateFavoritedPostsCounts());
+        queries.put("UserRepository.recalculateFollowCounts()", () -> userRepository.recalculateFollowCounts());
+        return queries;
+    }
+
+    /**
+     * 在回滚的事务中执行查询，返回期间发出的 SQL
+     */
+    private List<String> capture(Runnable query) {
+        SqlCapture.STATEMENTS.clear();
+        SqlCapture.enabled = true;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                query.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            SqlCapture.enabled = false;
+        }
+        return new ArrayList<>(SqlCapture.STATEMENTS);
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    private static Set<String> tableScans(String plan) {
+        Set<String> tables = new TreeSet<>();
+        Matcher matcher = TABLE_SCAN.matcher(plan);
+        while (matcher.find()) {
+            tables.add(matcher.group(1));
+        }
+        return tables;
+    }
+
+    /**
+     * 记录 Hibernate 发出的 SQL（通过 hibernate.session_factory.statement_inspector 注册）
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        static volatile boolean enabled;
+
+        @Override
+        public String inspect(String sql) {
+            if (enabled) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
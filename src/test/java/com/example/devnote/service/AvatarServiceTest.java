@@ -0,0 +1,125 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.UploadProperties;
+import com.example.devnote.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 头像处理单元测试
+ * 测试格式校验、多尺寸生成、按内容去重与模板地址映射
+ */
+@DisplayName("AvatarService 单元测试")
+class AvatarServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private UploadService uploadService;
+
+    private AvatarService avatarService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        UploadProperties properties = new UploadProperties();
+        properties.setTempDir(uploadDir.resolve("tmp").toString());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        uploadService = new UploadService(properties, registry);
+        avatarService = new AvatarService(userRepository, uploadService,
+                new LocalObjectStorage(uploadDir.toString()), 1, 10, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        avatarService.shutdown();
+    }
+
+    @Test
+    @DisplayName("生成三种尺寸的正方形 JPEG，文件名由内容决定")
+    void storesAllVariants() throws IOException {
+        String avatar = store(png(800, 600));
+
+        assertTrue(avatar.startsWith("/uploads/avatars/"));
+        for (AvatarService.Variant variant : AvatarService.Variant.values()) {
+            String url = avatarService.url(avatar, variant.name().toLowerCase());
+            BufferedImage image = ImageIO.read(uploadDir.resolve(url.substring("/uploads/".length())).toFile());
+            assertEquals(variant.getSize(), image.getWidth());
+            assertEquals(variant.getSize(), image.getHeight());
+        }
+    }
+
+    @Test
+    @DisplayName("同一张图只处理一次，小图不放大")
+    void deduplicatesByContent() throws IOException {
+        byte[] bytes = png(100, 100);
+        String first = store(bytes);
+        Path large = uploadDir.resolve(avatarService.url(first, "large").substring("/uploads/".length()));
+        long modified = Files.getLastModifiedTime(large).toMillis();
+
+        assertEquals(first, store(bytes));
+        assertEquals(modified, Files.getLastModifiedTime(large).toMillis());
+        assertEquals(100, ImageIO.read(large.toFile()).getWidth());
+        assertNotEquals(first, store(png(101, 100)));
+    }
+
+    @Test
+    @DisplayName("非图片在提交前被拒绝，合法图片处理完成后更新用户头像")
+    void validatesBeforeSubmitting() throws Exception {
+        MockMultipartFile text = new MockMultipartFile("avatar", "a.png", "image/png",
+                "not an image".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> avatarService.submit(1L, text));
+        verifyNoInteractions(userRepository);
+
+        MockMultipartFile image = new MockMultipartFile("avatar", "a.png", "image/png", png(300, 300));
+        String avatar = avatarService.submit(1L, image).get(5, TimeUnit.SECONDS);
+        verify(userRepository).updateAvatar(1L, avatar);
+        // 处理完后临时文件被删除
+        try (var files = Files.list(uploadDir.resolve("tmp"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("默认头像和旧版原图地址原样返回")
+    void mapsUrls() {
+        assertEquals(AvatarService.DEFAULT_AVATAR, avatarService.url(null, "small"));
+        assertEquals("/uploads/old.png", avatarService.url("/uploads/old.png", "small"));
+        assertEquals("/uploads/avatars/ab/abcd-64.jpg", avatarService.url("/uploads/avatars/ab/abcd", "small"));
+        assertEquals("/uploads/avatars/ab/abcd-256.jpg", avatarService.url("/uploads/avatars/ab/abcd", "large"));
+    }
+
+    // 与上传时一样：先落到临时文件，以内容哈希命名
+    private String store(byte[] bytes) throws IOException {
+        MockMultipartFile file = new MockMultipartFile("avatar", "a.png", "image/png", bytes);
+        try (UploadService.Upload upload = uploadService.receive(1L, file)) {
+            return avatarService.store(upload.getPath(), upload.getSha256());
+        }
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(width / 2, height / 2, 0xFF3366CC);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.CacheMetrics;
+import com.example.devnote.config.RecommendationProperties;
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 关注推荐单元测试
+ * 测试按共同关注数排序、排除自己和已关注的人、按 ID 区间并行计数后的合并、扇出上限，以及缓存失效
+ */
+@DisplayName("FollowRecommendationService 单元测试")
+class FollowRecommendationServiceTest {
+
+    private FollowGraphIndex followGraph;
+    private RecommendationProperties properties;
+    private FollowRecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        followGraph = new FollowGraphIndex(mock(JdbcTemplate.class), registry);
+        followGraph.load();
+        properties = new RecommendationProperties();
+        properties.setParallelism(2);
+        service = new FollowRecommendationService(followGraph, mock(UserRepository.class), mock(AvatarService.class),
+                new CacheMetrics(registry), properties, registry);
+
+        // 1 关注 2、3、4；2、3、4 都关注 5，2、3 关注 6，4 关注 7，2 关注 1（自己）和 3（已关注）
+        follow(1, 2, 3, 4);
+        follow(2, 5, 6, 1, 3);
+        follow(3, 5, 6);
+        follow(4, 5, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("按共同关注数排序，排除自己和已关注的人")
+    void ranksByMutualCount() {
+        assertEquals(List.of(new FollowRecommendationService.Recommendation(5, 3),
+                        new FollowRecommendationService.Recommendation(6, 2),
+                        new FollowRecommendationService.Recommendation(7, 1)),
+                service.recommend(1, 10));
+        assertEquals(2, service.recommend(1, 2).size());
+        assertEquals(List.of(), service.recommend(99, 10));
+    }
+
+    @Test
+    @DisplayName("结果缓存到本人关注 / 取关为止")
+    void cachesUntilOwnFollowChanges() {
+        assertEquals(5, service.recommend(1, 10).get(0).userId());
+
+        // 其他人的关注变化不影响缓存
+        follow(2, 8);
+        follow(3, 8);
+        follow(4, 8);
+        follow(5, 8);
+        service.onEvents(List.of(new EngagementEvent.UserFollowed(2, 8)));
+        assertEquals(3, service.recommend(1, 10).size());
+
+        // 本人关注后失效：5 被排除，8 排到第一（共同关注数相同时 ID 小的在前）
+        follow(1, 5);
+        service.onEvents(List.of(new EngagementEvent.UserFollowed(1, 5)));
+        List<FollowRecommendationService.Recommendation> recommendations = service.recommend(1, 10);
+        assertEquals(new FollowRecommendationService.Recommendation(8, 4), recommendations.get(0));
+        assertEquals(6, recommendations.get(1).userId());
+    }
+
+    @Test
+    @DisplayName("第一跳超过上限时均匀抽样，第二跳每人计入的关注数有上限")
+    void limitsFanOut() {
+        assertArrayEquals(new int[]{0, 2, 4, 6, 8}, FollowRecommendationService.sample(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, 5));
+        assertArrayEquals(new int[]{1, 2}, FollowRecommendationService.sample(new int[]{1, 2}, 5));
+
+        properties.setMaxPerFollowee(1);
+        // 每人只计入 ID 最小的一个关注：2→1（自己，排除），3→5，4→5
+        assertEquals(List.of(new FollowRecommendationService.Recommendation(5, 2)), service.recommend(1, 10));
+    }
+
+    @Test
+    @DisplayName("候选人分布在多个计数区间时，各区间的结果合并后仍按共同关注数排序")
+    void mergesAcrossIdSpans() {
+        follow(2, 100_000, 200_000);
+        follow(3, 100_000, 200_000, 300_000);
+        follow(4, 200_000);
+
+        List<FollowRecommendationService.Recommendation> recommendations = service.recommend(1, 10);
+        assertEquals(List.of(5L, 200_000L, 6L, 100_000L, 7L, 300_000L),
+                recommendations.stream().map(FollowRecommendationService.Recommendation::userId).toList());
+        assertEquals(3, recommendations.get(1).mutualCount());
+    }
+
+    private void follow(long follower, long... followees) {
+        for (long followee : followees) {
+            followGraph.add(follower, followee);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.devnote.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HyperLogLog 单元测试
+ * 测试估算误差、重复元素、合并与序列化
+ */
+@DisplayName("HyperLogLog 单元测试")
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("小基数和大基数的估算误差都在 5% 以内，重复元素不影响结果")
+    void estimatesWithinError() {
+        for (int n : new int[]{100, 10_000, 200_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < n; i++) {
+                sketch.offer("u:" + i);
+                sketch.offer("u:" + i);
+            }
+            long estimate = sketch.estimate();
+            assertTrue(Math.abs(estimate - n) <= n * 0.05, "n=" + n + " estimate=" + estimate);
+        }
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    @DisplayName("合并后等于两个集合的并集，序列化后可还原")
+    void mergesAndRoundTrips() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (int i = 0; i < 6000; i++) {
+            (i < 4000 ? a : b).offer("a:" + i);
+            if (i >= 2000) {
+                b.offer("a:" + i);
+            }
+            union.offer("a:" + i);
+        }
+        HyperLogLog restored = HyperLogLog.fromBytes(a.toBytes());
+        assertEquals(a.estimate(), restored.estimate());
+
+        restored.merge(b);
+        assertArrayEquals(union.toBytes(), restored.toBytes());
+        assertEquals(0, HyperLogLog.fromBytes(new byte[3]).estimate());
+    }
+}
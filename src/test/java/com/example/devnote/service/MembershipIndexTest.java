@@ -0,0 +1,147 @@
+package com.example.devnote.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 成员索引单元测试
+ * 测试关注 / 点赞位图索引的加载、增量更新、一致性校验与交集运算
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FollowGraphIndex / LikeMembershipIndex 单元测试")
+class MembershipIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private FollowGraphIndex index;
+
+    private LikeMembershipIndex likeIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new FollowGraphIndex(jdbcTemplate, meterRegistry);
+        likeIndex = new LikeMembershipIndex(jdbcTemplate, meterRegistry);
+    }
+
+    private double members(String name) {
+        return meterRegistry.get("devnote.membership.index.members").tag("index", name).gauge().value();
+    }
+
+    /**
+     * 让 jdbcTemplate 按给定的 {follower, following} 行回调
+     */
+    private void givenFollowsTable(long[]... rows) throws SQLException {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(row[0]);
+                when(rs.getLong(2)).thenReturn(row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("加载 - 从 follows 表构建索引")
+    void testLoad() throws SQLException {
+        givenFollowsTable(new long[]{1, 3}, new long[]{1, 2}, new long[]{2, 1});
+
+        assertFalse(index.isLoaded());
+        index.load();
+
+        assertTrue(index.isLoaded());
+        assertTrue(index.isFollowing(1, 2));
+        assertTrue(index.isFollowing(1, 3));
+        assertTrue(index.isFollowing(2, 1));
+        assertFalse(index.isFollowing(2, 3));
+        assertArrayEquals(new long[]{2, 3}, index.getFolloweeIds(1));
+        assertEquals(3.0, members("follow"));
+    }
+
+    @Test
+    @DisplayName("增量更新 - add/remove 幂等")
+    void testAddAndRemove() {
+        index.add(1, 5);
+        index.add(1, 3);
+        index.add(1, 5);
+
+        assertArrayEquals(new long[]{3, 5}, index.getFolloweeIds(1));
+        assertEquals(2, index.countFollowees(1));
+
+        index.remove(1, 5);
+        index.remove(1, 5);
+        assertFalse(index.isFollowing(1, 5));
+        assertTrue(index.isFollowing(1, 3));
+
+        index.remove(1, 3);
+        assertEquals(0, index.countFollowees(1));
+        assertEquals(0.0, members("follow"));
+    }
+
+    @Test
+    @DisplayName("一致性校验 - 不一致时用数据库重建")
+    void testVerifyReloadsOnMismatch() throws SQLException {
+        givenFollowsTable(new long[]{1, 2});
+        index.load();
+
+        // 模拟漏掉的删除事件：内存里多了一条
+        index.add(1, 9);
+
+        assertEquals(1, index.verify());
+        assertFalse(index.isFollowing(1, 9));
+        assertEquals(0, index.verify());
+        verify(jdbcTemplate, times(4)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("批量与交集 - 一页文章的点赞状态、关注的人点赞数")
+    void testBatchMembershipAndIntersection() {
+        // 用户 1 关注了 2、3
+        index.add(1, 2);
+        index.add(1, 3);
+        // 文章 10：用户 1、2、3、4 点赞；文章 11：用户 4 点赞
+        likeIndex.add(10, 1);
+        likeIndex.add(10, 2);
+        likeIndex.add(10, 3);
+        likeIndex.add(10, 4);
+        likeIndex.add(11, 4);
+
+        assertEquals(Set.of(10L), likeIndex.findLikedPostIds(1, List.of(10L, 11L, 12L)));
+        assertEquals(4, likeIndex.countLikes(10));
+        assertEquals(0, likeIndex.countLikes(12));
+        assertEquals(2, likeIndex.countLikesAmong(10, index.getFollowees(1)));
+        assertEquals(0, likeIndex.countLikesAmong(11, index.getFollowees(1)));
+        assertEquals(5.0, members("like"));
+    }
+
+    @Test
+    @DisplayName("成员 ID 超出 32 位范围时拒绝写入、查询返回 false")
+    void testMemberOutOfRange() {
+        long tooLarge = 1L << 32;
+        assertThrows(IllegalArgumentException.class, () -> likeIndex.add(10, tooLarge));
+        assertFalse(likeIndex.isLiked(tooLarge, 10));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.CacheMetrics;
+import com.example.devnote.entity.Notification;
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.repository.CommentRepository;
+import com.example.devnote.repository.NotificationRepository;
+import com.example.devnote.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 通知写扩散单元测试
+ * 测试同一批事件按 (收件人, 类型, 对象) 合并并按人去重、自己的操作不通知、没有可合并的未读通知时插入新行，以及未读数缓存（查库期间有写入完成时不填充）
+ */
+@DisplayName("NotificationListener 单元测试")
+class NotificationListenerTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+
+    private NotificationService notificationService;
+    private NotificationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationService(notificationRepository,
+                new CacheMetrics(new SimpleMeterRegistry()), 100);
+        listener = new NotificationListener(notificationRepository, postRepository, commentRepository,
+                notificationService);
+        // 文章 1 的作者是 5，评论 7 的作者是 6
+        when(postRepository.findAuthorIds(anyCollection())).thenReturn(rows(1L, 5L));
+        when(commentRepository.findAuthorIds(anyCollection())).thenReturn(rows(7L, 6L));
+    }
+
+    @Test
+    @DisplayName("同一篇文章的多次点赞合并成一条通知并按人去重，自己的操作不通知")
+    void mergesPerRecipientAndSkipsSelf() {
+        when(notificationRepository.mergeUnread(anyLong(), any(), anyLong(), anyInt(), anyCollection(), anyLong(), any()))
+                .thenReturn(0);
+
+        listener.onEvents(List.of(
+                new EngagementEvent.PostLiked(10, 1),
+                new EngagementEvent.PostLiked(11, 1),
+                // 取消后再次点赞：同一个人只计一次
+                new EngagementEvent.PostLiked(10, 1),
+                new EngagementEvent.PostLiked(11, 1),
+                new EngagementEvent.PostLiked(5, 1),
+                new EngagementEvent.CommentAdded(100, 1, 12, 7L),
+                new EngagementEvent.UserFollowed(13, 13)));
+
+        verify(notificationRepository).mergeUnread(eq(5L), eq(Notification.Type.LIKE), eq(1L), eq(2),
+                eq(Set.of(10L, 11L)), eq(11L), any());
+        verify(notificationRepository).mergeUnread(eq(6L), eq(Notification.Type.REPLY), eq(7L), eq(1),
+                eq(Set.of(12L)), eq(12L), any());
+        ArgumentCaptor<Notification> saved = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationRepository, times(2)).save(saved.capture());
+        Notification like = saved.getAllValues().get(0);
+        assertEquals(5L, like.getRecipientId());
+        assertEquals(2, like.getActorCount());
+        assertEquals(1L, like.getPostId());
+        verifyNoMoreInteractions(notificationRepository);
+    }
+
+    @Test
+    @DisplayName("合并进已有未读通知时不插入新行，未读数不变；插入新行时缓存的未读数累加")
+    void updatesCachedUnreadCountOnlyForNewRows() {
+        when(notificationRepository.countUnread(5L)).thenReturn(3L);
+        assertEquals(3, notificationService.unreadCount(5L));
+
+        when(notificationRepository.mergeUnread(anyLong(), any(), anyLong(), anyInt(), anyCollection(), anyLong(), any()))
+                .thenReturn(1);
+        listener.onEvents(List.of(new EngagementEvent.PostLiked(10, 1)));
+        verify(notificationRepository, never()).save(any());
+        assertEquals(3, notificationService.unreadCount(5L));
+
+        when(notificationRepository.mergeUnread(anyLong(), any(), anyLong(), anyInt(), anyCollection(), anyLong(), any()))
+                .thenReturn(0);
+        listener.onEvents(List.of(new EngagementEvent.UserFollowed(10, 5), new EngagementEvent.PostLiked(10, 1)));
+        assertEquals(5, notificationService.unreadCount(5L));
+
+        notificationService.markAllRead(5L);
+        assertEquals(0, notificationService.unreadCount(5L));
+        verify(notificationRepository, times(1)).countUnread(5L);
+    }
+
+    @Test
+    @DisplayName("查库期间有新未读通知提交时，查到的未读数不放进缓存")
+    void skipsCacheFillWhenWriteCompletesDuringLoad() {
+        when(notificationRepository.countUnread(5L)).thenAnswer(invocation -> {
+            // 查询读到的是提交前的数据，随后新通知提交（此时缓存里还没有该用户，累加被跳过）
+            notificationService.addUnreadAfterCommit(Map.of(5L, 1));
+            return 3L;
+        });
+        assertEquals(3, notificationService.unreadCount(5L));
+
+        when(notificationRepository.countUnread(5L)).thenReturn(4L);
+        assertEquals(4, notificationService.unreadCount(5L));
+        assertEquals(4, notificationService.unreadCount(5L));
+        verify(notificationRepository, times(2)).countUnread(5L);
+    }
+
+    private static List<Object[]> rows(long id, long authorId) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{id, authorId});
+        return rows;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.SseProperties;
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.repository.CommentRepository;
+import com.example.devnote.repository.FavoriteRepository;
+import com.example.devnote.repository.LikeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 文章计数推送单元测试
+ * 测试连接建立时的首次推送、多次互动合并成一次推送、无订阅者时不查询、删除文章时结束连接，以及连接数上限
+ */
+@DisplayName("PostCountStream 单元测试")
+class PostCountStreamTest {
+
+    private final LikeRepository likeRepository = mock(LikeRepository.class);
+    private final FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+
+    private PostCountStream stream;
+    private MockMvc mockMvc;
+
+    @RestController
+    static class StreamController {
+        private final PostCountStream stream;
+
+        StreamController(PostCountStream stream) {
+            this.stream = stream;
+        }
+
+        @GetMapping("/stream/{postId}")
+        SseEmitter stream(@PathVariable long postId) {
+            return stream.subscribe(postId);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        SseProperties properties = new SseProperties();
+        properties.setMaxConnections(2);
+        stream = new PostCountStream(likeRepository, favoriteRepository, commentRepository, new ObjectMapper(),
+                properties, new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(stream)).build();
+        when(likeRepository.countByPostIds(anyCollection())).thenReturn(rows(1L, 3L));
+        when(favoriteRepository.countByPostIds(anyCollection())).thenReturn(List.of());
+        when(commentRepository.countByPostIds(anyCollection())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    @DisplayName("连接后立即推送当前计数；一轮内的多次互动合并成一次推送")
+    void coalescesUpdatesPerFlush() throws Exception {
+        MockHttpServletResponse response = subscribe(1L);
+        awaitEvents(response, 1);
+        assertTrue(response.getContentAsString().contains("\"likeCount\":3"));
+
+        when(likeRepository.countByPostIds(anyCollection())).thenReturn(rows(1L, 5L));
+        when(favoriteRepository.countByPostIds(anyCollection())).thenReturn(rows(1L, 1L));
+        stream.onEvents(List.of(new EngagementEvent.PostLiked(10, 1), new EngagementEvent.PostLiked(11, 1),
+                new EngagementEvent.PostFavorited(10, 1), new EngagementEvent.PostLiked(10, 2)));
+        stream.flush();
+        stream.flush();
+
+        awaitEvents(response, 2);
+        Thread.sleep(100);
+        assertEquals(2, countEvents(response));
+        assertTrue(response.getContentAsString().contains("\"likeCount\":5,\"favoriteCount\":1"));
+        // 初始一次 + 合并后一次；没有订阅者的文章 2 不查询
+        verify(likeRepository, times(2)).countByPostIds(List.of(1L));
+        verifyNoMoreInteractions(likeRepository);
+    }
+
+    @Test
+    @DisplayName("文章删除后结束连接；连接数达到上限时拒绝新订阅")
+    void closesOnDeleteAndLimitsConnections() throws Exception {
+        MockHttpServletResponse first = subscribe(1L);
+        subscribe(2L);
+        assertEquals(2, stream.getConnectionCount());
+        assertThrows(IllegalStateException.class, () -> stream.subscribe(3L));
+
+        awaitEvents(first, 1);
+        stream.onEvents(List.of(new EngagementEvent.PostDeleted(1, 5, List.of(), List.of())));
+        assertEquals(1, stream.getConnectionCount());
+        stream.subscribe(3L);
+    }
+
+    private MockHttpServletResponse subscribe(long postId) throws Exception {
+        return mockMvc.perform(get("/stream/" + postId))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static List<Object[]> rows(long postId, long count) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{postId, count});
+        return rows;
+    }
+
+    private static int countEvents(MockHttpServletResponse response) throws Exception {
+        return response.getContentAsString().split("event:counts", -1).length - 1;
+    }
+
+    private static void awaitEvents(MockHttpServletResponse response, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countEvents(response) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, countEvents(response));
+    }
+}
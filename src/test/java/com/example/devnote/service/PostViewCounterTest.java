@@ -0,0 +1,122 @@
+package com.example.devnote.service;
+
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.repository.PostViewRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * 阅读数计数单元测试
+ * 测试阅读只在内存累加、按代延后一个间隔写库、与库里草图合并、已写库计数的内存缓存（写库前后展示一致），以及删除文章时清理
+ */
+@DisplayName("PostViewCounter 单元测试")
+class PostViewCounterTest {
+
+    private PostViewRepository repository;
+    private PostViewCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PostViewRepository.class);
+        when(repository.findCounts(anyLong())).thenReturn(new PostViewRepository.Counts(0, 0));
+        counter = new PostViewCounter(repository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("阅读只在内存累加，换下的一代在下一次写库时才写入")
+    void flushesRetiredGeneration() {
+        counter.record(1, "u:alice");
+        counter.record(1, "u:alice");
+        counter.record(1, "u:bob");
+        counter.record(2, "a:127.0.0.1|curl");
+        verifyNoInteractions(repository);
+        assertEquals(3, counter.counts(1).views());
+
+        // 第一次只换代，不写库；换下的增量仍计入展示
+        counter.flush();
+        verify(repository, never()).upsert(anyCollection());
+        assertEquals(3, counter.counts(1).views());
+
+        counter.record(1, "u:carol");
+        counter.flush();
+        List<PostViewRepository.Row> rows = captureUpsert();
+        assertEquals(2, rows.size());
+        PostViewRepository.Row post1 = rows.stream().filter(row -> row.postId() == 1).findFirst().orElseThrow();
+        assertEquals(3, post1.views());
+        assertEquals(2, post1.uniqueViewers());
+        // 已写库的 3 次加上还在内存里的第二代（carol）
+        assertEquals(4, counter.counts(1).views());
+    }
+
+    @Test
+    @DisplayName("写库时与库里保存的草图合并，阅读次数只写增量")
+    void mergesWithSavedSketch() {
+        HyperLogLog saved = new HyperLogLog();
+        saved.offer("u:alice");
+        saved.offer("u:dave");
+        when(repository.findSketches(anyCollection())).thenReturn(Map.of(1L, saved.toBytes()));
+
+        counter.record(1, "u:alice");
+        counter.record(1, "u:bob");
+        counter.flushAll();
+
+        PostViewRepository.Row row = captureUpsert().get(0);
+        assertEquals(2, row.views());
+        assertEquals(3, row.uniqueViewers());
+        assertEquals(0, counter.pendingCount());
+    }
+
+    @Test
+    @DisplayName("已写库的计数每篇文章只查一次，之后由写库时在内存中更新")
+    void cachesPersistedCounts() {
+        when(repository.findCounts(1)).thenReturn(new PostViewRepository.Counts(100, 40));
+        assertEquals(100, counter.counts(1).views());
+
+        counter.record(1, "u:alice");
+        counter.record(1, "u:bob");
+        // 写库期间正在写的增量仍计入展示，写完后移到已写库的计数里，前后一致
+        List<Long> duringWrite = new ArrayList<>();
+        doAnswer(invocation -> duringWrite.add(counter.counts(1).views())).when(repository).upsert(anyCollection());
+        counter.flushAll();
+        assertEquals(List.of(102L), duringWrite);
+        PostViewRepository.Counts counts = counter.counts(1);
+        assertEquals(102, counts.views());
+        assertEquals(2, counts.uniqueViewers());
+        verify(repository, times(1)).findCounts(1);
+    }
+
+    @Test
+    @DisplayName("删除文章时删除阅读数和未写库的增量")
+    void dropsDeletedPosts() {
+        counter.record(1, "u:alice");
+        counter.record(2, "u:alice");
+        counter.onEvents(List.of(new EngagementEvent.PostDeleted(1, 9, List.of(), List.of())));
+
+        verify(repository).delete(Set.of(1L));
+        counter.flushAll();
+        assertEquals(List.of(2L), captureUpsert().stream().map(PostViewRepository.Row::postId).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PostViewRepository.Row> captureUpsert() {
+        ArgumentCaptor<Collection<PostViewRepository.Row>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, atLeastOnce()).upsert(captor.capture());
+        List<PostViewRepository.Row> rows = new ArrayList<>();
+        captor.getAllValues().forEach(rows::addAll);
+        return rows;
+    }
+}
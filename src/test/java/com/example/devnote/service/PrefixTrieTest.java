@@ -0,0 +1,90 @@
+package com.example.devnote.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 压缩前缀树单元测试
+ * 测试边的拆分与合并、前缀停在边中间、按权重取前若干个，以及与暴力计算结果一致
+ */
+@DisplayName("PrefixTrie 单元测试")
+class PrefixTrieTest {
+
+    @Test
+    @DisplayName("插入时拆分公共前缀，删除后合并，按权重降序、键升序返回")
+    void splitsMergesAndRanks() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.put("java", 5);
+        trie.put("javascript", 9);
+        trie.put("jav", 1);
+        trie.put("json", 5);
+
+        assertEquals(List.of(new PrefixTrie.Match("javascript", 9), new PrefixTrie.Match("java", 5),
+                new PrefixTrie.Match("json", 5), new PrefixTrie.Match("jav", 1)), trie.top("j", 10));
+        // 前缀停在边的中间
+        assertEquals(List.of(new PrefixTrie.Match("javascript", 9)), trie.top("javas", 10));
+        assertEquals(2, trie.top("ja", 2).size());
+        assertEquals(List.of(), trie.top("jx", 10));
+        assertEquals(List.of(), trie.top("javascripts", 10));
+
+        assertTrue(trie.remove("java"));
+        assertFalse(trie.remove("java"));
+        assertFalse(trie.remove("ja"));
+        assertNull(trie.get("java"));
+        assertEquals(1L, trie.get("jav"));
+        assertTrue(trie.remove("jav"));
+        assertEquals(List.of(new PrefixTrie.Match("javascript", 9), new PrefixTrie.Match("json", 5)), trie.top("j", 10));
+
+        // 更新权重后子树最大值随之变化
+        trie.put("json", 20);
+        assertEquals("json", trie.top("", 1).get(0).key());
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    @DisplayName("随机插入、更新、删除后，结果与暴力排序一致")
+    void matchesBruteForce() {
+        Random random = new Random(42);
+        PrefixTrie trie = new PrefixTrie();
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String key = randomKey(random);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(key) != null, trie.remove(key));
+            } else {
+                long weight = random.nextInt(50);
+                trie.put(key, weight);
+                expected.put(key, weight);
+            }
+        }
+        assertEquals(expected.size(), trie.size());
+
+        for (String prefix : List.of("", "a", "ab", "abc", "ba", "c", "cab")) {
+            List<PrefixTrie.Match> brute = expected.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .map(entry -> new PrefixTrie.Match(entry.getKey(), entry.getValue()))
+                    .sorted(Comparator.comparingLong(PrefixTrie.Match::weight).reversed()
+                            .thenComparing(PrefixTrie.Match::key))
+                    .limit(15)
+                    .toList();
+            assertEquals(brute, trie.top(prefix, 15), prefix);
+        }
+    }
+
+    private static String randomKey(Random random) {
+        int length = 1 + random.nextInt(6);
+        StringBuilder key = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            key.append((char) ('a' + random.nextInt(3)));
+        }
+        return key.toString();
+    }
+}
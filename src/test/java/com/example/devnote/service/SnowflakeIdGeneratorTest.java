@@ -0,0 +1,102 @@
+package com.example.devnote.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snowflake ID 生成器单元测试
+ * 测试单调递增、并发唯一、序号溢出、时钟回拨与位布局
+ */
+@DisplayName("SnowflakeIdGenerator 单元测试")
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH + 1_000_000L;
+
+    @Test
+    @DisplayName("同一毫秒内超过序号上限时借用下一毫秒，ID 仍严格递增")
+    void sequenceOverflowBorrowsNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 1000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertTrue(SnowflakeIdGenerator.timestampOf(previous) > NOW);
+    }
+
+    @Test
+    @DisplayName("时钟回拨时不生成重复或倒序的 ID")
+    void clockRollbackKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(after));
+    }
+
+    @Test
+    @DisplayName("ID 可还原生成时间、包含节点号，且不超过 53 位")
+    void layout() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(id));
+        assertEquals(SnowflakeIdGenerator.MAX_WORKER_ID, (id >>> 7) & SnowflakeIdGenerator.MAX_WORKER_ID);
+        assertTrue(SnowflakeIdGenerator.minIdAt(NOW) <= id);
+        assertTrue(SnowflakeIdGenerator.minIdAt(NOW + 1) > id);
+
+        long latest = new SnowflakeIdGenerator(0, () -> SnowflakeIdGenerator.EPOCH + (1L << 41) - 1).nextId();
+        assertTrue(latest < (1L << 53));
+    }
+
+    @Test
+    @DisplayName("不同节点号在同一毫秒生成的 ID 不冲突")
+    void differentWorkersDoNotCollide() {
+        long a = new SnowflakeIdGenerator(1, () -> NOW).nextId();
+        long b = new SnowflakeIdGenerator(2, () -> NOW).nextId();
+
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    @DisplayName("多线程并发生成的 ID 全部唯一")
+    void concurrentIdsAreUnique() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, System::currentTimeMillis);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (long id : generator.nextIds(20_000)) {
+                    ids.add(id);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("节点号超出范围时抛出异常")
+    void rejectsInvalidWorkerId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, () -> NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1, () -> NOW));
+    }
+}
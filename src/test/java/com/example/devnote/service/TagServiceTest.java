@@ -0,0 +1,120 @@
+package com.example.devnote.service;
+
+import com.example.devnote.dto.CursorPage;
+import com.example.devnote.entity.Post;
+import com.example.devnote.entity.User;
+import com.example.devnote.repository.PostRepository;
+import com.example.devnote.repository.TagRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * 标签单元测试
+ * 测试标签解析与规范化、标签页按可见性过滤与游标分页、修改 / 删除后索引同步，以及按公开文章数补全
+ */
+@DisplayName("TagService 单元测试")
+class TagServiceTest {
+
+    private static final long AUTHOR = 1;
+    private static final long FOLLOWER = 2;
+    private static final long STRANGER = 3;
+
+    private TagIndex tagIndex;
+    private FollowService followService;
+    private TagService tagService;
+
+    @BeforeEach
+    void setUp() {
+        tagIndex = new TagIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry());
+        tagIndex.load();
+        followService = mock(FollowService.class);
+        when(followService.isFollowing(FOLLOWER, AUTHOR)).thenReturn(true);
+
+        PostRepository postRepository = mock(PostRepository.class);
+        when(postRepository.findWithAuthorByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            // 故意打乱顺序，结果应按索引顺序输出
+            return ids.stream().sorted().map(TagServiceTest::post).toList();
+        });
+        tagService = new TagService(mock(TagRepository.class), postRepository, tagIndex, followService);
+
+        // 文章 ID 越大越新
+        tagIndex.put(10, AUTHOR, "PUBLIC", List.of("java"));
+        tagIndex.put(11, AUTHOR, "FOLLOWERS", List.of("java", "spring"));
+        tagIndex.put(12, AUTHOR, "PRIVATE", List.of("java"));
+        tagIndex.put(13, AUTHOR, "PUBLIC", List.of("java", "javascript"));
+        tagIndex.put(14, AUTHOR, "PUBLIC", List.of("javascript"));
+    }
+
+    @Test
+    @DisplayName("解析时规范化、去重，拒绝非法标签和过多的标签")
+    void parsesAndNormalizes() {
+        assertEquals(List.of("java", "spring-boot", "c++"), TagService.parse(" #Java, spring-boot，JAVA  c++ # "));
+        assertEquals(List.of(), TagService.parse("  "));
+        assertThrows(IllegalArgumentException.class, () -> TagService.parse("a b c d e f"));
+        assertThrows(IllegalArgumentException.class, () -> TagService.normalize("drop;table"));
+        assertThrows(IllegalArgumentException.class, () -> TagService.normalize("x".repeat(33)));
+    }
+
+    @Test
+    @DisplayName("标签页只返回当前用户可见的文章，按发布时间倒序游标分页")
+    void feedsVisiblePostsByCursor() {
+        assertEquals(List.of(13L, 10L), ids(tagService.feed("java", null, null, 10)));
+        assertEquals(List.of(13L, 11L, 10L), ids(tagService.feed("java", user(FOLLOWER), null, 10)));
+        assertEquals(List.of(13L, 10L), ids(tagService.feed("java", user(STRANGER), null, 10)));
+
+        CursorPage<Post> first = tagService.feed("java", user(AUTHOR), null, 2);
+        assertEquals(List.of(13L, 12L), ids(first));
+        assertTrue(first.isHasNext());
+        CursorPage<Post> second = tagService.feed("java", user(AUTHOR), first.getNextCursor(), 2);
+        assertEquals(List.of(11L, 10L), ids(second));
+        assertFalse(second.isHasNext());
+
+        assertEquals(List.of(), ids(tagService.feed("rust", null, null, 10)));
+        assertThrows(IllegalArgumentException.class, () -> tagService.feed("java", null, "abc", 10));
+    }
+
+    @Test
+    @DisplayName("修改标签、删除文章后索引和补全结果同步更新")
+    void keepsIndexInSync() {
+        assertEquals(List.of(new PrefixTrie.Match("java", 2), new PrefixTrie.Match("javascript", 2)),
+                tagService.suggest("#JA", 10));
+        // 只出现在非公开文章上的标签不参与补全
+        assertEquals(List.of(), tagService.suggest("spr", 10));
+
+        tagIndex.put(10, AUTHOR, "PUBLIC", List.of("javascript"));
+        tagIndex.remove(13);
+        assertEquals(List.of(new PrefixTrie.Match("javascript", 2)), tagService.suggest("ja", 10));
+        assertEquals(List.of(14L, 10L), ids(tagService.feed("javascript", null, null, 10)));
+        assertEquals(List.of(), ids(tagService.feed("java", null, null, 10)));
+
+        tagIndex.put(14, AUTHOR, "PUBLIC", List.of());
+        assertEquals(List.of(10L), ids(tagService.feed("javascript", null, null, 10)));
+    }
+
+    private static List<Long> ids(CursorPage<Post> page) {
+        return page.getContent().stream().map(Post::getId).toList();
+    }
+
+    private static Post post(long id) {
+        Post post = new Post();
+        post.setId(id);
+        return post;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.TrendingProperties;
+import com.example.devnote.event.EngagementEvent;
+import com.example.devnote.repository.CommentRepository;
+import com.example.devnote.repository.FavoriteRepository;
+import com.example.devnote.repository.LikeRepository;
+import com.example.devnote.repository.PostHotScoreRepository;
+import com.example.devnote.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 热门排行单元测试
+ * 测试启动时优先使用快照、加载期间事件的重放、互动事件按增量调整排名、新文章收录与删除，以及时间衰减和快照写入
+ */
+@DisplayName("TrendingService 单元测试")
+class TrendingServiceTest {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final LikeRepository likeRepository = mock(LikeRepository.class);
+    private final FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final PostHotScoreRepository hotScoreRepository = mock(PostHotScoreRepository.class);
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private TrendingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrendingService(postRepository, likeRepository, favoriteRepository, commentRepository,
+                hotScoreRepository, new TrendingProperties(), new SimpleMeterRegistry());
+        // 文章 1、2 同一时间发布，文章 3 晚一天（两个半衰期）
+        when(postRepository.findPublicCreatedSince(any())).thenReturn(rows(
+                new Object[]{1L, now.minusDays(1)},
+                new Object[]{2L, now.minusDays(1)},
+                new Object[]{3L, now}));
+        // 文章 1 在快照里，其余两篇需要统计
+        when(hotScoreRepository.findCreatedSince(any())).thenReturn(List.of(
+                new PostHotScoreRepository.Row(1L, 10, 0, 0, now.minusDays(1))));
+        when(likeRepository.countByPostIds(anyCollection())).thenReturn(rows(new Object[]{2L, 3L}));
+        when(favoriteRepository.countByPostIds(anyCollection())).thenReturn(List.of());
+        when(commentRepository.countByPostIds(anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("启动时快照中的文章不重新统计；晚发布的文章互动较少也能排在前面")
+    void loadsFromSnapshotAndAppliesTimeDecay() {
+        service.load();
+
+        verify(likeRepository).countByPostIds(argThat((Collection<Long> ids) -> Set.copyOf(ids).equals(Set.of(2L, 3L))));
+        // 文章 3：log2(1) + 2 = 2；文章 1：log2(11) ≈ 3.46；文章 2：log2(4) = 2
+        assertEquals(List.of(1L, 3L, 2L), service.top(10));
+        assertEquals(List.of(1L, 3L), service.top(2));
+    }
+
+    @Test
+    @DisplayName("互动事件按增量调整排名，收录新发表的公开文章，删除的文章移出排行")
+    void appliesEventsIncrementally() {
+        service.load();
+        when(postRepository.findPublicCreatedAt(anyCollection())).thenReturn(rows(new Object[]{4L, now}));
+
+        List<EngagementEvent> events = new ArrayList<>();
+        for (long userId = 100; userId < 120; userId++) {
+            events.add(new EngagementEvent.PostLiked(userId, 2));
+        }
+        events.add(new EngagementEvent.PostSaved(4, 9, true));
+        events.add(new EngagementEvent.PostDeleted(1, 9, List.of(), List.of()));
+        // 窗口外的文章没有被跟踪，忽略
+        events.add(new EngagementEvent.PostLiked(100, 99));
+        service.onEvents(events);
+
+        // 文章 2：log2(24) ≈ 4.58；文章 3、4 同分时新 ID 在前
+        assertEquals(List.of(2L, 4L, 3L), service.top(10));
+        assertEquals(3, service.trackedCount());
+    }
+
+    @Test
+    @DisplayName("加载期间到达的点赞只重放到快照中的文章，重新统计的文章不重复计数")
+    @SuppressWarnings("unchecked")
+    void replaysPendingOnlyOntoSnapshotEntries() {
+        // 统计文章 2 的点赞时，一次点赞已提交（计入统计结果），对应的事件在加载完成前到达
+        when(likeRepository.countByPostIds(anyCollection())).thenAnswer(invocation -> {
+            service.onEvents(List.of(new EngagementEvent.PostLiked(100, 1), new EngagementEvent.PostLiked(100, 2)));
+            return rows(new Object[]{2L, 4L});
+        });
+        service.load();
+        service.persist();
+
+        ArgumentCaptor<Collection<PostHotScoreRepository.Row>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(hotScoreRepository).upsert(rows.capture());
+        Map<Long, Long> likes = rows.getValue().stream().collect(java.util.stream.Collectors.toMap(
+                PostHotScoreRepository.Row::postId, PostHotScoreRepository.Row::likeCount));
+        assertEquals(11L, likes.get(1L));
+        assertEquals(4L, likes.get(2L));
+    }
+
+    @Test
+    @DisplayName("定时把有变化的计数写入快照（删除评论时扣减评论数），并删除已删除文章的行")
+    @SuppressWarnings("unchecked")
+    void persistsDirtyEntries() {
+        service.load();
+        service.persist();
+        service.onEvents(List.of(new EngagementEvent.PostFavorited(100, 1),
+                new EngagementEvent.CommentAdded(500, 1, 100, null),
+                new EngagementEvent.CommentAdded(501, 1, 101, null),
+                new EngagementEvent.CommentAdded(502, 1, 100, 501L),
+                new EngagementEvent.CommentDeleted(501, 1, 2),
+                new EngagementEvent.PostDeleted(2, 9, List.of(), List.of())));
+        service.persist();
+
+        ArgumentCaptor<Collection<PostHotScoreRepository.Row>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(hotScoreRepository, times(2)).upsert(rows.capture());
+        // 第一次：启动时统计的文章 2、3；第二次：只有收藏、评论变化的文章 1
+        assertEquals(Set.of(2L, 3L), rows.getAllValues().get(0).stream()
+                .map(PostHotScoreRepository.Row::postId).collect(java.util.stream.Collectors.toSet()));
+        PostHotScoreRepository.Row row = rows.getAllValues().get(1).iterator().next();
+        assertEquals(1L, row.postId());
+        assertEquals(10, row.likeCount());
+        assertEquals(1, row.favoriteCount());
+        assertEquals(1, row.commentCount());
+        verify(hotScoreRepository).delete(Set.of(2L));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.devnote.service;
+
+import com.example.devnote.config.UploadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 上传接收单元测试
+ * 测试流式写入与哈希、大小上限，以及全局 / 每用户的并发名额
+ */
+@DisplayName("UploadService 单元测试")
+class UploadServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UploadService uploadService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        UploadProperties properties = new UploadProperties();
+        properties.setTempDir(tempDir.toString());
+        properties.setMaxFileSize(DataSize.ofKilobytes(200));
+        properties.setMaxConcurrent(2);
+        properties.setMaxPerUser(1);
+        properties.setAcquireTimeout(Duration.ofMillis(10));
+        uploadService = new UploadService(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("内容原样写入临时文件并计算 SHA-256，关闭后删除")
+    void streamsToTempFileAndHashes() throws Exception {
+        byte[] content = new byte[150 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        UploadService.Upload upload = uploadService.receive(1L, new MockMultipartFile("f", content));
+        assertArrayEquals(content, Files.readAllBytes(upload.getPath()));
+        assertEquals(content.length, upload.getSize());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), upload.getSha256());
+
+        upload.close();
+        assertFalse(Files.exists(upload.getPath()));
+    }
+
+    @Test
+    @DisplayName("实际读到的字节超过上限时中止，不留临时文件，名额归还")
+    void rejectsOversizedContent() throws IOException {
+        // 声明的大小是假的，只有边读边计数才能发现
+        MockMultipartFile lying = new MockMultipartFile("f", new byte[0]) {
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(new byte[300 * 1024]);
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> uploadService.receive(1L, lying));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        assertEquals(1.0, meterRegistry.get("devnote.upload.rejected").tag("reason", "too_large").counter().count());
+        uploadService.receive(1L, new MockMultipartFile("f", new byte[10])).close();
+    }
+
+    @Test
+    @DisplayName("每个用户同时只能有一个上传，全局名额用完后其他用户也被拒绝")
+    void boundsConcurrentUploads() throws IOException {
+        UploadService.Upload first = uploadService.receive(1L, new MockMultipartFile("f", new byte[10]));
+        assertThrows(IllegalStateException.class, () -> uploadService.receive(1L, new MockMultipartFile("f", new byte[10])));
+
+        UploadService.Upload second = uploadService.receive(2L, new MockMultipartFile("f", new byte[10]));
+        assertThrows(IllegalStateException.class, () -> uploadService.receive(3L, new MockMultipartFile("f", new byte[10])));
+        assertEquals(2.0, meterRegistry.get("devnote.upload.active").gauge().value());
+
+        first.close();
+        first.close();
+        uploadService.receive(3L, new MockMultipartFile("f", new byte[10])).close();
+        second.close();
+        assertEquals(0.0, meterRegistry.get("devnote.upload.active").gauge().value());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.devnote.service;
+
+import com.example.devnote.event.EngagementEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 用户名补全索引单元测试
+ * 测试从 users 表加载、不区分大小写的前缀匹配、按粉丝数排序，注册与关注事件的增量更新，以及加载期间的更新
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSearchIndex 单元测试")
+class UserSearchIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        index = new UserSearchIndex(jdbcTemplate, new SimpleMeterRegistry());
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            row(handler, 1, "Alice", 10);
+            row(handler, 2, "alan", 30);
+            row(handler, 3, "albert", 10);
+            row(handler, 4, "bob", 50);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        index.load();
+    }
+
+    private static void row(RowCallbackHandler handler, long id, String username, long followers)
+            throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getString(2)).thenReturn(username);
+        when(rs.getLong(3)).thenReturn(followers);
+        handler.processRow(rs);
+    }
+
+    private List<String> names(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(UserSearchIndex.Suggestion::username).toList();
+    }
+
+    @Test
+    @DisplayName("前缀匹配不区分大小写，按粉丝数降序、相同时按用户名排序，保留原始大小写")
+    void suggestsByFollowers() {
+        assertTrue(index.isLoaded());
+        assertEquals(4, index.size());
+        assertEquals(List.of("alan", "albert", "Alice"), names("AL", 10));
+        assertEquals(List.of("alan"), names("al", 1));
+        assertEquals(List.of("Alice"), names("alic", 10));
+        assertTrue(names("carol", 10).isEmpty());
+        assertTrue(names("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("关注 / 取关事件按批次合并后调整粉丝数与排序")
+    void followEventsAdjustRanking() {
+        index.onEvents(List.of(
+                new EngagementEvent.UserFollowed(9, 1),
+                new EngagementEvent.UserFollowed(8, 1),
+                new EngagementEvent.UserFollowed(7, 3),
+                new EngagementEvent.UserUnfollowed(7, 3),
+                new EngagementEvent.UserUnfollowed(9, 2)));
+
+        List<UserSearchIndex.Suggestion> result = index.suggest("a", 10);
+        assertEquals(List.of("alan", "Alice", "albert"),
+                result.stream().map(UserSearchIndex.Suggestion::username).toList());
+        assertEquals(29, result.get(0).followersCount());
+        assertEquals(12, result.get(1).followersCount());
+        assertEquals(1L, result.get(1).userId());
+    }
+
+    @Test
+    @DisplayName("加载期间的新用户补进新快照，粉丝数增量不重放（快照中已包含）")
+    void replaysOnlyAddsAfterLoad() throws SQLException {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            // 读到 alan 之前，关注已提交（计数已含在本行中），监听器的增量随后到达
+            index.onEvents(List.of(new EngagementEvent.UserFollowed(9, 2)));
+            index.addAfterCommit(6, "alba");
+            row(handler, 2, "alan", 31);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        index.load();
+
+        List<UserSearchIndex.Suggestion> result = index.suggest("al", 10);
+        assertEquals(List.of("alan", "alba"), result.stream().map(UserSearchIndex.Suggestion::username).toList());
+        assertEquals(31, result.get(0).followersCount());
+    }
+
+    @Test
+    @DisplayName("注册的新用户立即可搜，重新加载后以数据库为准")
+    void addsRegisteredUser() {
+        index.addAfterCommit(5, "Alex");
+        assertEquals(List.of("alan", "albert", "Alice", "Alex"), names("al", 10));
+        assertEquals(0, index.suggest("alex", 1).get(0).followersCount());
+
+        index.load();
+        assertEquals(4, index.size());
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+}
@@ -40,6 +40,9 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -121,6 +124,7 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findByUsername(username);
         verify(passwordEncoder, times(1)).encode(password);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(userSearchIndex, times(1)).addAfterCommit(testUser.getId(), testUser.getUsername());
     }
 
     @Test